@@ -0,0 +1,142 @@
+package com.example.tricol.tricolspringbootrestapi.mapper;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.OrderResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.ExitReason;
+import com.example.tricol.tricolspringbootrestapi.enums.ExitSlipStatus;
+import com.example.tricol.tricolspringbootrestapi.model.ExitSlip;
+import com.example.tricol.tricolspringbootrestapi.model.ExitSlipItem;
+import com.example.tricol.tricolspringbootrestapi.model.Order;
+import com.example.tricol.tricolspringbootrestapi.model.OrderItem;
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.model.StockSlot;
+import com.example.tricol.tricolspringbootrestapi.model.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// MapStruct mappers used on every order, exit slip and movement response; `items` lines per document
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int items;
+
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+    private final ExitSlipMapper exitSlipMapper = new ExitSlipMapperImpl();
+    private final StockMovementMapper stockMovementMapper = new StockMovementMapperImpl();
+
+    private Order order;
+    private ExitSlip exitSlip;
+    private StockMovement movement;
+
+    @Setup
+    public void setUp() {
+        // the generated mappers get their item mappers by field injection
+        ReflectionTestUtils.setField(orderMapper, "orderItemMapper", new OrderItemMapperImpl());
+        ReflectionTestUtils.setField(exitSlipMapper, "exitSlipItemMapper", new ExitSlipItemMapperImpl());
+
+        Supplier supplier = new Supplier();
+        supplier.setId(1L);
+        supplier.setSociety("Textiles Atlas");
+
+        order = new Order();
+        order.setId(1L);
+        order.setSupplier(supplier);
+        order.setOrderDate(LocalDateTime.of(2024, 5, 6, 10, 0));
+        order.setStatus(Order.OrderStatus.delivered);
+        order.setTotalAmount(items * 250.0);
+
+        exitSlip = new ExitSlip();
+        exitSlip.setId(1L);
+        exitSlip.setSlipNumber("BS-20240506-0001");
+        exitSlip.setExitDate(LocalDateTime.of(2024, 5, 6, 14, 0));
+        exitSlip.setDestinationWorkshop("Cutting");
+        exitSlip.setReason(ExitReason.values()[0]);
+        exitSlip.setStatus(ExitSlipStatus.VALIDATED);
+        exitSlip.setCreatedAt(LocalDateTime.of(2024, 5, 6, 9, 0));
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        List<ExitSlipItem> slipItems = new ArrayList<>();
+        for (long i = 1; i <= items; i++) {
+            Product product = product(i);
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setId(i);
+            orderItem.setOrder(order);
+            orderItem.setProduct(product);
+            orderItem.setQuantity(25.0);
+            orderItem.setUnitPrice(10.0);
+            orderItem.setTotal(250.0);
+            orderItems.add(orderItem);
+
+            ExitSlipItem slipItem = new ExitSlipItem();
+            slipItem.setId(i);
+            slipItem.setExitSlip(exitSlip);
+            slipItem.setProduct(product);
+            slipItem.setRequestedQuantity(BigDecimal.valueOf(5));
+            slipItem.setActualQuantity(BigDecimal.valueOf(5));
+            slipItems.add(slipItem);
+        }
+        order.setItems(orderItems);
+        exitSlip.setItems(slipItems);
+
+        StockSlot slot = new StockSlot();
+        slot.setId(1L);
+        slot.setLotNumber("LOT-2024-001");
+        movement = new StockMovement();
+        movement.setId(1L);
+        movement.setType(StockMovement.Type.out);
+        movement.setDate(LocalDateTime.of(2024, 5, 6, 14, 0));
+        movement.setQuantity(-5.0);
+        movement.setProduct(product(1));
+        movement.setStockSlot(slot);
+        movement.setOrder(order);
+    }
+
+    @Benchmark
+    public OrderResponse orderToDto() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public ExitSlipResponse exitSlipToResponse() {
+        return exitSlipMapper.toResponse(exitSlip);
+    }
+
+    @Benchmark
+    public StockMovementResponse stockMovementToResponse() {
+        return stockMovementMapper.toResponse(movement);
+    }
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setReference("REF-" + id);
+        product.setName("Product " + id);
+        product.setUnitPrice(10.0);
+        return product;
+    }
+}
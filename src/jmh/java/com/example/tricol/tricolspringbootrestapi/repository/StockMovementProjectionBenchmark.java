@@ -0,0 +1,95 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.TricolSpringbootRestapiApplication;
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.mapper.StockMovementMapper;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    One page of OUT movements read through the entity path plus StockMovementMapper, and through the
+    constructor projection, over the StockTestData seed in the embedded test database. Each page runs in its
+    own read-only transaction, so neither path profits from entities already in the persistence context.
+    Run with -prof gc for the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockMovementProjectionBenchmark {
+
+    private static final Sort ORDER = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+    private static final Specification<StockMovement> EXITS =
+            (root, query, cb) -> cb.equal(root.get("type"), StockMovement.Type.out);
+
+    @Param({"0", "39"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private StockMovementRepository stockMovementRepository;
+    private StockMovementMapper stockMovementMapper;
+    private TransactionTemplate readOnly;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() throws IOException {
+        // the journal and the archive go to a scratch directory, not the user's data directory
+        Path dataDirectory = Files.createTempDirectory("tricol-jmh");
+        context = new SpringApplicationBuilder(TricolSpringbootRestapiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--tricol.data-directory=" + dataDirectory,
+                        "--tricol.archive.directory=" + dataDirectory.resolve("archive"));
+        StockTestData.seed(context.getBean(JdbcTemplate.class));
+        stockMovementRepository = context.getBean(StockMovementRepository.class);
+        stockMovementMapper = context.getBean(StockMovementMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        pageable = PageRequest.of(page, 50, ORDER);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<StockMovementResponse> entityAndMapper() {
+        return readOnly.execute(status -> stockMovementRepository.findAll(EXITS, pageable)
+                .map(stockMovementMapper::toResponse).getContent());
+    }
+
+    @Benchmark
+    public List<StockMovementResponse> constructorProjection() {
+        return readOnly.execute(status -> stockMovementRepository.findResponses(EXITS, pageable).getContent());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.TricolSpringbootRestapiApplication;
+import com.example.tricol.tricolspringbootrestapi.model.Supplier;
+import com.example.tricol.tricolspringbootrestapi.search.SupplierSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Supplier picker queries at 100k suppliers in the embedded test database: the leading-wildcard LIKE
+    query against the trigram index plus the load of the page by id. Each query runs in its own read-only
+    transaction, so neither side finds the page already in the persistence context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SupplierSearchBenchmark {
+
+    private static final int SUPPLIERS = 100_000;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+    private static final String[] WORDS = {"atlas", "textile", "tissage", "boutons", "fils", "nord", "maroc",
+            "confection", "sud", "rubans", "coton", "laine", "zip", "cuir", "mode", "industrie"};
+    private static final String[] CITIES = {"Casablanca", "Rabat", "Fès", "Tanger", "Marrakech", "Agadir", "Tétouan"};
+
+    @Param({"at", "atla", "atlas 4", "tisage", "casa", "s123@"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private SupplierRepository supplierRepository;
+    private TransactionTemplate readOnly;
+    private final SupplierSearchIndex index = new SupplierSearchIndex(0.6);
+
+    @Setup
+    public void setUp() throws IOException {
+        // the journal and the archive go to a scratch directory, not the user's data directory
+        Path dataDirectory = Files.createTempDirectory("tricol-jmh");
+        context = new SpringApplicationBuilder(TricolSpringbootRestapiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--tricol.data-directory=" + dataDirectory,
+                        "--tricol.archive.directory=" + dataDirectory.resolve("archive"));
+
+        List<Object[]> rows = new ArrayList<>(SUPPLIERS);
+        for (int i = 1; i <= SUPPLIERS; i++) {
+            String society = WORDS[i % WORDS.length] + " " + WORDS[(i / 7) % WORDS.length] + " " + i;
+            rows.add(new Object[]{i, society, "Agent " + i, CITIES[i % CITIES.length], "s" + i + "@tricol.test", "0600000000"});
+        }
+        context.getBean(JdbcTemplate.class)
+                .batchUpdate("INSERT INTO supplier (id, society, contact_agent, city, email, phone) VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        supplierRepository = context.getBean(SupplierRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> index.rebuild(supplierRepository.findAll()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Supplier> likeQuery() {
+        return readOnly.execute(status -> supplierRepository.searchActive(query, FIRST_PAGE).getContent());
+    }
+
+    @Benchmark
+    public List<Supplier> trigramIndex() {
+        return readOnly.execute(status -> supplierRepository.findAllById(index.search(query, FIRST_PAGE).getContent()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tricol.tricolspringbootrestapi.service.impl;
+
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.model.StockSlot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    The in-memory part of validateExitSlip (availability check, then the FIFO walk) and of
+    calculateStockValue, over a product with `lots` open lots. The requested quantity needs every lot
+    but the last one, which is the worst case of the walk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FifoStockBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int lots;
+
+    private List<StockSlot> slots;
+    private double requested;
+
+    @Setup
+    public void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        slots = new ArrayList<>(lots);
+        for (int i = 0; i < lots; i++) {
+            StockSlot slot = new StockSlot();
+            slot.setId((long) i + 1);
+            slot.setLotNumber("LOT-2024-" + (i + 1));
+            slot.setEntryDate(LocalDateTime.of(2024, 1, 1, 8, 0).plusHours(i));
+            slot.setQuantity(40.0);
+            slot.setAvailableQuantity(25.0);
+            slot.setUnitPrice(10.0 + i % 7);
+            slot.setProduct(product);
+            slots.add(slot);
+        }
+        requested = Math.max(1.0, (lots - 1) * 25.0 + 0.5);
+    }
+
+    @Benchmark
+    public List<ExitSlipServiceImpl.LotAllocation> allocateFifo() {
+        double totalAvailable = slots.stream()
+                .mapToDouble(slot -> slot.getAvailableQuantity() != null ? slot.getAvailableQuantity() : 0.0)
+                .sum();
+        if (totalAvailable < requested) {
+            throw new IllegalStateException("benchmark data does not cover the requested quantity");
+        }
+        return ExitSlipServiceImpl.allocateFifo(slots, requested);
+    }
+
+    @Benchmark
+    public double valueStock() {
+        return ExitSlipServiceImpl.valueOf(slots);
+    }
+}
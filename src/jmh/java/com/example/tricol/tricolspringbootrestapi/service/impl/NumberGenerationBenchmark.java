@@ -0,0 +1,36 @@
+package com.example.tricol.tricolspringbootrestapi.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// formatting of exit slip and lot numbers; the count() query that feeds the sequence is not included
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberGenerationBenchmark {
+
+    private long sequence;
+
+    @Benchmark
+    public String slipNumber() {
+        return ExitSlipServiceImpl.formatSlipNumber(LocalDate.now(), ++sequence);
+    }
+
+    @Benchmark
+    public String lotNumber() {
+        return OrderServiceImpl.formatLotNumber(java.time.Year.now().getValue(), ++sequence);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.tricol.tricolspringbootrestapi.web;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// a page of GET /stock/movements in each response encoding; bytes per response are printed once per trial
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"json-reflection", "json", "smile", "cbor"})
+    private String format;
+
+    @Param({"20", "500"})
+    private int movements;
+
+    private ObjectMapper mapper;
+    private List<StockMovementResponse> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "json-reflection" -> Jackson2ObjectMapperBuilder.json().build();
+            case "json" -> Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().modulesToInstall(new BlackbirdModule()).build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().modulesToInstall(new BlackbirdModule()).build();
+            default -> throw new IllegalArgumentException(format);
+        };
+
+        page = new ArrayList<>();
+        LocalDateTime date = LocalDateTime.of(2024, 5, 6, 10, 0);
+        for (long id = 1; id <= movements; id++) {
+            boolean in = id % 3 != 0;
+            page.add(new StockMovementResponse(id, in ? "in" : "out", date.plusMinutes(id), in ? 120.0 : -35.5,
+                    1 + id % 40, "Cotton fabric " + (1 + id % 40), in ? id : null, id, "LOT-2024-" + String.format("%03d", id)));
+        }
+
+        byte[] body = serialize();
+        System.out.printf("%n%s, %d movements: %d bytes, %d gzipped%n", format, movements, body.length, gzip(body).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    // what goes on the wire for a compressed response: encoding plus gzip at the servlet container's default level
+    @Benchmark
+    public byte[] serializeCompressed() throws IOException {
+        return gzip(serialize());
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+}
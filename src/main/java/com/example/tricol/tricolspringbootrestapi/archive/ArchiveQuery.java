@@ -0,0 +1,47 @@
+package com.example.tricol.tricolspringbootrestapi.archive;
+
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// the searchMovements filters, plus an optional keyset position (beforeDate, beforeId)
+@Data
+@Builder
+public class ArchiveQuery {
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Long productId;
+    private String reference;
+    private StockMovement.Type type;
+    private String lotNumber;
+    private LocalDateTime beforeDate;
+    private Long beforeId;
+
+    public boolean matches(ArchivedStockMovement movement) {
+        LocalDateTime date = movement.getDate();
+        if (startDate != null && date.isBefore(startDate)) {
+            return false;
+        }
+        if (endDate != null && date.isAfter(endDate)) {
+            return false;
+        }
+        if (beforeDate != null) {
+            int cmp = date.compareTo(beforeDate);
+            if (cmp > 0 || (cmp == 0 && movement.getId() >= beforeId)) {
+                return false;
+            }
+        }
+        if (productId != null && !productId.equals(movement.getProductId())) {
+            return false;
+        }
+        if (reference != null && !reference.equals(movement.getProductReference())) {
+            return false;
+        }
+        if (type != null && !type.name().equals(movement.getType())) {
+            return false;
+        }
+        return lotNumber == null || lotNumber.equals(movement.getLotNumber());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.tricol.tricolspringbootrestapi.archive;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ArchiveSlice {
+    private List<StockMovementResponse> rows;
+    // number of matching archived rows, or -1 when the search stopped early without counting
+    private long totalMatched;
+}
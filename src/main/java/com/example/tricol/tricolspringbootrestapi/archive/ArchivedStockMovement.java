@@ -0,0 +1,44 @@
+package com.example.tricol.tricolspringbootrestapi.archive;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// flattened copy of a stock movement as stored in a segment file
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedStockMovement {
+    private Long id;
+    private String type;
+    private LocalDateTime date;
+    private Double quantity;
+    private Long productId;
+    private String productName;
+    private String productReference;
+    private Long orderId;
+    private Long stockSlotId;
+    private String lotNumber;
+
+    public static ArchivedStockMovement of(StockMovement movement) {
+        return new ArchivedStockMovement(
+                movement.getId(),
+                movement.getType() != null ? movement.getType().name() : null,
+                movement.getDate(),
+                movement.getQuantity(),
+                movement.getProduct().getId(),
+                movement.getProduct().getName(),
+                movement.getProduct().getReference(),
+                movement.getOrder() != null ? movement.getOrder().getId() : null,
+                movement.getStockSlot().getId(),
+                movement.getStockSlot().getLotNumber());
+    }
+
+    public StockMovementResponse toResponse() {
+        return new StockMovementResponse(id, type, date, quantity, productId, productName, orderId, stockSlotId, lotNumber);
+    }
+}
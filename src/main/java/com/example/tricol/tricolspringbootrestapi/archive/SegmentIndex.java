@@ -0,0 +1,44 @@
+package com.example.tricol.tricolspringbootrestapi.archive;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.TreeSet;
+
+// small sidecar of a segment file, used to skip segments without decompressing them
+@Data
+@NoArgsConstructor
+public class SegmentIndex {
+    private LocalDate day;
+    private int count;
+    private long minId;
+    private long maxId;
+    private Set<String> types = new TreeSet<>();
+    private Set<Long> productIds = new TreeSet<>();
+    private Set<String> productReferences = new TreeSet<>();
+    private Set<String> lotNumbers = new TreeSet<>();
+
+    public boolean mayContain(ArchiveQuery query) {
+        if (query.getStartDate() != null && day.isBefore(query.getStartDate().toLocalDate())) {
+            return false;
+        }
+        if (query.getEndDate() != null && day.isAfter(query.getEndDate().toLocalDate())) {
+            return false;
+        }
+        if (query.getBeforeDate() != null && day.isAfter(query.getBeforeDate().toLocalDate())) {
+            return false;
+        }
+        if (query.getType() != null && !types.contains(query.getType().name())) {
+            return false;
+        }
+        if (query.getProductId() != null && !productIds.contains(query.getProductId())) {
+            return false;
+        }
+        if (query.getReference() != null && !productReferences.contains(query.getReference())) {
+            return false;
+        }
+        return query.getLotNumber() == null || lotNumbers.contains(query.getLotNumber());
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.tricol.tricolspringbootrestapi.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+    Cold storage for stock movements older than the archive horizon.
+
+    One segment per day: <directory>/yyyy/MM/stock-movements-yyyy-MM-dd.seg.gz holds the gzip'd
+    binary records sorted like the search (date desc, id desc), and a .idx.json sidecar holds the
+    day's count, id range and the distinct products, references, lots and types it contains.
+    The sidecars are small and kept in memory, so a search only decompresses segments that can match.
+ */
+@Slf4j
+@Component
+public class StockMovementArchive {
+
+    private static final int MAGIC = 0x54534D31; // "TSM1"
+    private static final String SEGMENT_SUFFIX = ".seg.gz";
+    private static final String INDEX_SUFFIX = ".idx.json";
+    private static final int MAX_CACHED_COUNTS = 256;
+    private static final Comparator<ArchivedStockMovement> MOVEMENT_ORDER = Comparator
+            .comparing(ArchivedStockMovement::getDate)
+            .thenComparing(ArchivedStockMovement::getId)
+            .reversed();
+
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ConcurrentSkipListMap<LocalDate, SegmentIndex> indexes = new ConcurrentSkipListMap<>();
+    // archived totals per query; segments only change when the archiver writes one, which clears them
+    private final Map<ArchiveQuery, Long> counts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ArchiveQuery, Long> eldest) {
+            return size() > MAX_CACHED_COUNTS;
+        }
+    };
+    private final AtomicLong generation = new AtomicLong();
+
+    public StockMovementArchive(@Value("${tricol.archive.directory:data/archive/stock-movements}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    @PostConstruct
+    void loadIndexes() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(INDEX_SUFFIX)).toList()) {
+                SegmentIndex index = objectMapper.readValue(file.toFile(), SegmentIndex.class);
+                indexes.put(index.getDay(), index);
+            }
+        }
+        log.info("Loaded {} stock movement archive segments from {}", indexes.size(), directory);
+    }
+
+    // everything strictly before this instant lives in the archive, null while nothing is archived
+    public LocalDateTime watermark() {
+        return indexes.isEmpty() ? null : indexes.lastKey().plusDays(1).atStartOfDay();
+    }
+
+    public boolean isArchived(LocalDateTime date) {
+        LocalDateTime watermark = watermark();
+        return watermark != null && date.isBefore(watermark);
+    }
+
+    // only an explicit start date before the watermark reaches back into the archive; unbounded searches stay hot
+    public boolean reaches(LocalDateTime startDate) {
+        LocalDateTime watermark = watermark();
+        return watermark != null && startDate != null && startDate.isBefore(watermark);
+    }
+
+    /*
+        Matching archived rows in search order. Skips `skip` matches and returns up to `limit`;
+        with countAll the remaining segments are still scanned so totalMatched is exact,
+        otherwise the scan stops as soon as the slice is full.
+     */
+    public ArchiveSlice search(ArchiveQuery query, long skip, int limit, boolean countAll) {
+        List<ArchivedStockMovement> collected = new ArrayList<>();
+        long matched = 0;
+
+        for (SegmentIndex index : indexes.descendingMap().values()) {
+            if (!countAll && collected.size() >= limit) {
+                break;
+            }
+            if (!index.mayContain(query)) {
+                continue;
+            }
+            // the slice is full and every row of this day matches: count from the index instead of decoding
+            if (countAll && collected.size() >= limit && coversWholeDay(query, index)) {
+                matched += index.getCount();
+                continue;
+            }
+            for (ArchivedStockMovement movement : readSegment(index.getDay())) {
+                if (!query.matches(movement)) {
+                    continue;
+                }
+                matched++;
+                if (matched > skip && collected.size() < limit) {
+                    collected.add(movement);
+                } else if (!countAll && collected.size() >= limit) {
+                    break;
+                }
+            }
+        }
+
+        return new ArchiveSlice(collected.stream().map(ArchivedStockMovement::toResponse).toList(),
+                countAll ? matched : -1);
+    }
+
+    /*
+        Number of archived rows matching the query. Paging through a filtered search asks for the same total on
+        every page, and counting it means decompressing every candidate segment, so the result is kept until the
+        next segment write.
+     */
+    public long count(ArchiveQuery query) {
+        synchronized (counts) {
+            Long cached = counts.get(query);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long seen = generation.get();
+        long total = search(query, 0, 0, true).getTotalMatched();
+        synchronized (counts) {
+            // a segment written meanwhile may have changed the total, so only a count of the current segments is kept
+            if (generation.get() == seen) {
+                counts.put(query, total);
+            }
+        }
+        return total;
+    }
+
+    // writes (or rewrites) a day's segment; existing rows of that day are kept, so re-running after a crash is safe
+    public synchronized void writeSegment(LocalDate day, List<ArchivedStockMovement> movements) throws IOException {
+        Map<Long, ArchivedStockMovement> byId = new HashMap<>();
+        if (indexes.containsKey(day)) {
+            readSegment(day).forEach(m -> byId.put(m.getId(), m));
+        }
+        movements.forEach(m -> byId.put(m.getId(), m));
+
+        List<ArchivedStockMovement> rows = new ArrayList<>(byId.values());
+        rows.sort(MOVEMENT_ORDER);
+
+        SegmentIndex index = new SegmentIndex();
+        index.setDay(day);
+        index.setCount(rows.size());
+        index.setMinId(rows.stream().mapToLong(ArchivedStockMovement::getId).min().orElse(0));
+        index.setMaxId(rows.stream().mapToLong(ArchivedStockMovement::getId).max().orElse(0));
+        for (ArchivedStockMovement row : rows) {
+            if (row.getType() != null) {
+                index.getTypes().add(row.getType());
+            }
+            index.getProductIds().add(row.getProductId());
+            if (row.getProductReference() != null) {
+                index.getProductReferences().add(row.getProductReference());
+            }
+            if (row.getLotNumber() != null) {
+                index.getLotNumbers().add(row.getLotNumber());
+            }
+        }
+
+        Path segment = segmentPath(day);
+        Files.createDirectories(segment.getParent());
+
+        Path tmpSegment = segment.resolveSibling(segment.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(tmpSegment.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(rows.size());
+            for (ArchivedStockMovement row : rows) {
+                writeRecord(out, row);
+            }
+        }
+        fsync(tmpSegment);
+
+        Path indexFile = indexPath(day);
+        Path tmpIndex = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        objectMapper.writeValue(tmpIndex.toFile(), index);
+        fsync(tmpIndex);
+
+        // the segment goes first: an index is only ever visible next to a complete segment
+        Files.move(tmpSegment, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(tmpIndex, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        indexes.put(day, index);
+        synchronized (counts) {
+            generation.incrementAndGet();
+            counts.clear();
+        }
+    }
+
+    private List<ArchivedStockMovement> readSegment(LocalDate day) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(segmentPath(day)))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a stock movement segment: " + segmentPath(day));
+            }
+            int count = in.readInt();
+            List<ArchivedStockMovement> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(readRecord(in));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive segment for " + day, e);
+        }
+    }
+
+    private boolean coversWholeDay(ArchiveQuery query, SegmentIndex index) {
+        LocalDateTime dayStart = index.getDay().atStartOfDay();
+        LocalDateTime dayEnd = index.getDay().plusDays(1).atStartOfDay();
+        return query.getProductId() == null && query.getReference() == null && query.getType() == null
+                && query.getLotNumber() == null && query.getBeforeDate() == null
+                && (query.getStartDate() == null || !query.getStartDate().isAfter(dayStart))
+                && (query.getEndDate() == null || !query.getEndDate().isBefore(dayEnd.minusNanos(1)));
+    }
+
+    private Path segmentPath(LocalDate day) {
+        return partition(day).resolve("stock-movements-" + day + SEGMENT_SUFFIX);
+    }
+
+    private Path indexPath(LocalDate day) {
+        return partition(day).resolve("stock-movements-" + day + INDEX_SUFFIX);
+    }
+
+    private Path partition(LocalDate day) {
+        return directory.resolve(String.valueOf(day.getYear())).resolve(String.format("%02d", day.getMonthValue()));
+    }
+
+    private static void fsync(Path file) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file.toFile(), true)) {
+            out.getFD().sync();
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, ArchivedStockMovement row) throws IOException {
+        out.writeLong(row.getId());
+        writeString(out, row.getType());
+        out.writeLong(row.getDate().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(row.getDate().getNano());
+        out.writeDouble(row.getQuantity() != null ? row.getQuantity() : 0.0);
+        out.writeLong(row.getProductId());
+        writeString(out, row.getProductName());
+        writeString(out, row.getProductReference());
+        out.writeLong(row.getOrderId() != null ? row.getOrderId() : -1L);
+        out.writeLong(row.getStockSlotId());
+        writeString(out, row.getLotNumber());
+    }
+
+    private static ArchivedStockMovement readRecord(DataInputStream in) throws IOException {
+        ArchivedStockMovement row = new ArchivedStockMovement();
+        row.setId(in.readLong());
+        row.setType(readString(in));
+        long epochSecond = in.readLong();
+        row.setDate(LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC));
+        row.setQuantity(in.readDouble());
+        row.setProductId(in.readLong());
+        row.setProductName(readString(in));
+        row.setProductReference(readString(in));
+        long orderId = in.readLong();
+        row.setOrderId(orderId >= 0 ? orderId : null);
+        row.setStockSlotId(in.readLong());
+        row.setLotNumber(readString(in));
+        return row;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.tricol.tricolspringbootrestapi.archive;
+
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.repository.StockMovementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// moves stock movements older than the horizon from the stock_movements table into day segments
+@Slf4j
+@Component
+public class StockMovementArchiver {
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockMovementArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int horizonDays;
+
+    public StockMovementArchiver(StockMovementRepository stockMovementRepository,
+                                 StockMovementArchive archive,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${tricol.archive.enabled:false}") boolean enabled,
+                                 @Value("${tricol.archive.horizon-days:365}") int horizonDays) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.archive = archive;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.horizonDays = horizonDays;
+    }
+
+    @Scheduled(cron = "${tricol.archive.cron:0 30 2 * * *}")
+    public void archiveExpiredMovements() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDate.now().minusDays(horizonDays).atStartOfDay();
+
+        int days = 0;
+        Optional<StockMovement> oldest;
+        while ((oldest = stockMovementRepository.findFirstByDateLessThanOrderByDateAsc(cutoff)).isPresent()) {
+            archiveDay(oldest.get().getDate().toLocalDate());
+            days++;
+        }
+        if (days > 0) {
+            log.info("Archived stock movements of {} day(s) older than {}", days, cutoff.toLocalDate());
+        }
+    }
+
+    /*
+        One transaction per day: the segment is durable on disk before the rows are deleted. If the delete or its
+        commit fails, the rows stay in the table as well; searches ignore table rows older than the watermark, and
+        the next run rewrites the segment (merging by id) and deletes them again.
+     */
+    private void archiveDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<StockMovement> movements = stockMovementRepository.findByDateGreaterThanEqualAndDateLessThan(from, to);
+            try {
+                archive.writeSegment(day, movements.stream().map(ArchivedStockMovement::of).toList());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write archive segment for " + day, e);
+            }
+            stockMovementRepository.deleteByDateRange(from, to);
+        });
+    }
+}
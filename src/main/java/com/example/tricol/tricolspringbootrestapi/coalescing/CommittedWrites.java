@@ -0,0 +1,29 @@
+package com.example.tricol.tricolspringbootrestapi.coalescing;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Counts the read-write transactions committed by this process. The count is the version ReadCoalescer stamps
+    its lookups with. It is a listener of its own, with no dependencies, because the transaction manager is built
+    with its listeners and ReadCoalescer itself needs the transaction manager.
+ */
+@Component
+public class CommittedWrites implements TransactionExecutionListener {
+
+    private final AtomicLong count = new AtomicLong();
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            count.incrementAndGet();
+        }
+    }
+
+    public long count() {
+        return count.get();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.tricol.tricolspringbootrestapi.coalescing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+    Single-flight for the hot lookups by id (product, product stock, order, exit slip): concurrent identical
+    lookups share one read-only transaction and its query. Coalesced methods are not @Transactional
+    themselves; only the leader opens a transaction, so the callers waiting for it hold no connection.
+    A caller already inside a transaction runs its own query, since it may need to see its own writes.
+    The result object is handed to every waiting caller and must not be modified by them.
+
+    Lookups are versioned by the number of read-write transactions committed so far, and a caller only joins
+    a lookup started after the last of them: one started earlier may have read the data as it was before a
+    write the caller expects to see, such as its own. Like the read-your-writes window, this is process-wide.
+ */
+@Component
+public class ReadCoalescer {
+
+    private final TransactionTemplate readOnly;
+    private final MeterRegistry registry;
+    private final Map<String, SingleFlight<Object, Object>> lookups = new ConcurrentHashMap<>();
+    private final CommittedWrites committedWrites;
+
+    public ReadCoalescer(PlatformTransactionManager transactionManager, CommittedWrites committedWrites,
+                         ObjectProvider<MeterRegistry> registry) {
+        this.committedWrites = committedWrites;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.registry = registry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V read(String lookup, Object key, Supplier<V> query) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query.get();
+        }
+        return (V) lookup(lookup).execute(key, committedWrites.count(), () -> readOnly.execute(status -> query.get()));
+    }
+
+    public SingleFlight<Object, Object> lookup(String lookup) {
+        return lookups.computeIfAbsent(lookup, name -> {
+            SingleFlight<Object, Object> flight = new SingleFlight<>();
+            FunctionCounter.builder("tricol.single_flight.calls", flight, SingleFlight::getLeaders)
+                    .description("Lookups by outcome: leader ran the query, follower shared the result of one in flight")
+                    .tags("lookup", name, "outcome", "leader")
+                    .register(registry);
+            FunctionCounter.builder("tricol.single_flight.calls", flight, SingleFlight::getFollowers)
+                    .description("Lookups by outcome: leader ran the query, follower shared the result of one in flight")
+                    .tags("lookup", name, "outcome", "follower")
+                    .register(registry);
+            Gauge.builder("tricol.single_flight.in_flight", flight, SingleFlight::getInFlight)
+                    .description("Distinct keys with a lookup in flight")
+                    .tag("lookup", name)
+                    .register(registry);
+            return flight;
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.tricol.tricolspringbootrestapi.coalescing;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+    At most one call in flight per key. The first caller for a key (the leader) runs the call; callers
+    arriving for the same key before it returns wait for it and get its result, or its exception. The key
+    is forgotten as soon as the call returns, so nothing is cached: a caller arriving afterwards runs a
+    new call and sees fresh data.
+
+    Every call carries a version, and a caller only joins a call in flight started at its own version or
+    a later one. A caller with a newer version takes the key over instead, so that callers arriving after
+    it join the fresher call; the older call still completes for those already waiting on it.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+
+    public V execute(K key, long version, Supplier<V> call) {
+        Flight<V> flight = new Flight<>(version, new CompletableFuture<>());
+        for (Flight<V> running = inFlight.putIfAbsent(key, flight); running != null; running = inFlight.putIfAbsent(key, flight)) {
+            if (running.version() >= version) {
+                followers.increment();
+                return await(running.result());
+            }
+            if (inFlight.replace(key, running, flight)) {
+                break;
+            }
+        }
+
+        leaders.increment();
+        try {
+            V result = call.get();
+            flight.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // calls that ran the lookup themselves
+    public long getLeaders() {
+        return leaders.sum();
+    }
+
+    // calls that were answered by a call already in flight
+    public long getFollowers() {
+        return followers.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Flight<V>(long version, CompletableFuture<V> result) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.tricol.tricolspringbootrestapi.controller;
+
+import com.example.tricol.tricolspringbootrestapi.dto.request.BatchRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.response.BatchResponse;
+import com.example.tricol.tricolspringbootrestapi.service.BatchService;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/batch")
+@BulkheadGroup("batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchService batchService;
+
+    @PostMapping
+    public ResponseEntity<BatchResponse> execute(@Valid @RequestBody BatchRequest request) {
+        return ResponseEntity.ok(batchService.execute(request));
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.tricol.tricolspringbootrestapi.controller;
 
 import com.example.tricol.tricolspringbootrestapi.dto.request.CreateExitSlipRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipLotResponse;
 import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipResponse;
 import com.example.tricol.tricolspringbootrestapi.enums.ExitSlipStatus;
 import com.example.tricol.tricolspringbootrestapi.service.ExitSlipService;
+import com.example.tricol.tricolspringbootrestapi.service.LotTraceService;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseViews;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,14 +17,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/exit-slips")
+@BulkheadGroup("exit-slips")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class ExitSlipController {
     
     private final ExitSlipService exitSlipService;
+    private final LotTraceService lotTraceService;
     
     @PostMapping
     public ResponseEntity<ExitSlipResponse> createExitSlip(
@@ -46,6 +54,17 @@ public class ExitSlipController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getExitSlip(@PathVariable Long id, @RequestParam String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, SparseViews.EXIT_SLIPS);
+        return ResponseEntity.ok(selection.project(exitSlipService.getExitSlip(id, selection)));
+    }
+
+    @GetMapping("/{id}/lots")
+    public ResponseEntity<List<ExitSlipLotResponse>> getExitSlipLots(@PathVariable Long id) {
+        return ResponseEntity.ok(lotTraceService.getExitSlipLots(id));
+    }
+
     @GetMapping
     public ResponseEntity<List<ExitSlipResponse>> getAllExitSlips(
             @RequestParam(required = false) String status,
@@ -65,4 +84,16 @@ public class ExitSlipController {
         List<ExitSlipResponse> responses = exitSlipService.getAllExitSlips();
         return ResponseEntity.ok(responses);
     }
+
+    // ?fields= list: status and workshop can be combined here, items are loaded only when listed
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getExitSlips(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String workshop,
+            @RequestParam String fields) {
+
+        FieldSelection selection = FieldSelection.parse(fields, SparseViews.EXIT_SLIPS);
+        ExitSlipStatus exitSlipStatus = status != null ? ExitSlipStatus.valueOf(status.toUpperCase()) : null;
+        return ResponseEntity.ok(selection.project(exitSlipService.getExitSlips(exitSlipStatus, workshop, selection)));
+    }
 }
@@ -0,0 +1,22 @@
+package com.example.tricol.tricolspringbootrestapi.controller;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.LotTraceResponse;
+import com.example.tricol.tricolspringbootrestapi.service.LotTraceService;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/lots")
+@BulkheadGroup("movements")
+@RequiredArgsConstructor
+public class LotController {
+
+    private final LotTraceService lotTraceService;
+
+    @GetMapping("/{lotNumber}/trace")
+    public ResponseEntity<LotTraceResponse> traceLot(@PathVariable String lotNumber) {
+        return ResponseEntity.ok(lotTraceService.traceLot(lotNumber));
+    }
+}
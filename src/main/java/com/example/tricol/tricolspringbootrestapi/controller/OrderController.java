@@ -6,6 +6,9 @@ import com.example.tricol.tricolspringbootrestapi.dto.response.ErrorResponse;
 import com.example.tricol.tricolspringbootrestapi.dto.response.OrderResponse;
 import com.example.tricol.tricolspringbootrestapi.dto.response.ReceiveOrderResponse;
 import com.example.tricol.tricolspringbootrestapi.service.OrderService;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseViews;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,10 +23,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/orders")
+@BulkheadGroup("orders")
 @Tag(name = "Order Management", description = "APIs for managing purchase orders and order processing")
 public class OrderController {
     private final OrderService orderService;
@@ -90,6 +95,44 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    @Operation(
+            summary = "Get orders with selected fields",
+            description = "Retrieves only the listed fields of every order; items are loaded only when listed"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown field",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllOrders(
+            @Parameter(description = "Comma-separated fields to return", required = true, example = "id,status,totalAmount")
+            @RequestParam String fields){
+        FieldSelection selection = FieldSelection.parse(fields, SparseViews.ORDERS);
+        return ResponseEntity.ok(selection.project(orderService.getAllOrders(selection)));
+    }
+
+    @Operation(
+            summary = "Get selected fields of an order",
+            description = "Retrieves only the listed fields of an order; items are loaded only when listed"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order found successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown field",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Order not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getOrderById(
+            @Parameter(description = "ID of the order to retrieve", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return", required = true, example = "id,status,items")
+            @RequestParam String fields){
+        FieldSelection selection = FieldSelection.parse(fields, SparseViews.ORDERS);
+        return ResponseEntity.ok(selection.project(orderService.getOrderById(id, selection)));
+    }
+
     @Operation(
             summary = "Receive an order",
             description = "Marks an order as received and updates stock inventory accordingly"
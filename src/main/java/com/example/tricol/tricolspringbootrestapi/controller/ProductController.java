@@ -4,6 +4,9 @@ import com.example.tricol.tricolspringbootrestapi.dto.request.ProductDTO;
 import com.example.tricol.tricolspringbootrestapi.dto.response.ErrorResponse;
 import com.example.tricol.tricolspringbootrestapi.model.Product;
 import com.example.tricol.tricolspringbootrestapi.service.ProductService;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseViews;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,9 +21,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/products")
+@BulkheadGroup("products")
 @Tag(name = "Product Management", description = "APIs for managing products in the inventory system")
 public class ProductController {
     @Autowired
@@ -85,6 +90,44 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.OK).body(products);
     }
 
+    @Operation(
+            summary = "Get products with selected fields",
+            description = "Retrieves only the listed fields of every product"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown field",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getProducts(
+            @Parameter(description = "Comma-separated fields to return", required = true, example = "id,reference,currentStock")
+            @RequestParam String fields){
+        FieldSelection selection = FieldSelection.parse(fields, SparseViews.PRODUCTS);
+        return ResponseEntity.status(HttpStatus.OK).body(selection.project(productService.getProducts(selection)));
+    }
+
+    @Operation(
+            summary = "Get selected fields of a product",
+            description = "Retrieves only the listed fields of a product"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product found successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown field",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Product not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getProductById(
+            @Parameter(description = "ID of the product to retrieve", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return", required = true, example = "id,name,unitPrice")
+            @RequestParam String fields){
+        FieldSelection selection = FieldSelection.parse(fields, SparseViews.PRODUCTS);
+        return ResponseEntity.status(HttpStatus.OK).body(selection.project(productService.getProductById(id, selection)));
+    }
+
     @Operation(
             summary = "Update a product",
             description = "Updates an existing product with the provided information"
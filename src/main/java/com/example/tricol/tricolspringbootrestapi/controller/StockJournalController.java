@@ -0,0 +1,28 @@
+package com.example.tricol.tricolspringbootrestapi.controller;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.JournalReplayResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ProjectedStockResponse;
+import com.example.tricol.tricolspringbootrestapi.service.StockJournalService;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/stock/journal")
+@BulkheadGroup("movements")
+@RequiredArgsConstructor
+public class StockJournalController {
+
+    private final StockJournalService stockJournalService;
+
+    @PostMapping("/replay")
+    public ResponseEntity<JournalReplayResponse> replay() {
+        return ResponseEntity.ok(stockJournalService.rebuildProjection());
+    }
+
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<ProjectedStockResponse> getProjectedStock(@PathVariable Long productId) {
+        return ResponseEntity.ok(stockJournalService.getProjectedStock(productId));
+    }
+}
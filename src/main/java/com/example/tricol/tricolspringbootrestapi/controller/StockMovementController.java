@@ -1,27 +1,38 @@
 package com.example.tricol.tricolspringbootrestapi.controller;
 
+import com.example.tricol.tricolspringbootrestapi.dto.response.CursorSliceResponse;
 import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.StreamOverflowPolicy;
 import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
 import com.example.tricol.tricolspringbootrestapi.service.StockMovementService;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseViews;
+import com.example.tricol.tricolspringbootrestapi.stream.StockMovementBroadcaster;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/stock/movements")
+@BulkheadGroup("movements")
 @RequiredArgsConstructor
 public class StockMovementController {
     
     private final StockMovementService stockMovementService;
+    private final StockMovementBroadcaster stockMovementBroadcaster;
     
+    // ?fields=id,quantity,... reads and returns only those fields
     @GetMapping
-    public ResponseEntity<Page<StockMovementResponse>> searchMovements(
+    public ResponseEntity<Page<?>> searchMovements(
             @RequestParam(required = false) 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) 
             LocalDate startDate,
@@ -46,18 +57,93 @@ public class StockMovementController {
             int page,
             
             @RequestParam(defaultValue = "10")
-            int size) {
+            int size,
+
+            @RequestParam(required = false)
+            String fields) {
         
         LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
         LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : null;
+        FieldSelection selection = fields != null ? FieldSelection.parse(fields, SparseViews.MOVEMENTS) : null;
         
         Page<StockMovementResponse> movements = stockMovementService.searchMovements(
                 startDateTime, endDateTime, productId, reference, type, lotNumber, 
-                PageRequest.of(page, size));
+                PageRequest.of(page, size), selection);
         
         if (movements.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(movements);
+        return ResponseEntity.ok(selection != null ? movements.map(selection::project) : movements);
+    }
+
+    // keyset mode: selected by the presence of ?cursor (empty for the first slice)
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorSliceResponse<?>> scrollMovements(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate startDate,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate endDate,
+
+            @RequestParam(required = false)
+            Long productId,
+
+            @RequestParam(required = false)
+            String reference,
+
+            @RequestParam(required = false)
+            StockMovement.Type type,
+
+            @RequestParam(required = false)
+            String lotNumber,
+
+            @RequestParam
+            String cursor,
+
+            @RequestParam(defaultValue = "10")
+            int size,
+
+            @RequestParam(defaultValue = "false")
+            boolean count,
+
+            @RequestParam(required = false)
+            String fields) {
+
+        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
+        LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : null;
+        FieldSelection selection = fields != null ? FieldSelection.parse(fields, SparseViews.MOVEMENTS) : null;
+
+        CursorSliceResponse<StockMovementResponse> slice = stockMovementService.scrollMovements(
+                startDateTime, endDateTime, productId, reference, type, lotNumber,
+                cursor, size, count, selection);
+
+        if (slice.getContent().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        if (selection != null) {
+            return ResponseEntity.ok(new CursorSliceResponse<>(selection.project(slice.getContent()), slice.getSize(),
+                    slice.isHasNext(), slice.getNextCursor(), slice.getTotalElements()));
+        }
+        return ResponseEntity.ok(slice);
+    }
+
+    // live feed of committed movements as Server-Sent Events
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMovements(
+            @RequestParam(required = false)
+            Long productId,
+
+            @RequestParam(required = false)
+            StockMovement.Type type,
+
+            @RequestParam(required = false)
+            String lotNumber,
+
+            @RequestParam(defaultValue = "DROP_OLDEST")
+            StreamOverflowPolicy overflow) {
+
+        return stockMovementBroadcaster.subscribe(productId, type, lotNumber, overflow);
     }
 }
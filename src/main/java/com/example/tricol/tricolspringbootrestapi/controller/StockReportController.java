@@ -0,0 +1,64 @@
+package com.example.tricol.tricolspringbootrestapi.controller;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.RollupTotalResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.ReportGranularity;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.service.StockReportService;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/stock/reports")
+@BulkheadGroup("movements")
+@RequiredArgsConstructor
+public class StockReportController {
+
+    private final StockReportService stockReportService;
+
+    @GetMapping("/movements")
+    public ResponseEntity<List<RollupTotalResponse>> getMovementTotals(
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate startDate,
+
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate endDate,
+
+            @RequestParam(defaultValue = "DAY")
+            ReportGranularity granularity,
+
+            @RequestParam(required = false)
+            Long productId,
+
+            @RequestParam(required = false)
+            StockMovement.Type type) {
+
+        return ResponseEntity.ok(stockReportService.getMovementTotals(startDate, endDate, granularity, productId, type));
+    }
+
+    @GetMapping("/workshops")
+    public ResponseEntity<List<RollupTotalResponse>> getWorkshopTotals(
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate startDate,
+
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate endDate,
+
+            @RequestParam(defaultValue = "DAY")
+            ReportGranularity granularity,
+
+            @RequestParam(required = false)
+            String workshop) {
+
+        return ResponseEntity.ok(stockReportService.getWorkshopTotals(startDate, endDate, granularity, workshop));
+    }
+}
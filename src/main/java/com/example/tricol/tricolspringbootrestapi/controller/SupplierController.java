@@ -1,9 +1,11 @@
 package com.example.tricol.tricolspringbootrestapi.controller;
 
 import com.example.tricol.tricolspringbootrestapi.dto.request.SupplierDTO;
+import com.example.tricol.tricolspringbootrestapi.dto.response.CursorSliceResponse;
 import com.example.tricol.tricolspringbootrestapi.dto.response.ErrorResponse;
 import com.example.tricol.tricolspringbootrestapi.model.Supplier;
 import com.example.tricol.tricolspringbootrestapi.service.SupplierServiceInterface;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,14 +15,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/suppliers")
+@BulkheadGroup("suppliers")
 @Tag(name = "Supplier Management", description = "APIs for managing suppliers and vendor relationships")
 public class SupplierController {
     @Autowired
@@ -52,7 +56,7 @@ public class SupplierController {
 
     @Operation(
             summary = "Get all suppliers",
-            description = "Retrieves a list of all suppliers in the system"
+            description = "Retrieves a page of suppliers ordered by id; archived suppliers are left out"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Suppliers retrieved successfully",
@@ -61,11 +65,38 @@ public class SupplierController {
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping
-    public ResponseEntity<List<SupplierDTO>> getAllSuppliers() {
-        List<SupplierDTO> suppliers = supplierService.getSuppliers();
+    public ResponseEntity<Page<SupplierDTO>> getAllSuppliers(
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        Page<SupplierDTO> suppliers = supplierService.getSuppliers(PageRequest.of(page, size));
         return ResponseEntity.ok(suppliers);
     }
 
+    @Operation(
+            summary = "Scroll suppliers",
+            description = "Keyset mode, selected by the presence of ?cursor (empty for the first slice); "
+                    + "returns a slice with nextCursor instead of a page"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Slice retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorSliceResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or slice size",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorSliceResponse<SupplierDTO>> scrollSuppliers(
+            @Parameter(description = "Cursor returned by the previous slice, empty for the first one")
+            @RequestParam String cursor,
+            @Parameter(description = "Slice size", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also count all suppliers", example = "false")
+            @RequestParam(defaultValue = "false") boolean count) {
+        CursorSliceResponse<SupplierDTO> slice = supplierService.scrollSuppliers(cursor, size, count);
+        return ResponseEntity.ok(slice);
+    }
+
     @Operation(
             summary = "Get supplier by ID",
             description = "Retrieves a specific supplier by its unique identifier"
@@ -117,7 +148,7 @@ public class SupplierController {
 
     @Operation(
             summary = "Delete a supplier",
-            description = "Deletes a supplier from the system"
+            description = "Deletes a supplier without orders; a supplier with orders is archived so its order history is kept"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Supplier deleted successfully"),
@@ -136,7 +167,7 @@ public class SupplierController {
 
     @Operation(
             summary = "Search suppliers",
-            description = "Search suppliers by society name or contact agent name"
+            description = "Ranked search over society, contact agent, city and email; tolerates accents and small typos"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search completed successfully",
@@ -145,10 +176,14 @@ public class SupplierController {
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/search")
-    public ResponseEntity<List<SupplierDTO>> searchSuppliers(
-            @Parameter(description = "Search query for supplier society or contact agent", required = true, example = "ABC Corp")
-            @RequestParam("q") String query) {
-        List<SupplierDTO> suppliers = supplierService.searchSuppliers(query);
+    public ResponseEntity<Page<SupplierDTO>> searchSuppliers(
+            @Parameter(description = "Search query for supplier society, contact agent, city or email", required = true, example = "ABC Corp")
+            @RequestParam("q") String query,
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        Page<SupplierDTO> suppliers = supplierService.searchSuppliers(query, PageRequest.of(page, size));
         return ResponseEntity.ok(suppliers);
     }
 }
\ No newline at end of file
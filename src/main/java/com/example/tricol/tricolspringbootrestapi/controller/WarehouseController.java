@@ -0,0 +1,44 @@
+package com.example.tricol.tricolspringbootrestapi.controller;
+
+import com.example.tricol.tricolspringbootrestapi.dto.request.WarehouseRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.response.WarehouseResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.WarehouseStockResponse;
+import com.example.tricol.tricolspringbootrestapi.service.WarehouseService;
+import com.example.tricol.tricolspringbootrestapi.web.BulkheadGroup;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/warehouses")
+@BulkheadGroup("warehouses")
+@RequiredArgsConstructor
+public class WarehouseController {
+
+    private final WarehouseService warehouseService;
+
+    @PostMapping
+    public ResponseEntity<WarehouseResponse> createWarehouse(@Valid @RequestBody WarehouseRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(warehouseService.createWarehouse(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<WarehouseResponse>> getWarehouses() {
+        return ResponseEntity.ok(warehouseService.getWarehouses());
+    }
+
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<List<WarehouseStockResponse>> getWarehouseStock(@PathVariable Long id) {
+        return ResponseEntity.ok(warehouseService.getWarehouseStock(id));
+    }
+
+    // consolidated over all warehouses, for one product or all of them
+    @GetMapping("/stock")
+    public ResponseEntity<List<WarehouseStockResponse>> getConsolidatedStock(@RequestParam(required = false) Long productId) {
+        return ResponseEntity.ok(warehouseService.getConsolidatedStock(productId));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import liquibase.integration.spring.SpringLiquibase;
+import liquibase.util.LiquibaseUtil;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/*
+    SHA-256 over every file in the changelog's directory tree plus the Liquibase version and the contexts
+    and labels of the run, stored in changelog_fingerprint once a run has applied the changelog. Equal
+    fingerprints mean Liquibase would find nothing to do, so its lock, parse and checksum validation can
+    be skipped.
+ */
+public class ChangelogFingerprint {
+
+    static final String TABLE = "changelog_fingerprint";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangelogFingerprint(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static String of(SpringLiquibase liquibase) throws IOException {
+        String changeLog = liquibase.getChangeLog();
+        String location = changeLog.substring(changeLog.indexOf(':') + 1);
+        String root = location.contains("/") ? location.substring(0, location.indexOf('/') + 1) : "";
+
+        // by path below the root, so the same files hash the same from target/classes and from the jar
+        Map<String, Resource> files = new TreeMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath*:" + root + "**/*")) {
+            if (!resource.isReadable()) {
+                continue;
+            }
+            String path = resource.getURL().toString();
+            int start = root.isEmpty() ? path.lastIndexOf('/') + 1 : path.lastIndexOf("/" + root) + 1;
+            files.put(path.substring(start), resource);
+        }
+
+        MessageDigest digest = sha256();
+        for (String part : List.of(LiquibaseUtil.getBuildVersion(), changeLog,
+                Objects.toString(liquibase.getContexts(), ""), Objects.toString(liquibase.getLabelFilter(), ""))) {
+            digest.update(part.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        for (Map.Entry<String, Resource> file : files.entrySet()) {
+            digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            try (InputStream in = file.getValue().getInputStream()) {
+                digest.update(in.readAllBytes());
+            }
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // null when nothing was recorded yet, including before the table exists
+    public String stored() {
+        try {
+            List<String> stored = jdbcTemplate.queryForList("SELECT fingerprint FROM " + TABLE + " WHERE id = 1", String.class);
+            return stored.isEmpty() ? null : stored.get(0);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    public void store(String fingerprint) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int updated = jdbcTemplate.update("UPDATE " + TABLE + " SET fingerprint = ?, applied_at = ? WHERE id = 1", fingerprint, now);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (id, fingerprint, applied_at) VALUES (1, ?, ?)", fingerprint, now);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Skips Liquibase at startup when the changelog is the one last applied to this database
+    (tricol.liquibase.skip-unchanged). The fingerprint is compared before SpringLiquibase runs, and stored
+    after a run succeeds, so a failed or partial run is retried on the next start. drop-first and
+    clear-checksums always run.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(SpringLiquibase.class)
+@ConditionalOnProperty(name = "tricol.liquibase.skip-unchanged", havingValue = "true")
+public class ChangelogFingerprintConfiguration {
+
+    @Bean
+    static BeanPostProcessor changelogFingerprintPostProcessor(Environment environment) {
+        Map<String, String> pending = new ConcurrentHashMap<>();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (!(bean instanceof SpringLiquibase liquibase) || liquibase.isDropFirst() || liquibase.isClearCheckSums()
+                        || !environment.getProperty("spring.liquibase.enabled", Boolean.class, true)) {
+                    return bean;
+                }
+                String fingerprint;
+                try {
+                    fingerprint = ChangelogFingerprint.of(liquibase);
+                } catch (IOException e) {
+                    log.warn("Could not read {} to fingerprint it, running Liquibase", liquibase.getChangeLog(), e);
+                    return bean;
+                }
+                if (fingerprint.equals(new ChangelogFingerprint(new JdbcTemplate(liquibase.getDataSource())).stored())) {
+                    log.info("Changelog {} unchanged since its last run, skipping Liquibase", liquibase.getChangeLog());
+                    liquibase.setShouldRun(false);
+                } else {
+                    pending.put(beanName, fingerprint);
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                String fingerprint = pending.remove(beanName);
+                if (fingerprint != null && bean instanceof SpringLiquibase liquibase) {
+                    new ChangelogFingerprint(new JdbcTemplate(liquibase.getDataSource())).store(fingerprint);
+                }
+                return bean;
+            }
+        };
+    }
+}
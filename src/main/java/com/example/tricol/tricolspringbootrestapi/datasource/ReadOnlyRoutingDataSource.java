@@ -0,0 +1,30 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/*
+    Where read-only connections come from: the replica, unless a write committed within the
+    read-your-writes window, in which case the primary.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final RecentWriteWindow recentWrites;
+
+    public ReadOnlyRoutingDataSource(DataSource primary, DataSource replica, RecentWriteWindow recentWrites) {
+        this.recentWrites = recentWrites;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(replica);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return recentWrites.isOpen() ? Target.PRIMARY : Target.REPLICA;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/*
+    Primary/replica routing, enabled by setting tricol.datasource.replica.url. spring.datasource stays the
+    primary; the replica takes the same keys under tricol.datasource.replica.
+
+    The application DataSource is a LazyConnectionDataSourceProxy over the primary: no physical connection
+    is taken until the first statement, by which time the transaction manager has marked the connection
+    read-only for @Transactional(readOnly = true). Read-only connections come from ReadOnlyRoutingDataSource,
+    everything else (writes, Liquibase, JdbcTemplate outside a transaction) from the primary. Statements on
+    the primary's application connections go through RecentWriteWindow, which sees the writes.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("tricol.datasource.replica.url")
+public class ReadWriteRoutingConfiguration {
+
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("tricol.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(Environment environment) throws Exception {
+        DataSourceProperties properties = Binder.get(environment)
+                .bind("tricol.datasource.replica", DataSourceProperties.class)
+                .get();
+        properties.afterPropertiesSet();
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    RecentWriteWindow recentWriteWindow(@Value("${tricol.datasource.read-your-writes-ms:2000}") long windowMillis) {
+        return new RecentWriteWindow(windowMillis, Clock.systemUTC());
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                          @Qualifier("replicaDataSource") DataSource replica,
+                          RecentWriteWindow recentWrites) {
+        DataSource writes = ProxyDataSourceBuilder.create(primary)
+                .name("primaryDataSource")
+                .listener(recentWrites)
+                .build();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writes);
+        dataSource.setReadOnlyDataSource(new ReadOnlyRoutingDataSource(primary, replica, recentWrites));
+        return dataSource;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Remembers when the last write reached the primary. For the window that follows, read-only
+    transactions stay on the primary so that a client reading right after its own mutation does not
+    see a replica that has not caught up yet. The window is process-wide: any write opens it, which
+    is conservative but needs no client session.
+
+    Writes are seen at the JDBC layer, on the primary's connections: a transaction opens the window when
+    it commits only if it ran a statement other than a SELECT, so read-write transactions that only read
+    (a poll of an empty table) leave the replica in use. A write outside a transaction opens it at once.
+ */
+public class RecentWriteWindow implements QueryExecutionListener {
+
+    private final long windowMillis;
+    private final Clock clock;
+    private final AtomicLong lastWriteAt = new AtomicLong(Long.MIN_VALUE);
+
+    public RecentWriteWindow(long windowMillis, Clock clock) {
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.stream().allMatch(query -> QueryUtils.getQueryType(query.getQuery()) == QueryType.SELECT)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            opened();
+            return;
+        }
+        // once per transaction: suspended transactions keep their own synchronizations
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (synchronizations.stream().noneMatch(OpenOnCommit.class::isInstance)) {
+            TransactionSynchronizationManager.registerSynchronization(new OpenOnCommit());
+        }
+    }
+
+    public boolean isOpen() {
+        long last = lastWriteAt.get();
+        return last != Long.MIN_VALUE && clock.millis() - last < windowMillis;
+    }
+
+    private void opened() {
+        lastWriteAt.accumulateAndGet(clock.millis(), Math::max);
+    }
+
+    private final class OpenOnCommit implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            opened();
+        }
+    }
+}
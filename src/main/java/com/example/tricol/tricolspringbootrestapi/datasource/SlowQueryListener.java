@@ -0,0 +1,153 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Times every JDBC statement. Each execution is added to StatementStatistics; executions at or over the
+    threshold, and a sampled share of the rest, are logged with their bound parameters. Formatting and
+    writing happen on the log executor, never on the thread that ran the statement: when its queue is full
+    the entry is dropped and counted instead of making the request wait.
+ */
+@Slf4j
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final String STARTED = SlowQueryListener.class.getName() + ".started";
+    private static final int MAX_LOGGED_BATCH_ENTRIES = 10;
+    private static final int MAX_LOGGED_VALUE_LENGTH = 200;
+
+    private final StatementStatistics statistics;
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final Executor logExecutor;
+    private final LongAdder dropped = new LongAdder();
+
+    public SlowQueryListener(StatementStatistics statistics, long thresholdMillis, double sampleRate, Executor logExecutor) {
+        this.statistics = statistics;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleRate = sampleRate;
+        this.logExecutor = logExecutor;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        long nanos = started != null ? System.nanoTime() - started : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        boolean slow = nanos >= thresholdNanos;
+
+        // a Statement batch of different statements has one timing; it is shared out evenly
+        long share = nanos / Math.max(1, queryInfoList.size());
+        for (QueryInfo query : queryInfoList) {
+            statistics.record(query.getQuery(), share, slow);
+        }
+
+        if (slow || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            submit(new Entry(slow, nanos, execInfo.isSuccess(), execInfo.isBatch() ? execInfo.getBatchSize() : 0,
+                    capture(queryInfoList)));
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    private void submit(Entry entry) {
+        try {
+            logExecutor.execute(entry::write);
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    // the parameter lists belong to the statement, which may be reused once this returns; values are kept as is
+    private static List<Statement> capture(List<QueryInfo> queries) {
+        List<Statement> statements = new ArrayList<>(queries.size());
+        for (QueryInfo query : queries) {
+            List<List<ParameterSetOperation>> parameters = query.getParametersList();
+            List<List<ParameterSetOperation>> copy = new ArrayList<>(Math.min(parameters.size(), MAX_LOGGED_BATCH_ENTRIES));
+            for (int i = 0; i < parameters.size() && i < MAX_LOGGED_BATCH_ENTRIES; i++) {
+                copy.add(new ArrayList<>(parameters.get(i)));
+            }
+            statements.add(new Statement(query.getQuery(), copy));
+        }
+        return statements;
+    }
+
+    private record Statement(String sql, List<List<ParameterSetOperation>> parameters) {
+    }
+
+    private record Entry(boolean slow, long nanos, boolean success, int batchSize, List<Statement> statements) {
+
+        void write() {
+            StringBuilder message = new StringBuilder(256)
+                    .append(slow ? "Slow query " : "Sampled query ")
+                    .append(String.format("%.1f", nanos / 1_000_000.0)).append(" ms");
+            if (!success) {
+                message.append(", failed");
+            }
+            if (batchSize > 0) {
+                message.append(", batch of ").append(batchSize);
+            }
+            for (Statement statement : statements) {
+                message.append("\n  ").append(statement.sql());
+                for (List<ParameterSetOperation> parameters : statement.parameters()) {
+                    message.append("\n    ").append(format(parameters));
+                }
+            }
+            if (slow) {
+                log.warn(message.toString());
+            } else {
+                log.info(message.toString());
+            }
+        }
+
+        private static String format(List<ParameterSetOperation> parameters) {
+            StringBuilder values = new StringBuilder("[");
+            for (ParameterSetOperation parameter : parameters) {
+                Object[] args = parameter.getArgs();
+                if (values.length() > 1) {
+                    values.append(", ");
+                }
+                values.append(args[0]).append('=');
+                if (ParameterSetOperation.isSetNullParameterOperation(parameter) || args.length < 2 || args[1] == null) {
+                    values.append("null");
+                } else if (args[1] instanceof CharSequence text) {
+                    values.append('\'').append(truncate(text.toString())).append('\'');
+                } else if (args[1] instanceof byte[] bytes) {
+                    values.append("<").append(bytes.length).append(" bytes>");
+                } else {
+                    values.append(truncate(String.valueOf(args[1])));
+                }
+            }
+            return values.append(']').toString();
+        }
+
+        private static String truncate(String value) {
+            return value.length() <= MAX_LOGGED_VALUE_LENGTH ? value : value.substring(0, MAX_LOGGED_VALUE_LENGTH) + "...";
+        }
+    }
+}
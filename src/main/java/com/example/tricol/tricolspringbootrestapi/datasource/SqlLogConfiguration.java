@@ -0,0 +1,72 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Slow-query log in place of spring.jpa.show-sql. The application DataSource (the pool, or the routing
+    proxy when a replica is configured) is wrapped so every statement goes through SlowQueryListener. The
+    wrapper is applied last, after the virtual-thread connection limiter, so time spent waiting for a
+    connection permit is not counted as statement time.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "tricol.sql-log.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlLogConfiguration {
+
+    @Bean
+    StatementStatistics statementStatistics(@Value("${tricol.sql-log.max-shapes:500}") int maxShapes) {
+        return new StatementStatistics(maxShapes);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    ThreadPoolExecutor sqlLogExecutor(@Value("${tricol.sql-log.queue-capacity:1000}") int queueCapacity) {
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("sql-log-");
+        threads.setDaemon(true);
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), threads,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    SlowQueryListener slowQueryListener(StatementStatistics statementStatistics, ThreadPoolExecutor sqlLogExecutor,
+                                        @Value("${tricol.sql-log.slow-threshold-ms:200}") long thresholdMillis,
+                                        @Value("${tricol.sql-log.sample-rate:0.0}") double sampleRate) {
+        return new SlowQueryListener(statementStatistics, thresholdMillis, sampleRate, sqlLogExecutor);
+    }
+
+    @Bean
+    SqlStatisticsEndpoint sqlStatisticsEndpoint(StatementStatistics statementStatistics, SlowQueryListener slowQueryListener) {
+        return new SqlStatisticsEndpoint(statementStatistics, slowQueryListener);
+    }
+
+    @Bean
+    static BeanPostProcessor slowQueryLogPostProcessor(ObjectProvider<SlowQueryListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                SlowQueryListener slowQueries = listener.getObject();
+                log.info("SQL log enabled on {}: statements over {} ms logged, {} of the rest sampled",
+                        beanName, slowQueries.getThresholdMillis(), slowQueries.getSampleRate());
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(slowQueries)
+                        .build();
+            }
+        };
+    }
+}
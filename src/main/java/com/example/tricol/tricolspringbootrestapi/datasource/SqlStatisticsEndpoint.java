@@ -0,0 +1,35 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+// GET /actuator/sqlstats lists the heaviest query shapes (?limit=, default 50); DELETE starts the totals over
+@Endpoint(id = "sqlstats")
+@RequiredArgsConstructor
+public class SqlStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final StatementStatistics statistics;
+    private final SlowQueryListener listener;
+
+    @ReadOperation
+    public SqlStatistics statistics(@Nullable Integer limit) {
+        return new SqlStatistics(listener.getThresholdMillis(), listener.getSampleRate(), listener.getDropped(),
+                statistics.size(), statistics.top(limit != null ? limit : DEFAULT_LIMIT));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+
+    public record SqlStatistics(long slowThresholdMs, double sampleRate, long droppedLogEntries, int shapes,
+                                List<StatementStatistics.ShapeSnapshot> top) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/*
+    Execution totals per query shape: the SQL with literals replaced by ? and IN lists collapsed to a single
+    placeholder, so the same statement with different values or list lengths adds to one entry. The number
+    of shapes is capped; statements arriving after the cap is reached are counted under OTHER.
+ */
+public class StatementStatistics {
+
+    public static final String OTHER = "(other)";
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\b(in)\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private final int maxShapes;
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    public StatementStatistics(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    public void record(String sql, long nanos, boolean slow) {
+        String shape = shapeOf(sql);
+        Shape stats = shapes.get(shape);
+        if (stats == null) {
+            stats = shapes.size() < maxShapes
+                    ? shapes.computeIfAbsent(shape, key -> new Shape())
+                    : shapes.computeIfAbsent(OTHER, key -> new Shape());
+        }
+        stats.record(nanos, slow);
+    }
+
+    // the heaviest shapes first, by total time spent in them
+    public List<ShapeSnapshot> top(int limit) {
+        List<ShapeSnapshot> snapshots = new ArrayList<>(shapes.size());
+        shapes.forEach((shape, stats) -> snapshots.add(stats.snapshot(shape)));
+        snapshots.sort(Comparator.comparingDouble(ShapeSnapshot::totalMs).reversed());
+        return snapshots.subList(0, Math.min(limit, snapshots.size()));
+    }
+
+    public int size() {
+        return shapes.size();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    static String shapeOf(String sql) {
+        StringBuilder shape = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // string literal, with '' as an escaped quote
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                shape.append('?');
+                i++;
+            } else if (Character.isDigit(c) && !partOfIdentifier(shape)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                shape.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (!shape.isEmpty()) {
+                    shape.append(' ');
+                }
+            } else {
+                shape.append(c);
+                i++;
+            }
+        }
+        int end = shape.length();
+        while (end > 0 && shape.charAt(end - 1) == ' ') {
+            end--;
+        }
+        shape.setLength(end);
+        return shape.indexOf("?") < 0 ? shape.toString() : IN_LIST.matcher(shape).replaceAll("$1 (?)");
+    }
+
+    private static boolean partOfIdentifier(StringBuilder shape) {
+        if (shape.isEmpty()) {
+            return false;
+        }
+        char previous = shape.charAt(shape.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$' || previous == '`' || previous == '"';
+    }
+
+    public record ShapeSnapshot(String shape, long count, double totalMs, double meanMs, double maxMs, long slow) {
+    }
+
+    private static final class Shape {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder slow = new LongAdder();
+
+        void record(long nanos, boolean slowStatement) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (slowStatement) {
+                slow.increment();
+            }
+        }
+
+        ShapeSnapshot snapshot(String shape) {
+            long executions = count.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            return new ShapeSnapshot(shape, executions, totalMs, executions == 0 ? 0 : totalMs / executions,
+                    maxNanos.get() / 1_000_000.0, slow.sum());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/*
+    Virtual-thread mode (spring.threads.virtual.enabled=true on Java 21+): Tomcat, @Scheduled jobs and the
+    application task executor run on virtual threads, and the Hikari pool gets a ConnectionPermitDataSource
+    in front of it with one permit per pooled connection. On Java 17, or with the property off, nothing here
+    is registered and requests run on Tomcat's platform worker pool as before.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConnectionLimiter {
+
+    @Bean
+    static BeanPostProcessor connectionPermitPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConnectionPermitPostProcessor(meterRegistry);
+    }
+
+    // ordered so the permits sit directly on the pool, inside any unordered wrapper such as the SQL log
+    private record ConnectionPermitPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource pool)) {
+                return bean;
+            }
+            ConnectionPermitDataSource limited = new ConnectionPermitDataSource(
+                    pool, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+            meterRegistry.ifAvailable(registry -> register(registry, limited, beanName));
+            log.info("Virtual threads enabled: {} limited to {} concurrent connections", beanName, limited.getMaxPermits());
+            return limited;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    private static void register(MeterRegistry registry, ConnectionPermitDataSource limited, String beanName) {
+        Gauge.builder("tricol.datasource.permits.waiting", limited, ConnectionPermitDataSource::getWaiting)
+                .description("Threads waiting for a database connection permit")
+                .tag("datasource", beanName)
+                .register(registry);
+        Gauge.builder("tricol.datasource.permits.available", limited, ConnectionPermitDataSource::getAvailablePermits)
+                .description("Database connection permits not in use")
+                .tag("datasource", beanName)
+                .register(registry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.tricol.tricolspringbootrestapi.dto.request;
+
+import com.example.tricol.tricolspringbootrestapi.enums.BatchOperationType;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationRequest {
+
+    // name later operations use to refer to this one's result, as ${name.field}
+    @Pattern(regexp = "[A-Za-z][A-Za-z0-9_-]{0,49}", message = "Reference must start with a letter and hold at most 50 letters, digits, '_' or '-'")
+    private String ref;
+
+    @NotNull(message = "Operation type is required")
+    private BatchOperationType op;
+
+    // id the operation acts on, or a reference such as ${order.id}
+    private String target;
+
+    // request body of the create and update operations; any string value may be a reference
+    private JsonNode body;
+}
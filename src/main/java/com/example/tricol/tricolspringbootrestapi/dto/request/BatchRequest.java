@@ -0,0 +1,23 @@
+package com.example.tricol.tricolspringbootrestapi.dto.request;
+
+import com.example.tricol.tricolspringbootrestapi.enums.BatchTransactionMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest {
+
+    // SINGLE: every operation commits or none does; PER_OPERATION: each commits on its own
+    private BatchTransactionMode transaction = BatchTransactionMode.SINGLE;
+
+    @NotEmpty(message = "Operations list cannot be empty")
+    @Valid
+    private List<BatchOperationRequest> operations;
+}
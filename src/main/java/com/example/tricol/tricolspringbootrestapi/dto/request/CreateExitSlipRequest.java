@@ -31,4 +31,7 @@ public class CreateExitSlipRequest {
     @NotEmpty(message = "Items list cannot be empty")
     @Valid
     private List<ExitSlipItemRequest> items;
+
+    // warehouse the items are taken from, tricol.warehouse.default-id when absent
+    private Long warehouseId;
 }
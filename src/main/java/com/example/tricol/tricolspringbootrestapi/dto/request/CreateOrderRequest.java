@@ -7,5 +7,7 @@ import java.util.List;
 @Data
 public class CreateOrderRequest {
     private Long supplierId;
+    // delivery warehouse, tricol.warehouse.default-id when absent
+    private Long warehouseId;
     private List<CreateOrderItemRequest> items;
 }
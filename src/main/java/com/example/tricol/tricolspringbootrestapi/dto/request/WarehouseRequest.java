@@ -0,0 +1,21 @@
+package com.example.tricol.tricolspringbootrestapi.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseRequest {
+
+    @NotBlank(message = "Warehouse code is required")
+    @Size(max = 20, message = "Warehouse code must not exceed 20 characters")
+    private String code;
+
+    @NotBlank(message = "Warehouse name is required")
+    @Size(max = 100, message = "Warehouse name must not exceed 100 characters")
+    private String name;
+}
@@ -0,0 +1,19 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import com.example.tricol.tricolspringbootrestapi.enums.BatchOperationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// status is the one the matching endpoint would have answered; body on success, error otherwise
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationResponse {
+    private int index;
+    private String ref;
+    private BatchOperationType op;
+    private int status;
+    private Object body;
+    private ErrorResponse error;
+}
@@ -0,0 +1,18 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import com.example.tricol.tricolspringbootrestapi.enums.BatchTransactionMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// committed: every operation succeeded and its changes were committed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse {
+    private BatchTransactionMode transaction;
+    private boolean committed;
+    private List<BatchOperationResponse> results;
+}
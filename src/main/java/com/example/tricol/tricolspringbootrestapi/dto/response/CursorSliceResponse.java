@@ -0,0 +1,20 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSliceResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    // opaque token to pass back as ?cursor= to fetch the next slice, null on the last one
+    private String nextCursor;
+    // only filled when the client explicitly asks for a count
+    private Long totalElements;
+}
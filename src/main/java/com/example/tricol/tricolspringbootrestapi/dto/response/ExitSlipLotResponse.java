@@ -0,0 +1,23 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// a lot drawn by one line of an exit slip
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExitSlipLotResponse {
+    private Long exitSlipItemId;
+    private Long productId;
+    private String productName;
+    private Long stockSlotId;
+    private String lotNumber;
+    private Long orderId;
+    private Long movementId;
+    private LocalDateTime date;
+    private Double quantity;
+}
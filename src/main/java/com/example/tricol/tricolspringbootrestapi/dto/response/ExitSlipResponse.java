@@ -17,6 +17,7 @@ public class ExitSlipResponse {
     private String slipNumber;
     private LocalDateTime exitDate;
     private String destinationWorkshop;
+    private Long warehouseId;
     private ExitReason reason;
     private ExitSlipStatus status;
     private String comment;
@@ -0,0 +1,17 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalReplayResponse {
+    private long events;
+    private long lastSequence;
+    private int products;
+    private int lots;
+    private long elapsedMillis;
+    private long eventsPerSecond;
+}
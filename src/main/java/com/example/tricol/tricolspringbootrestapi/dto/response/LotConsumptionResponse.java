@@ -0,0 +1,21 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// one OUT movement of a lot, with the exit slip line that caused it
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LotConsumptionResponse {
+    private Long movementId;
+    private LocalDateTime date;
+    private Double quantity;
+    private Long exitSlipItemId;
+    private Long exitSlipId;
+    private String slipNumber;
+    private String destinationWorkshop;
+}
@@ -0,0 +1,29 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LotTraceResponse {
+    private String lotNumber;
+    private Long stockSlotId;
+    private Long productId;
+    private String productName;
+    private Long orderId;
+    private Long supplierId;
+    private String supplierSociety;
+    private LocalDateTime entryDate;
+    private Double quantity;
+    private Double availableQuantity;
+    private List<LotConsumptionResponse> consumptions;
+    private List<String> workshops;
+    // set when the archive holds consumptions of this lot: the lists above only cover movements from this date on
+    private LocalDateTime archivedBefore;
+    private long archivedConsumptions;
+}
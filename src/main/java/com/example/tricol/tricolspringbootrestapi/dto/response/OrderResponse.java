@@ -9,6 +9,7 @@ import java.util.List;
 public class OrderResponse {
     private Long id;
     private Long supplierId;
+    private Long warehouseId;
     private LocalDateTime orderDate;
     private String status;
     private Double totalAmount;
@@ -0,0 +1,27 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectedStockResponse {
+    private Long productId;
+    private double currentStock;
+    private long asOfSequence;
+    private List<ProjectedLot> lots;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProjectedLot {
+        private Long stockSlotId;
+        private double quantity;
+        private double availableQuantity;
+        private double unitPrice;
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 public class ReceiveOrderResponse {
     private Long id;
     private Long supplierId;
+    private Long warehouseId;
     private LocalDateTime orderDate;
     private String status;
     private Double totalAmount;
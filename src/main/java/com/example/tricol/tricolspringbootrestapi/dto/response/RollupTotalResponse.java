@@ -0,0 +1,19 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupTotalResponse {
+    // first day of the day, week (Monday) or month bucket
+    private LocalDate periodStart;
+    // movement type for stock reports, workshop name for workshop reports
+    private String key;
+    private double quantity;
+    private long movementCount;
+}
@@ -1,5 +1,6 @@
 package com.example.tricol.tricolspringbootrestapi.dto.response;
 
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,4 +20,10 @@ public class StockMovementResponse {
     private Long orderId;
     private Long stockSlotId;
     private String lotNumber;
+
+    // target of the criteria constructor projection in StockMovementSearchRepositoryImpl
+    public StockMovementResponse(Long id, StockMovement.Type type, LocalDateTime date, Double quantity, Long productId,
+                                 String productName, Long orderId, Long stockSlotId, String lotNumber) {
+        this(id, type != null ? type.name() : null, date, quantity, productId, productName, orderId, stockSlotId, lotNumber);
+    }
 }
@@ -0,0 +1,13 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class WarehouseResponse {
+    private Long id;
+    private String code;
+    private String name;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com.example.tricol.tricolspringbootrestapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// stock of one product: the total over the listed warehouses and the share of each
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStockResponse {
+    private Long productId;
+    private double total;
+    private List<Location> warehouses;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Location {
+        private Long warehouseId;
+        private String code;
+        private double quantity;
+    }
+}
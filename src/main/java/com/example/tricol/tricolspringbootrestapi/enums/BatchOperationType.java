@@ -0,0 +1,14 @@
+package com.example.tricol.tricolspringbootrestapi.enums;
+
+public enum BatchOperationType {
+    CREATE_ORDER,
+    RECEIVE_ORDER,
+    UPDATE_ORDER,
+    GET_ORDER,
+    CREATE_EXIT_SLIP,
+    VALIDATE_EXIT_SLIP,
+    CANCEL_EXIT_SLIP,
+    GET_EXIT_SLIP,
+    GET_PRODUCT,
+    GET_PRODUCT_STOCK
+}
@@ -0,0 +1,6 @@
+package com.example.tricol.tricolspringbootrestapi.enums;
+
+public enum BatchTransactionMode {
+    SINGLE,
+    PER_OPERATION
+}
@@ -0,0 +1,7 @@
+package com.example.tricol.tricolspringbootrestapi.enums;
+
+public enum ReportGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
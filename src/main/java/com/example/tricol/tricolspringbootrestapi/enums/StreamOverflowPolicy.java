@@ -0,0 +1,9 @@
+package com.example.tricol.tricolspringbootrestapi.enums;
+
+// what a live stream does when a subscriber's queue is full
+public enum StreamOverflowPolicy {
+    // discard the oldest queued event and report the gap to the client
+    DROP_OLDEST,
+    // close the stream; the client reconnects and resyncs from the search API
+    DISCONNECT
+}
@@ -0,0 +1,15 @@
+package com.example.tricol.tricolspringbootrestapi.event;
+
+import com.example.tricol.tricolspringbootrestapi.model.ExitSlip;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// published for every stock movement saved by the order reception and exit slip validation flows
+@Getter
+@AllArgsConstructor
+public class StockMovementEvent {
+    private final StockMovement movement;
+    // the slip behind an exit movement, null for receptions
+    private final ExitSlip exitSlip;
+}
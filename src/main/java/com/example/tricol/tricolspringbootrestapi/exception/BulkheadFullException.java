@@ -0,0 +1,14 @@
+package com.example.tricol.tricolspringbootrestapi.exception;
+
+public class BulkheadFullException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public BulkheadFullException(String bulkhead, int retryAfterSeconds) {
+        super("Too many concurrent requests for " + bulkhead + ", retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
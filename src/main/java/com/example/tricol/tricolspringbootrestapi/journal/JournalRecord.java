@@ -0,0 +1,90 @@
+package com.example.tricol.tricolspringbootrestapi.journal;
+
+import lombok.Data;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.CRC32C;
+
+/*
+    One fixed-size journal record (64 bytes, little endian):
+
+      0  long   sequence      (1-based, 0 marks unwritten space)
+      8  long   timestamp     (epoch micros, UTC)
+     16  long   movementId    (0 for snapshots)
+     24  long   productId
+     32  long   slotId
+     40  double quantity      (signed, negative for consumption)
+     48  double unitPrice
+     56  byte   kind
+     57  3 bytes padding
+     60  int    CRC32C of bytes 0..59
+
+    During replay a single instance is reused for every record, so handlers must copy what they keep.
+ */
+@Data
+public class JournalRecord {
+    public static final int SIZE = 64;
+    private static final int CHECKSUM_OFFSET = 60;
+
+    public static final byte LOT_CREATED = 1;
+    public static final byte LOT_CONSUMED = 2;
+    // current state of a lot, written when the journal starts from an existing database
+    public static final byte LOT_SNAPSHOT = 3;
+
+    private long sequence;
+    private long timestamp;
+    private long movementId;
+    private long productId;
+    private long slotId;
+    private double quantity;
+    private double unitPrice;
+    private byte kind;
+
+    public LocalDateTime getDate() {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(timestamp, 1_000_000L),
+                (int) Math.floorMod(timestamp, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    public void setDate(LocalDateTime date) {
+        timestamp = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), date);
+    }
+
+    void writeTo(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset, sequence);
+        buffer.putLong(offset + 8, timestamp);
+        buffer.putLong(offset + 16, movementId);
+        buffer.putLong(offset + 24, productId);
+        buffer.putLong(offset + 32, slotId);
+        buffer.putDouble(offset + 40, quantity);
+        buffer.putDouble(offset + 48, unitPrice);
+        buffer.put(offset + 56, kind);
+        buffer.put(offset + 57, (byte) 0);
+        buffer.putShort(offset + 58, (short) 0);
+        buffer.putInt(offset + CHECKSUM_OFFSET, checksum(buffer, offset));
+    }
+
+    void readFrom(ByteBuffer buffer, int offset) {
+        sequence = buffer.getLong(offset);
+        timestamp = buffer.getLong(offset + 8);
+        movementId = buffer.getLong(offset + 16);
+        productId = buffer.getLong(offset + 24);
+        slotId = buffer.getLong(offset + 32);
+        quantity = buffer.getDouble(offset + 40);
+        unitPrice = buffer.getDouble(offset + 48);
+        kind = buffer.get(offset + 56);
+    }
+
+    // a record is valid once its sequence is set and its checksum matches; anything else is a torn or empty slot
+    static boolean isValid(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset) != 0 && buffer.getInt(offset + CHECKSUM_OFFSET) == checksum(buffer, offset);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.tricol.tricolspringbootrestapi.journal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/*
+    Append-only journal of stock events in memory-mapped files.
+
+    Each file (stock-events-000001.journal, ...) is preallocated to recordsPerFile fixed-size records
+    and mapped once; appends are plain stores into the mapping and a scheduled task forces dirty pages
+    to disk, so a crash loses at most one force interval. On open the tail of the last file is scanned
+    and the first empty or torn record becomes the write position.
+ */
+@Slf4j
+@Component
+public class StockEventJournal {
+
+    private static final String FILE_PREFIX = "stock-events-";
+    private static final String FILE_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int recordsPerFile;
+    private final List<Path> files = new ArrayList<>();
+
+    private MappedByteBuffer current;
+    private int position;
+    private long sequence;
+    private boolean dirty;
+
+    public StockEventJournal(@Value("${tricol.journal.directory:${tricol.data-directory:${user.home}/tricol-data}/journal}") String directory,
+                             @Value("${tricol.journal.records-per-file:1048576}") int recordsPerFile) throws IOException {
+        this.directory = Path.of(directory);
+        this.recordsPerFile = recordsPerFile;
+        open();
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> list = Files.list(directory)) {
+            list.filter(f -> f.getFileName().toString().startsWith(FILE_PREFIX)
+                            && f.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted()
+                    .forEach(files::add);
+        }
+        if (files.isEmpty()) {
+            roll();
+            return;
+        }
+
+        if (files.size() > 1) {
+            MappedByteBuffer previous = map(files.get(files.size() - 2), FileChannel.MapMode.READ_ONLY);
+            sequence = previous.getLong((recordsPerFile - 1) * JournalRecord.SIZE);
+        }
+        current = map(files.get(files.size() - 1), FileChannel.MapMode.READ_WRITE);
+        // sequences are contiguous, so a valid-looking record after a gap is stale data, not part of the journal
+        while (position < recordsPerFile
+                && JournalRecord.isValid(current, position * JournalRecord.SIZE)
+                && current.getLong(position * JournalRecord.SIZE) == sequence + 1) {
+            sequence++;
+            position++;
+        }
+        // clear whatever a crash left behind the last complete record
+        if (position < recordsPerFile && current.getLong(position * JournalRecord.SIZE) != 0) {
+            current.put(position * JournalRecord.SIZE, new byte[JournalRecord.SIZE]);
+            current.force();
+        }
+        log.info("Opened stock event journal in {} at sequence {}", directory, sequence);
+    }
+
+    // assigns the next sequence number to the record and stores it
+    public synchronized long append(JournalRecord record) {
+        if (position == recordsPerFile) {
+            current.force();
+            roll();
+        }
+        record.setSequence(++sequence);
+        record.writeTo(current, position * JournalRecord.SIZE);
+        position++;
+        dirty = true;
+        return sequence;
+    }
+
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public synchronized boolean isEmpty() {
+        return sequence == 0;
+    }
+
+    @Scheduled(fixedDelayString = "${tricol.journal.force-interval-ms:200}")
+    public synchronized void force() {
+        if (dirty) {
+            current.force();
+            dirty = false;
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        force();
+    }
+
+    /*
+        Feeds every record with a sequence above fromSequence to the handler, in order, and returns
+        how many were replayed. Appends wait while a replay runs, so the handler sees a consistent prefix.
+     */
+    public synchronized long replay(long fromSequence, Consumer<JournalRecord> handler) {
+        JournalRecord record = new JournalRecord();
+        long replayed = 0;
+        for (int f = 0; f < files.size(); f++) {
+            boolean last = f == files.size() - 1;
+            MappedByteBuffer buffer = last ? current : map(files.get(f), FileChannel.MapMode.READ_ONLY);
+            int count = last ? position : recordsPerFile;
+            // whole files below the starting point are skipped from their last sequence
+            if (count == 0 || buffer.getLong((count - 1) * JournalRecord.SIZE) <= fromSequence) {
+                continue;
+            }
+            for (int i = 0; i < count; i++) {
+                record.readFrom(buffer, i * JournalRecord.SIZE);
+                if (record.getSequence() > fromSequence) {
+                    handler.accept(record);
+                    replayed++;
+                }
+            }
+        }
+        return replayed;
+    }
+
+    private void roll() {
+        Path file = directory.resolve(String.format("%s%06d%s", FILE_PREFIX, files.size() + 1, FILE_SUFFIX));
+        files.add(file);
+        current = map(file, FileChannel.MapMode.READ_WRITE);
+        position = 0;
+    }
+
+    private MappedByteBuffer map(Path file, FileChannel.MapMode mode) {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        // the mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            MappedByteBuffer buffer = channel.map(mode, 0, (long) recordsPerFile * JournalRecord.SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map stock event journal file " + file, e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tricol.tricolspringbootrestapi.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// per-product stock and per-lot state folded from journal records
+public class StockProjection {
+
+    private final Map<Long, Double> stockByProduct = new ConcurrentHashMap<>();
+    private final Map<Long, Lot> lots = new ConcurrentHashMap<>();
+    private volatile long lastSequence;
+
+    public void apply(JournalRecord record) {
+        switch (record.getKind()) {
+            case JournalRecord.LOT_CREATED, JournalRecord.LOT_SNAPSHOT -> {
+                Lot lot = new Lot(record.getSlotId(), record.getProductId(), record.getQuantity(),
+                        record.getQuantity(), record.getUnitPrice());
+                Lot previous = lots.put(lot.getSlotId(), lot);
+                double delta = record.getQuantity() - (previous != null ? previous.getAvailableQuantity() : 0.0);
+                stockByProduct.merge(record.getProductId(), delta, Double::sum);
+            }
+            case JournalRecord.LOT_CONSUMED -> {
+                Lot lot = lots.get(record.getSlotId());
+                if (lot != null) {
+                    lot.setAvailableQuantity(lot.getAvailableQuantity() + record.getQuantity());
+                }
+                stockByProduct.merge(record.getProductId(), record.getQuantity(), Double::sum);
+            }
+            default -> throw new IllegalStateException("Unknown journal record kind " + record.getKind());
+        }
+        lastSequence = record.getSequence();
+    }
+
+    public double stockOf(Long productId) {
+        return stockByProduct.getOrDefault(productId, 0.0);
+    }
+
+    public List<Lot> openLotsOf(Long productId) {
+        List<Lot> result = new ArrayList<>();
+        for (Lot lot : lots.values()) {
+            if (lot.getProductId() == productId && lot.getAvailableQuantity() > 0) {
+                result.add(lot);
+            }
+        }
+        result.sort((a, b) -> Long.compare(a.getSlotId(), b.getSlotId()));
+        return result;
+    }
+
+    public int productCount() {
+        return stockByProduct.size();
+    }
+
+    public int lotCount() {
+        return lots.size();
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Lot {
+        private long slotId;
+        private long productId;
+        private double quantity;
+        private double availableQuantity;
+        private double unitPrice;
+    }
+}
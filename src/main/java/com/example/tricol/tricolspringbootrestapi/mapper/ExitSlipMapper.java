@@ -11,6 +11,7 @@ import java.util.List;
 public interface ExitSlipMapper {
     
     @Mapping(source = "items", target = "items")
+    @Mapping(source = "warehouse.id", target = "warehouseId")
     ExitSlipResponse toResponse(ExitSlip exitSlip);
     
     List<ExitSlipResponse> toResponseList(List<ExitSlip> exitSlips);
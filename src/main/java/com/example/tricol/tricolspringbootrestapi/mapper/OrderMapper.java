@@ -14,6 +14,7 @@ import java.util.List;
 public interface OrderMapper {
     @Mapping(source = "id", target = "id")
     @Mapping(source = "supplier.id", target = "supplierId")
+    @Mapping(source = "warehouse.id", target = "warehouseId")
     OrderResponse toDto(Order order);
 
     @Mapping(source = "product.id", target = "productId")
@@ -21,6 +22,7 @@ public interface OrderMapper {
     List<OrderResponse> toDTOList(List<Order> orders);
 
     @Mapping(source = "supplier.id", target = "supplierId")
+    @Mapping(source = "warehouse.id", target = "warehouseId")
     ReceiveOrderResponse toReceiveOrderResponse(Order order);
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateOrderFromDTO(UpdateOrderStatus dto, @MappingTarget Order entity);
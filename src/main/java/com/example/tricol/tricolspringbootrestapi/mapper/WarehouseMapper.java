@@ -0,0 +1,21 @@
+package com.example.tricol.tricolspringbootrestapi.mapper;
+
+import com.example.tricol.tricolspringbootrestapi.dto.request.WarehouseRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.response.WarehouseResponse;
+import com.example.tricol.tricolspringbootrestapi.model.Warehouse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface WarehouseMapper {
+
+    WarehouseResponse toResponse(Warehouse warehouse);
+
+    List<WarehouseResponse> toResponseList(List<Warehouse> warehouses);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    Warehouse toEntity(WarehouseRequest request);
+}
@@ -0,0 +1,57 @@
+package com.example.tricol.tricolspringbootrestapi.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/*
+    Business meters of the stock hot paths. Latencies come from @Timed("tricol.operation") on the
+    service methods; these record what a latency alone does not explain: how many lots a FIFO
+    validation walked, how many rows a receipt wrote, and how often validation ran out of stock.
+ */
+@Component
+public class InventoryMetrics {
+
+    public static final String OPERATION_TIMER = "tricol.operation";
+
+    private final DistributionSummary lotsScanned;
+    private final DistributionSummary receiptRowsWritten;
+    private final Counter validated;
+    private final Counter insufficientStock;
+
+    public InventoryMetrics(MeterRegistry registry) {
+        this.lotsScanned = DistributionSummary.builder("tricol.exit_slip.lots_scanned")
+                .description("Stock lots read by the FIFO allocation of one exit slip validation")
+                .baseUnit("lots")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.receiptRowsWritten = DistributionSummary.builder("tricol.order.receipt.rows_written")
+                .description("Rows written by one order receipt (lots, movements, products, order)")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.validated = Counter.builder("tricol.exit_slip.validations")
+                .description("Exit slip validations by outcome")
+                .tag("outcome", "validated")
+                .register(registry);
+        this.insufficientStock = Counter.builder("tricol.exit_slip.validations")
+                .description("Exit slip validations by outcome")
+                .tag("outcome", "insufficient_stock")
+                .register(registry);
+    }
+
+    public void exitSlipValidated(int lots) {
+        lotsScanned.record(lots);
+        validated.increment();
+    }
+
+    public void insufficientStock(int lots) {
+        lotsScanned.record(lots);
+        insufficientStock.increment();
+    }
+
+    public void orderReceived(int rows) {
+        receiptRowsWritten.record(rows);
+    }
+}
@@ -31,6 +31,12 @@ public class ExitSlip {
     
     @Column(nullable = false)
     private String destinationWorkshop;
+
+    // the site whose lots the slip consumes
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    @ToString.Exclude
+    private Warehouse warehouse;
     
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
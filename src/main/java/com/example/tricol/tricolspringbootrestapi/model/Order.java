@@ -25,6 +25,11 @@ public class Order {
     @JoinColumn(name = "supplier_id", nullable = false)
     private Supplier supplier;
 
+    // the site the order is delivered to; its lots are created there on reception
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -0,0 +1,41 @@
+package com.example.tricol.tricolspringbootrestapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "stock_daily_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDailyRollup {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private Double quantity;
+
+    @Column(nullable = false)
+    private Long movementCount;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "rollup_day")
+        private LocalDate day;
+
+        private Long productId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(length = 10)
+        private StockMovement.Type type;
+    }
+}
@@ -42,6 +42,16 @@ public class StockMovement {
     @JoinColumn(name = "stock_slot_id", nullable = false)
     private StockSlot stockSlot;
 
+    // always the lot's warehouse
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+
+    // set on OUT movements: the exit slip line that consumed the lot
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exit_slip_item_id")
+    private ExitSlipItem exitSlipItem;
+
 
     public enum  Type {
         in,
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -37,6 +38,11 @@ public class StockSlot {
     @JoinColumn(name = "product_id")
     private Product product;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    @ToString.Exclude
+    private Warehouse warehouse;
+
     @OneToMany(mappedBy = "stockSlot")
     private List<StockMovement> stockMovements;
 }
@@ -5,12 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +40,9 @@ public class Supplier {
     private String city;
     private String ice;
 
-    @OneToMany(mappedBy = "supplier", cascade = CascadeType.ALL)
+    // set when a supplier with orders is deleted; archived suppliers are hidden but keep their order history
+    private LocalDateTime archivedAt;
+
+    @OneToMany(mappedBy = "supplier")
     private List<Order> orders = new ArrayList<>();
 }
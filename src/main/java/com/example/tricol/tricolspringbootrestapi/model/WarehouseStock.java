@@ -0,0 +1,33 @@
+package com.example.tricol.tricolspringbootrestapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// stock of one product in one warehouse; rows are only written by WarehouseStockRepository.add
+@Entity
+@Table(name = "warehouse_stock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStock {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private Double quantity;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long warehouseId;
+
+        private Long productId;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.tricol.tricolspringbootrestapi.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/*
+    Appends each event as one JSON line to a local file, for testing consumers without a broker.
+    A batch is a single write and a single fsync, so the cost per event falls as the batch grows.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tricol.outbox.file.enabled", havingValue = "true")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Path file;
+    private FileChannel channel;
+
+    public FileOutboxSink(@Value("${tricol.outbox.file.path:${tricol.data-directory:${user.home}/tricol-data}/outbox/events.jsonl}") String file) {
+        this.file = Path.of(file);
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> batch) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(batch.size() * 256);
+        for (OutboxMessage message : batch) {
+            objectMapper.writeValue(lines, message);
+            lines.write('\n');
+        }
+        FileChannel out = channel();
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        out.force(false);
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            log.info("Outbox events are appended to {}", file.toAbsolutePath());
+        }
+        return channel;
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
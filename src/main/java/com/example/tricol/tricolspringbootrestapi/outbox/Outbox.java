@@ -0,0 +1,114 @@
+package com.example.tricol.tricolspringbootrestapi.outbox;
+
+import com.example.tricol.tricolspringbootrestapi.model.ExitSlip;
+import com.example.tricol.tricolspringbootrestapi.model.Order;
+import com.example.tricol.tricolspringbootrestapi.model.OutboxEvent;
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.model.StockSlot;
+import com.example.tricol.tricolspringbootrestapi.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+    Writes domain events to outbox_events in the caller's transaction (MANDATORY), so an event is stored
+    exactly when the change it describes commits and disappears with it on rollback. OutboxRelay delivers
+    the rows afterwards; nothing here talks to a consumer.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    public static final String ORDER_RECEIVED = "OrderReceived";
+    public static final String EXIT_SLIP_VALIDATED = "ExitSlipValidated";
+    public static final String EXIT_SLIP_CANCELLED = "ExitSlipCancelled";
+    public static final String PRODUCT_STOCK_CHANGED = "ProductStockChanged";
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderReceived(Order order, List<StockSlot> lots) {
+        append("order", order.getId(), ORDER_RECEIVED, new OrderReceived(
+                order.getId(),
+                order.getSupplier().getId(),
+                order.getWarehouse() != null ? order.getWarehouse().getId() : null,
+                order.getTotalAmount(),
+                LocalDateTime.now(),
+                lots.stream()
+                        .map(lot -> new Lot(lot.getId(), lot.getLotNumber(), lot.getProduct().getId(), lot.getQuantity(), lot.getUnitPrice()))
+                        .toList()));
+    }
+
+    // movements are the exit slip's OUT movements, one per lot consumed
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void exitSlipValidated(ExitSlip exitSlip, List<StockMovement> movements) {
+        append("exit-slip", exitSlip.getId(), EXIT_SLIP_VALIDATED, new ExitSlipValidated(
+                exitSlip.getId(),
+                exitSlip.getSlipNumber(),
+                exitSlip.getWarehouse() != null ? exitSlip.getWarehouse().getId() : null,
+                exitSlip.getDestinationWorkshop(),
+                exitSlip.getReason() != null ? exitSlip.getReason().name() : null,
+                exitSlip.getValidatedAt(),
+                movements.stream()
+                        .map(movement -> new Lot(movement.getStockSlot().getId(), movement.getStockSlot().getLotNumber(),
+                                movement.getProduct().getId(), -movement.getQuantity(), movement.getStockSlot().getUnitPrice()))
+                        .toList()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void exitSlipCancelled(ExitSlip exitSlip) {
+        append("exit-slip", exitSlip.getId(), EXIT_SLIP_CANCELLED, new ExitSlipCancelled(
+                exitSlip.getId(), exitSlip.getSlipNumber(), exitSlip.getDestinationWorkshop(), exitSlip.getCancelledAt()));
+    }
+
+    // cause is what moved the stock: order-received, exit-slip-validated or adjustment, with its id when there is one
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productStockChanged(Product product, double previousStock, String cause, Long causeId) {
+        append("product", product.getId(), PRODUCT_STOCK_CHANGED, new ProductStockChanged(
+                product.getId(), product.getReference(), previousStock, product.getCurrentStock(), cause, causeId));
+    }
+
+    private void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        try {
+            event.setPayload(JSON.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + eventType + " for " + aggregateType + " " + aggregateId, e);
+        }
+        outboxEventRepository.save(event);
+    }
+
+    public record OrderReceived(Long orderId, Long supplierId, Long warehouseId, Double totalAmount, LocalDateTime receivedAt,
+                                List<Lot> lots) {
+    }
+
+    public record ExitSlipValidated(Long exitSlipId, String slipNumber, Long warehouseId, String workshop, String reason,
+                                    LocalDateTime validatedAt, List<Lot> consumed) {
+    }
+
+    public record ExitSlipCancelled(Long exitSlipId, String slipNumber, String workshop, LocalDateTime cancelledAt) {
+    }
+
+    public record ProductStockChanged(Long productId, String reference, double previousStock, double currentStock,
+                                      String cause, Long causeId) {
+    }
+
+    // a lot received, or the part of a lot consumed by an exit slip
+    public record Lot(Long slotId, String lotNumber, Long productId, Double quantity, Double unitPrice) {
+    }
+}
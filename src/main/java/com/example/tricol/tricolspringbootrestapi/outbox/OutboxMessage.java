@@ -0,0 +1,16 @@
+package com.example.tricol.tricolspringbootrestapi.outbox;
+
+import com.example.tricol.tricolspringbootrestapi.model.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+// an outbox row as handed to the sinks; id is increasing and unique, so consumers can drop redeliveries by it
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType, LocalDateTime createdAt,
+                            @JsonRawValue String payload) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getEventType(),
+                event.getCreatedAt(), event.getPayload());
+    }
+}
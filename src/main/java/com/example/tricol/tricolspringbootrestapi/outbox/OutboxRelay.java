@@ -0,0 +1,106 @@
+package com.example.tricol.tricolspringbootrestapi.outbox;
+
+import com.example.tricol.tricolspringbootrestapi.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+    Delivers outbox_events to every OutboxSink in id order, batch-size events at a time, and deletes a batch
+    once all sinks have accepted it. A failing sink stops the run and the batch is retried on the next one,
+    so events are delivered at least once and never skipped. Events committed late by a slower transaction
+    have a lower id than some already delivered; they go out with the next batch.
+
+    The poll is a read-only transaction, so an idle relay neither opens the read-your-writes window nor holds
+    a primary connection when a replica is configured. A lagging replica only delays events or shows a batch
+    that was just deleted again, which at-least-once delivery already allows.
+
+    Run the relay on one instance only (tricol.outbox.relay.enabled): two relays would deliver every batch twice.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate pollTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Counter delivered;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ObjectProvider<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       ObjectProvider<MeterRegistry> registry,
+                       @Value("${tricol.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${tricol.outbox.relay.batch-size:500}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks.orderedStream().toList();
+        this.pollTemplate = new TransactionTemplate(transactionManager);
+        this.pollTemplate.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.registry = registry.getIfAvailable(SimpleMeterRegistry::new);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.delivered = Counter.builder("tricol.outbox.delivered")
+                .description("Outbox events accepted by every sink and removed from the outbox")
+                .register(this.registry);
+        if (enabled && this.sinks.isEmpty()) {
+            log.warn("Outbox relay is enabled without any sink, events stay in outbox_events");
+        }
+    }
+
+    // drains the outbox: a full batch means more may be waiting
+    @Scheduled(fixedDelayString = "${tricol.outbox.relay.interval-ms:500}")
+    public void relayPending() {
+        if (!enabled || sinks.isEmpty()) {
+            return;
+        }
+        while (relayBatch() == batchSize) {
+            // next batch
+        }
+    }
+
+    // the number of events delivered, 0 when the outbox is empty or a sink failed
+    public synchronized int relayBatch() {
+        List<OutboxMessage> batch = pollTemplate.execute(status -> outboxEventRepository
+                .findOldest(Limit.of(batchSize)).stream()
+                .map(OutboxMessage::of)
+                .toList());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(batch);
+            } catch (Exception e) {
+                Counter.builder("tricol.outbox.failures")
+                        .description("Batches a sink failed to accept; the batch is retried on the next run")
+                        .tag("sink", sink.name())
+                        .register(registry)
+                        .increment();
+                log.warn("Outbox sink {} failed on events {} to {}, retrying on the next run",
+                        sink.name(), batch.get(0).id(), batch.get(batch.size() - 1).id(), e);
+                return 0;
+            }
+        }
+
+        List<Long> ids = batch.stream().map(OutboxMessage::id).toList();
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteByIds(ids));
+        delivered.increment(batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.tricol.tricolspringbootrestapi.outbox;
+
+import java.util.List;
+
+/*
+    A destination for outbox events. OutboxRelay calls every sink bean with the same batches, in id order.
+    A sink that throws gets the whole batch again on the next run, and so do the sinks that had already
+    accepted it: delivery is at-least-once, so a sink should be idempotent on OutboxMessage.id.
+ */
+public interface OutboxSink {
+
+    void deliver(List<OutboxMessage> batch) throws Exception;
+
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ExitSlipRepository extends JpaRepository<ExitSlip, Long> {
+public interface ExitSlipRepository extends JpaRepository<ExitSlip, Long>, SparseRepository<ExitSlip> {
     
     Optional<ExitSlip> findBySlipNumber(String slipNumber);
     
@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order,Long> {
+public interface OrderRepository extends JpaRepository<Order,Long>, SparseRepository<Order> {
     List<Order> findByStatus(Order.OrderStatus status);
 
     List<Order> findBySupplier(Supplier supplier);
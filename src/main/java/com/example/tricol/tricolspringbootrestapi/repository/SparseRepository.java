@@ -0,0 +1,14 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseView;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// ?fields= reads selecting only the chosen columns of T into the view's response DTO
+public interface SparseRepository<T> {
+
+    <D> List<D> findSparse(SparseView<T, D> view, FieldSelection fields, Specification<T> spec, Sort sort);
+}
@@ -0,0 +1,21 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class SparseRepositoryImpl<T> implements SparseRepository<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <D> List<D> findSparse(SparseView<T, D> view, FieldSelection fields, Specification<T> spec, Sort sort) {
+        return view.select(entityManager, fields, spec, sort);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.model.StockDailyRollup;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface StockDailyRollupRepository extends JpaRepository<StockDailyRollup, StockDailyRollup.Key> {
+
+    // single-statement upsert so concurrent writers on the same (day, product, type) never lose an update;
+    // the declared query space keeps Hibernate from clearing every second-level cache region after it
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "stock_daily_rollups"))
+    @Query(value = "INSERT INTO stock_daily_rollups (rollup_day, product_id, type, quantity, movement_count) "
+            + "VALUES (:day, :productId, :type, :quantity, 1) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), movement_count = movement_count + 1",
+            nativeQuery = true)
+    void add(@Param("day") LocalDate day, @Param("productId") Long productId,
+             @Param("type") String type, @Param("quantity") double quantity);
+
+    @Query("select r.id.day as day, r.id.type as type, sum(r.quantity) as quantity, sum(r.movementCount) as movementCount "
+            + "from StockDailyRollup r "
+            + "where r.id.day between :from and :to "
+            + "and (:productId is null or r.id.productId = :productId) "
+            + "and (:type is null or r.id.type = :type) "
+            + "group by r.id.day, r.id.type "
+            + "order by r.id.day, r.id.type")
+    List<DailyTotal> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                              @Param("productId") Long productId, @Param("type") StockMovement.Type type);
+
+    interface DailyTotal {
+        LocalDate getDay();
+        StockMovement.Type getType();
+        Double getQuantity();
+        Long getMovementCount();
+    }
+}
@@ -1,11 +1,45 @@
 package com.example.tricol.tricolspringbootrestapi.repository;
 
+import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipLotResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.LotConsumptionResponse;
 import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface StockMovementRepository extends JpaRepository<StockMovement, Integer>,
-        JpaSpecificationExecutor<StockMovement> {
+        JpaSpecificationExecutor<StockMovement>, StockMovementSearchRepository {
+
+    Optional<StockMovement> findFirstByDateLessThanOrderByDateAsc(LocalDateTime date);
+
+    List<StockMovement> findByDateGreaterThanEqualAndDateLessThan(LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query("delete from StockMovement m where m.date >= :from and m.date < :to")
+    int deleteByDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // lot -> exit slips: walks idx_stock_movements_slot_date, then primary keys
+    @Query("select new com.example.tricol.tricolspringbootrestapi.dto.response.LotConsumptionResponse("
+            + "m.id, m.date, m.quantity, i.id, s.id, s.slipNumber, s.destinationWorkshop) "
+            + "from StockMovement m join m.exitSlipItem i join i.exitSlip s "
+            + "where m.stockSlot.id = :stockSlotId "
+            + "order by m.date, m.id")
+    List<LotConsumptionResponse> findLotConsumptions(@Param("stockSlotId") Long stockSlotId);
+
+    // exit slip -> lots: the slip's items, then idx_stock_movements_exit_slip_item
+    @Query("select new com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipLotResponse("
+            + "i.id, p.id, p.name, ss.id, ss.lotNumber, ss.order.id, m.id, m.date, m.quantity) "
+            + "from ExitSlipItem i join StockMovement m on m.exitSlipItem = i "
+            + "join m.stockSlot ss join m.product p "
+            + "where i.exitSlip.id = :exitSlipId "
+            + "order by i.id, m.id")
+    List<ExitSlipLotResponse> findExitSlipLots(@Param("exitSlipId") Long exitSlipId);
 }
@@ -0,0 +1,24 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// movement search selecting straight into StockMovementResponse, without hydrating the product, order and slot entities
+public interface StockMovementSearchRepository {
+
+    Page<StockMovementResponse> findResponses(Specification<StockMovement> spec, Pageable pageable);
+
+    List<StockMovementResponse> findResponses(Specification<StockMovement> spec, Sort sort, int limit);
+
+    // only the chosen fields (plus id and date) are read; a null selection reads them all
+    Page<StockMovementResponse> findResponses(Specification<StockMovement> spec, Pageable pageable, FieldSelection fields);
+
+    List<StockMovementResponse> findResponses(Specification<StockMovement> spec, Sort sort, int limit, FieldSelection fields);
+}
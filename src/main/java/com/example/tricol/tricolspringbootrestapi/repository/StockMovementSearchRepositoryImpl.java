@@ -0,0 +1,123 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.model.StockSlot;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseViews;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+class StockMovementSearchRepositoryImpl implements StockMovementSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<StockMovementResponse> findResponses(Specification<StockMovement> spec, Pageable pageable) {
+        return findResponses(spec, pageable, null);
+    }
+
+    @Override
+    public List<StockMovementResponse> findResponses(Specification<StockMovement> spec, Sort sort, int limit) {
+        return findResponses(spec, sort, limit, null);
+    }
+
+    @Override
+    public Page<StockMovementResponse> findResponses(Specification<StockMovement> spec, Pageable pageable, FieldSelection fields) {
+        TypedQuery<Long> ids = selectIds(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            ids.setFirstResult((int) pageable.getOffset());
+            ids.setMaxResults(pageable.getPageSize());
+        }
+        // the COUNT only runs when the page size alone cannot tell the total
+        return PageableExecutionUtils.getPage(selectResponses(ids.getResultList(), pageable.getSort(), fields), pageable,
+                () -> count(spec));
+    }
+
+    @Override
+    public List<StockMovementResponse> findResponses(Specification<StockMovement> spec, Sort sort, int limit, FieldSelection fields) {
+        return selectResponses(selectIds(spec, sort).setMaxResults(limit).getResultList(), sort, fields);
+    }
+
+    /*
+        Deferred join: the filters, sort and limit run on stock_movements alone, where they can walk one of
+        the (..., date, id) indexes and stop after the page, and only the page's ids are joined for the
+        projection. A single joined query would make the database join and sort every matching row first.
+     */
+    private TypedQuery<Long> selectIds(Specification<StockMovement> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<StockMovement> root = query.from(StockMovement.class);
+        query.select(root.get("id"));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    // order.id is read from the foreign key column, only product and stockSlot are joined
+    private List<StockMovementResponse> selectResponses(List<Long> ids, Sort sort, FieldSelection fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (fields != null) {
+            // a sparse page joins product or stockSlot only when one of their fields was chosen
+            return SparseViews.MOVEMENTS.select(entityManager, fields, (root, query, cb) -> root.get("id").in(ids), sort);
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StockMovementResponse> query = cb.createQuery(StockMovementResponse.class);
+        Root<StockMovement> root = query.from(StockMovement.class);
+        Join<StockMovement, Product> product = root.join("product");
+        Join<StockMovement, StockSlot> stockSlot = root.join("stockSlot");
+
+        query.select(cb.construct(StockMovementResponse.class,
+                root.get("id"),
+                root.get("type"),
+                root.get("date"),
+                root.get("quantity"),
+                root.get("product").get("id"),
+                product.get("name"),
+                root.get("order").get("id"),
+                root.get("stockSlot").get("id"),
+                stockSlot.get("lotNumber")));
+        query.where(root.get("id").in(ids));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private long count(Specification<StockMovement> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<StockMovement> root = query.from(StockMovement.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
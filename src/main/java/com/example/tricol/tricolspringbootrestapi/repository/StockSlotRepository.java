@@ -2,19 +2,27 @@ package com.example.tricol.tricolspringbootrestapi.repository;
 
 import com.example.tricol.tricolspringbootrestapi.model.Product;
 import com.example.tricol.tricolspringbootrestapi.model.StockSlot;
+import com.example.tricol.tricolspringbootrestapi.model.Warehouse;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StockSlotRepository extends JpaRepository<StockSlot,Long> {
     
     List<StockSlot> findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(
             Product product, Double quantity);
+
+    // FIFO within one warehouse
+    List<StockSlot> findByProductAndWarehouseAndAvailableQuantityGreaterThanOrderByEntryDateAsc(
+            Product product, Warehouse warehouse, Double quantity);
     
     List<StockSlot> findByProductAndAvailableQuantityGreaterThan(
             Product product, Double quantity);
     
     List<StockSlot> findByProduct(Product product);
+
+    Optional<StockSlot> findByLotNumber(String lotNumber);
 }
@@ -1,14 +1,49 @@
 package com.example.tricol.tricolspringbootrestapi.repository;
 
 import com.example.tricol.tricolspringbootrestapi.model.Supplier;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
-    List<Supplier> findBySocietyContainingIgnoreCaseOrContactAgentContainingIgnoreCase(String society, String contactAgent);
+    // leading-wildcard LIKE on two columns: only used until the search index is built
+    @Query("select s from Supplier s where s.archivedAt is null and ("
+            + "lower(s.society) like lower(concat('%', :query, '%')) or lower(s.contactAgent) like lower(concat('%', :query, '%')))")
+    Page<Supplier> searchActive(@Param("query") String query, Pageable pageable);
+
     Optional<Supplier> findByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Supplier> findByIdAndArchivedAtIsNull(Long id);
+
+    List<Supplier> findByArchivedAtIsNull();
+
+    Page<Supplier> findByArchivedAtIsNull(Pageable pageable);
+
+    // keyset listing: seeks past the last id of the previous slice
+    List<Supplier> findByArchivedAtIsNullAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    long countByArchivedAtIsNull();
+
+    // one statement each, whatever the order history: a supplier without orders is deleted, otherwise archived
+    @Modifying
+    @Query("delete from Supplier s where s.id = :id and not exists (select o.id from Order o where o.supplier.id = :id)")
+    int deleteIfNoOrders(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Supplier s set s.archivedAt = :archivedAt where s.id = :id and s.archivedAt is null")
+    int archive(@Param("id") Long id, @Param("archivedAt") LocalDateTime archivedAt);
 }
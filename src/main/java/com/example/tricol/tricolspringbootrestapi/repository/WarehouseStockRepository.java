@@ -0,0 +1,33 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.model.WarehouseStock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, WarehouseStock.Key> {
+
+    // single-statement upsert, like the daily rollups: concurrent receptions and exits never lose an update
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "warehouse_stock"))
+    @Query(value = "INSERT INTO warehouse_stock (warehouse_id, product_id, quantity) VALUES (:warehouseId, :productId, :quantity) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity)",
+            nativeQuery = true)
+    void add(@Param("warehouseId") Long warehouseId, @Param("productId") Long productId, @Param("quantity") double quantity);
+
+    @Query("select s from WarehouseStock s where s.id.warehouseId = :warehouseId order by s.id.productId")
+    List<WarehouseStock> findByWarehouse(@Param("warehouseId") Long warehouseId);
+
+    // one row per warehouse holding the product, or per (warehouse, product) when productId is null
+    @Query("select s from WarehouseStock s where (:productId is null or s.id.productId = :productId) "
+            + "order by s.id.productId, s.id.warehouseId")
+    List<WarehouseStock> findByProduct(@Param("productId") Long productId);
+}
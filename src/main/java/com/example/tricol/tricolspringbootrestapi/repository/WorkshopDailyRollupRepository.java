@@ -0,0 +1,33 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.model.WorkshopDailyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WorkshopDailyRollupRepository extends JpaRepository<WorkshopDailyRollup, WorkshopDailyRollup.Key> {
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "workshop_daily_rollups"))
+    @Query(value = "INSERT INTO workshop_daily_rollups (rollup_day, workshop, quantity, movement_count) "
+            + "VALUES (:day, :workshop, :quantity, 1) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), movement_count = movement_count + 1",
+            nativeQuery = true)
+    void add(@Param("day") LocalDate day, @Param("workshop") String workshop, @Param("quantity") double quantity);
+
+    @Query("select r from WorkshopDailyRollup r "
+            + "where r.id.day between :from and :to "
+            + "and (:workshop is null or r.id.workshop = :workshop) "
+            + "order by r.id.day, r.id.workshop")
+    List<WorkshopDailyRollup> findByDayRange(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                             @Param("workshop") String workshop);
+}
@@ -0,0 +1,284 @@
+package com.example.tricol.tricolspringbootrestapi.search;
+
+import com.example.tricol.tricolspringbootrestapi.model.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/*
+    In-memory trigram index over supplier society, contact agent, city and email.
+
+    Text is lower-cased and stripped of accents, split into words, and every word is padded
+    ("  word ") before being cut into trigrams, so short queries still match word starts.
+    A supplier matches when it contains the query, or when enough of the query's trigrams occur
+    in it (fuzzy match, tolerates typos). Hits are ranked: a society word starting with the query,
+    then containment anywhere, then trigram similarity.
+
+    Suppliers live in slots; a posting list holds the slots of every supplier containing the trigram.
+    Updating or deleting a supplier frees its slot and leaves stale postings behind, which are skipped
+    at query time and dropped when the index is compacted.
+ */
+@Component
+public class SupplierSearchIndex {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(hit -> hit.entry().society)
+            .thenComparingLong(hit -> hit.entry().id);
+
+    private final double minSimilarity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // per-slot trigram counts, kept per thread and zeroed after each query so searches allocate nothing per slot
+    private final ThreadLocal<int[]> countBuffers = ThreadLocal.withInitial(() -> new int[1024]);
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private Entry[] entries = new Entry[1024];
+    private int slots;
+    private volatile boolean ready;
+
+    public SupplierSearchIndex(@Value("${tricol.supplier-search.min-similarity:0.6}") double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    // replaces the whole index; searches are answered from the database until this has run once
+    public void rebuild(Collection<Supplier> suppliers) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            suppliers.forEach(this::add);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // adds a new supplier or re-indexes an updated one
+    public void index(Supplier supplier) {
+        lock.writeLock().lock();
+        try {
+            free(supplier.getId());
+            add(supplier);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long supplierId) {
+        lock.writeLock().lock();
+        try {
+            free(supplierId);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // returns the ids of the matching suppliers, best match first
+    public Page<Long> search(String query, Pageable pageable) {
+        String normalized = normalize(query);
+        Set<String> trigrams = trigramsOf(normalized);
+        if (trigrams.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        // only the hits up to the end of the requested page are kept, in a heap with the worst on top
+        int keep = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(keep, 1024) + 1, RANKING.reversed());
+        int total = 0;
+        lock.readLock().lock();
+        try {
+            // count, per slot, how many of the query's trigrams it contains
+            int[] counts = countBuffers.get();
+            if (counts.length < slots) {
+                counts = new int[Math.max(slots, counts.length * 2)];
+                countBuffers.set(counts);
+            }
+            int[] touched = new int[64];
+            int touchedCount = 0;
+            for (String trigram : trigrams) {
+                Postings list = postings.get(trigram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    if (counts[slot]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = slot;
+                    }
+                }
+            }
+
+            for (int i = 0; i < touchedCount; i++) {
+                Entry entry = entries[touched[i]];
+                if (entry == null) {
+                    continue;
+                }
+                double similarity = (double) counts[touched[i]] / trigrams.size();
+                boolean contains = entry.text.contains(normalized);
+                if (!contains && similarity < minSimilarity) {
+                    continue;
+                }
+                double score = similarity
+                        + (contains ? 1.0 : 0.0)
+                        + (contains && startsAWord(entry.society, normalized) ? 1.0 : 0.0);
+                total++;
+                if (best.size() == keep && score < best.peek().score()) {
+                    continue;
+                }
+                best.add(new Hit(entry, score));
+                if (best.size() > keep) {
+                    best.poll();
+                }
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                counts[touched[i]] = 0;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        List<Long> ids = new ArrayList<>(pageable.getPageSize());
+        for (int i = (int) Math.min(pageable.getOffset(), ranked.size()); i < ranked.size(); i++) {
+            ids.add(ranked.get(i).entry().id);
+        }
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    private void add(Supplier supplier) {
+        String society = normalize(supplier.getSociety());
+        String text = String.join("\n", society, normalize(supplier.getContactAgent()),
+                normalize(supplier.getCity()), normalize(supplier.getEmail()));
+        put(new Entry(supplier.getId(), society, text));
+    }
+
+    private void put(Entry entry) {
+        if (slots == entries.length) {
+            entries = Arrays.copyOf(entries, slots * 2);
+        }
+        int slot = slots++;
+        entries[slot] = entry;
+        slotById.put(entry.id, slot);
+        for (String trigram : trigramsOf(entry.text)) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(slot);
+        }
+    }
+
+    private void free(Long supplierId) {
+        Integer slot = slotById.remove(supplierId);
+        if (slot != null) {
+            entries[slot] = null;
+        }
+    }
+
+    // once freed slots outnumber live ones, re-index the live suppliers into fresh posting lists
+    private void compactIfSparse() {
+        int live = slotById.size();
+        if (slots < 1024 || slots - live <= live) {
+            return;
+        }
+        List<Entry> kept = new ArrayList<>(live);
+        for (int slot = 0; slot < slots; slot++) {
+            if (entries[slot] != null) {
+                kept.add(entries[slot]);
+            }
+        }
+        clear();
+        kept.forEach(this::put);
+    }
+
+    private void clear() {
+        postings.clear();
+        slotById.clear();
+        entries = new Entry[1024];
+        slots = 0;
+    }
+
+    private static boolean startsAWord(String text, String query) {
+        for (int at = text.indexOf(query); at >= 0; at = text.indexOf(query, at + 1)) {
+            if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return ACCENTS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> trigramsOf(String normalized) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : SEPARATORS.split(normalized)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private record Entry(long id, String society, String text) {
+    }
+
+    private record Hit(Entry entry, double score) {
+    }
+
+    // growable list of slots, ascending since slots are handed out in order
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.dto.request.BatchRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.response.BatchResponse;
+
+// runs the operations in order; a failed operation is reported in its result, it does not fail the batch
+public interface BatchService {
+    BatchResponse execute(BatchRequest request);
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import com.example.tricol.tricolspringbootrestapi.dto.request.CreateExitSlipRequest;
 import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipResponse;
 import com.example.tricol.tricolspringbootrestapi.enums.ExitSlipStatus;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
 
 public interface ExitSlipService {
 ExitSlipResponse createExitSlip(CreateExitSlipRequest request);
@@ -15,5 +16,9 @@ List<ExitSlipResponse> getAllExitSlips();
 List<ExitSlipResponse> getExitSlipsByStatus(ExitSlipStatus status);
 List<ExitSlipResponse> getExitSlipsByWorkshop(String workshop);
 
+// ?fields= reads: only the chosen fields are filled in, status and workshop filter when given
+ExitSlipResponse getExitSlip(Long id, FieldSelection fields);
+List<ExitSlipResponse> getExitSlips(ExitSlipStatus status, String workshop, FieldSelection fields);
+
 double calculateStockValue(Long productId);
 } 
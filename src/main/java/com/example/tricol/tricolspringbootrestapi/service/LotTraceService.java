@@ -0,0 +1,14 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipLotResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.LotTraceResponse;
+
+import java.util.List;
+
+public interface LotTraceService {
+    // where a lot came from and every exit slip and workshop that consumed it
+    LotTraceResponse traceLot(String lotNumber);
+
+    // the lots an exit slip drew from, line by line
+    List<ExitSlipLotResponse> getExitSlipLots(Long exitSlipId);
+}
@@ -5,6 +5,7 @@ import com.example.tricol.tricolspringbootrestapi.dto.request.UpdateOrderStatus;
 import com.example.tricol.tricolspringbootrestapi.dto.response.OrderResponse;
 import com.example.tricol.tricolspringbootrestapi.model.Order;
 import com.example.tricol.tricolspringbootrestapi.dto.response.ReceiveOrderResponse;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,6 +17,11 @@ public interface OrderService {
 
     List<OrderResponse> getAllOrders();
 
+    // ?fields= reads: only the chosen fields are filled in
+    OrderResponse getOrderById(Long id, FieldSelection fields);
+
+    List<OrderResponse> getAllOrders(FieldSelection fields);
+
     OrderResponse updateOrder(Long id, UpdateOrderStatus request);
     List<OrderResponse> filterOrdersByStatus(Order.OrderStatus status);
     List<OrderResponse> filterOrdersBySupplier(Long supplierId);
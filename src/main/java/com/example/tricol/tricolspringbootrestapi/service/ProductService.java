@@ -2,6 +2,7 @@ package com.example.tricol.tricolspringbootrestapi.service;
 
 import com.example.tricol.tricolspringbootrestapi.dto.request.ProductDTO;
 import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
 
 import java.util.List;
 
@@ -12,6 +13,11 @@ public interface ProductService {
 
     List<ProductDTO> getProducts();
 
+    // ?fields= reads: only the chosen fields are filled in
+    ProductDTO getProductById(Long id, FieldSelection fields);
+
+    List<ProductDTO> getProducts(FieldSelection fields);
+
     ProductDTO updateProduct(Long id, ProductDTO ProductDTO);
 
     void deleteProduct(Long id);
@@ -0,0 +1,15 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.JournalReplayResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ProjectedStockResponse;
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
+
+public interface StockJournalService {
+    // appends a committed movement to the journal and folds it into the in-memory projection
+    void record(StockMovementEvent event);
+
+    // replays the whole journal into a fresh projection and swaps it in
+    JournalReplayResponse rebuildProjection();
+
+    ProjectedStockResponse getProjectedStock(Long productId);
+}
@@ -1,7 +1,9 @@
 package com.example.tricol.tricolspringbootrestapi.service;
 
+import com.example.tricol.tricolspringbootrestapi.dto.response.CursorSliceResponse;
 import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
 import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -9,11 +11,25 @@ import java.time.LocalDateTime;
 
 public interface StockMovementService {
     Page<StockMovementResponse> searchMovements(
-            LocalDateTime startDate, 
-            LocalDateTime endDate, 
-            Long productId, 
-            String reference, 
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Long productId,
+            String reference,
             StockMovement.Type type,
             String lotNumber,
-            Pageable pageable);
+            Pageable pageable,
+            FieldSelection fields);
+
+    // keyset variant: seeks on (date, id) instead of OFFSET and skips the COUNT unless withCount is set
+    CursorSliceResponse<StockMovementResponse> scrollMovements(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Long productId,
+            String reference,
+            StockMovement.Type type,
+            String lotNumber,
+            String cursor,
+            int size,
+            boolean withCount,
+            FieldSelection fields);
 }
@@ -0,0 +1,17 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.RollupTotalResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.ReportGranularity;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// reports answered from the daily rollup tables instead of scanning stock_movements
+public interface StockReportService {
+    List<RollupTotalResponse> getMovementTotals(LocalDate from, LocalDate to, ReportGranularity granularity,
+                                                Long productId, StockMovement.Type type);
+
+    List<RollupTotalResponse> getWorkshopTotals(LocalDate from, LocalDate to, ReportGranularity granularity,
+                                                String workshop);
+}
@@ -1,9 +1,10 @@
 package com.example.tricol.tricolspringbootrestapi.service;
 
 import com.example.tricol.tricolspringbootrestapi.dto.request.SupplierDTO;
+import com.example.tricol.tricolspringbootrestapi.dto.response.CursorSliceResponse;
 import com.example.tricol.tricolspringbootrestapi.model.Supplier;
-
-import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 public interface SupplierServiceInterface {
 
@@ -11,11 +12,14 @@ public interface SupplierServiceInterface {
 
     SupplierDTO getSupplierById(Long id);
 
-    List<SupplierDTO> getSuppliers();
+    Page<SupplierDTO> getSuppliers(Pageable pageable);
+
+    // keyset variant: seeks on id instead of OFFSET and skips the COUNT unless withCount is set
+    CursorSliceResponse<SupplierDTO> scrollSuppliers(String cursor, int size, boolean withCount);
 
     SupplierDTO updateSupplier(Long id, SupplierDTO supplierDTO);
 
     void deleteSupplier(Long id);
 
-    List<SupplierDTO> searchSuppliers(String query);
+    Page<SupplierDTO> searchSuppliers(String query, Pageable pageable);
 }
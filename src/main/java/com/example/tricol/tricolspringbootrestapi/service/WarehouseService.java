@@ -0,0 +1,23 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.dto.request.WarehouseRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.response.WarehouseResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.WarehouseStockResponse;
+import com.example.tricol.tricolspringbootrestapi.model.Warehouse;
+
+import java.util.List;
+
+// stock views are answered from the per-warehouse counters (warehouse_stock), never by summing lots
+public interface WarehouseService {
+    WarehouseResponse createWarehouse(WarehouseRequest request);
+
+    List<WarehouseResponse> getWarehouses();
+
+    List<WarehouseStockResponse> getWarehouseStock(Long warehouseId);
+
+    // every warehouse holding the product, or every product when productId is null
+    List<WarehouseStockResponse> getConsolidatedStock(Long productId);
+
+    // the named warehouse, or tricol.warehouse.default-id when none is named
+    Warehouse resolve(Long warehouseId);
+}
@@ -0,0 +1,343 @@
+package com.example.tricol.tricolspringbootrestapi.service.impl;
+
+import com.example.tricol.tricolspringbootrestapi.dto.request.BatchOperationRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.BatchRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.CreateExitSlipRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.CreateOrderRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.UpdateOrderStatus;
+import com.example.tricol.tricolspringbootrestapi.dto.response.BatchOperationResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.BatchResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ErrorResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ValidationError;
+import com.example.tricol.tricolspringbootrestapi.enums.BatchOperationType;
+import com.example.tricol.tricolspringbootrestapi.enums.BatchTransactionMode;
+import com.example.tricol.tricolspringbootrestapi.exception.BadRequestException;
+import com.example.tricol.tricolspringbootrestapi.exception.DuplicateResourceException;
+import com.example.tricol.tricolspringbootrestapi.exception.InvalidOperationException;
+import com.example.tricol.tricolspringbootrestapi.exception.ResourceNotFoundException;
+import com.example.tricol.tricolspringbootrestapi.metrics.InventoryMetrics;
+import com.example.tricol.tricolspringbootrestapi.service.BatchService;
+import com.example.tricol.tricolspringbootrestapi.service.ExitSlipService;
+import com.example.tricol.tricolspringbootrestapi.service.OrderService;
+import com.example.tricol.tricolspringbootrestapi.service.ProductService;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+    Runs a batch of order, exit slip and product operations against the services, in request order. In SINGLE
+    mode the whole batch is one transaction, so it takes one connection and commits or rolls back as a whole;
+    in PER_OPERATION mode each operation commits on its own and later operations still run after a failure.
+    A string of the form ${ref.path} in a target or body is replaced by the value at that path in the result of
+    an earlier operation, named by its ref or its index.
+ */
+@Service
+public class BatchServiceImpl implements BatchService {
+
+    private static final Pattern REFERENCE = Pattern.compile("\\$\\{([A-Za-z0-9_-]+)((?:\\.[A-Za-z0-9_-]+)*)}");
+
+    private final OrderService orderService;
+    private final ExitSlipService exitSlipService;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOperations;
+
+    public BatchServiceImpl(OrderService orderService,
+                            ExitSlipService exitSlipService,
+                            ProductService productService,
+                            ObjectMapper objectMapper,
+                            Validator validator,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${tricol.batch.max-operations:20}") int maxOperations) {
+        this.orderService = orderService;
+        this.exitSlipService = exitSlipService;
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxOperations = maxOperations;
+    }
+
+    @Override
+    @Timed(value = InventoryMetrics.OPERATION_TIMER, extraTags = {"operation", "executeBatch"}, histogram = true)
+    public BatchResponse execute(BatchRequest request) {
+        List<BatchOperationRequest> operations = request.getOperations();
+        if (operations.size() > maxOperations) {
+            throw new BadRequestException("A batch holds at most " + maxOperations + " operations, got " + operations.size());
+        }
+        Set<String> refs = new HashSet<>();
+        for (BatchOperationRequest operation : operations) {
+            if (operation.getRef() != null && !refs.add(operation.getRef())) {
+                throw new BadRequestException("Reference '" + operation.getRef() + "' is used by more than one operation");
+            }
+        }
+
+        BatchTransactionMode mode = request.getTransaction() != null ? request.getTransaction() : BatchTransactionMode.SINGLE;
+        Batch batch = new Batch(operations);
+        if (mode == BatchTransactionMode.SINGLE) {
+            runInOneTransaction(batch);
+        } else {
+            runEachInItsTransaction(batch);
+        }
+        boolean committed = batch.results.stream().allMatch(result -> result.getError() == null);
+        return new BatchResponse(mode, committed, batch.results);
+    }
+
+    private void runInOneTransaction(Batch batch) {
+        int failed = -1;
+        try {
+            failed = transactionTemplate.execute(status -> {
+                for (int index = 0; index < batch.operations.size(); index++) {
+                    if (!batch.run(index)) {
+                        status.setRollbackOnly();
+                        return index;
+                    }
+                }
+                return -1;
+            });
+        } catch (RuntimeException e) {
+            // the commit itself failed: nothing of the batch was written
+            for (int index = 0; index < batch.results.size(); index++) {
+                batch.results.set(index, failure(index, batch.operations.get(index), e));
+            }
+            return;
+        }
+        if (failed < 0) {
+            return;
+        }
+        for (int index = 0; index < batch.operations.size(); index++) {
+            if (index < failed) {
+                batch.results.set(index, dependencyFailure(index, batch.operations.get(index),
+                        "Rolled back because operation " + failed + " failed"));
+            } else if (index > failed) {
+                batch.results.add(dependencyFailure(index, batch.operations.get(index),
+                        "Not run because operation " + failed + " failed"));
+            }
+        }
+    }
+
+    private void runEachInItsTransaction(Batch batch) {
+        for (int index = 0; index < batch.operations.size(); index++) {
+            int current = index;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!batch.run(current)) {
+                        status.setRollbackOnly();
+                    }
+                });
+            } catch (RuntimeException e) {
+                batch.fail(current, failure(current, batch.operations.get(current), e));
+            }
+        }
+    }
+
+    private Object dispatch(BatchOperationRequest operation, Map<String, JsonNode> results, Set<String> failed) {
+        return switch (operation.getOp()) {
+            case CREATE_ORDER -> orderService.createOrder(body(operation, CreateOrderRequest.class, results, failed));
+            case RECEIVE_ORDER -> orderService.receiveOrder(target(operation, results, failed));
+            case UPDATE_ORDER -> orderService.updateOrder(target(operation, results, failed),
+                    body(operation, UpdateOrderStatus.class, results, failed));
+            case GET_ORDER -> orderService.getOrderById(target(operation, results, failed));
+            case CREATE_EXIT_SLIP -> exitSlipService.createExitSlip(body(operation, CreateExitSlipRequest.class, results, failed));
+            case VALIDATE_EXIT_SLIP -> exitSlipService.validateExitSlip(target(operation, results, failed));
+            case CANCEL_EXIT_SLIP -> exitSlipService.cancelExitSlip(target(operation, results, failed));
+            case GET_EXIT_SLIP -> exitSlipService.getExitSlip(target(operation, results, failed));
+            case GET_PRODUCT -> productService.getProductById(target(operation, results, failed));
+            case GET_PRODUCT_STOCK -> productService.getProductStock(target(operation, results, failed));
+        };
+    }
+
+    private Long target(BatchOperationRequest operation, Map<String, JsonNode> results, Set<String> failed) {
+        if (operation.getTarget() == null) {
+            throw new BadRequestException(operation.getOp() + " needs a target id");
+        }
+        JsonNode target = resolve(objectMapper.getNodeFactory().textNode(operation.getTarget()), results, failed);
+        if (target.canConvertToLong() && target.isIntegralNumber()) {
+            return target.asLong();
+        }
+        try {
+            return Long.valueOf(target.asText());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Target '" + operation.getTarget() + "' is not an id");
+        }
+    }
+
+    private <T> T body(BatchOperationRequest operation, Class<T> type, Map<String, JsonNode> results, Set<String> failed) {
+        if (operation.getBody() == null || operation.getBody().isNull()) {
+            throw new BadRequestException(operation.getOp() + " needs a body");
+        }
+        T body;
+        try {
+            body = objectMapper.treeToValue(resolve(operation.getBody(), results, failed), type);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid body for " + operation.getOp() + ": " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return body;
+    }
+
+    private JsonNode resolve(JsonNode node, Map<String, JsonNode> results, Set<String> failed) {
+        if (node.isTextual()) {
+            Matcher matcher = REFERENCE.matcher(node.asText());
+            return matcher.matches() ? lookup(matcher, results, failed) : node;
+        }
+        if (node.isObject()) {
+            ObjectNode resolved = objectMapper.createObjectNode();
+            node.properties().forEach(field -> resolved.set(field.getKey(), resolve(field.getValue(), results, failed)));
+            return resolved;
+        }
+        if (node.isArray()) {
+            ArrayNode resolved = objectMapper.createArrayNode();
+            node.forEach(element -> resolved.add(resolve(element, results, failed)));
+            return resolved;
+        }
+        return node;
+    }
+
+    private JsonNode lookup(Matcher reference, Map<String, JsonNode> results, Set<String> failed) {
+        String name = reference.group(1);
+        if (failed.contains(name)) {
+            throw new DependencyFailedException("Operation '" + name + "' referenced by " + reference.group() + " failed");
+        }
+        JsonNode result = results.get(name);
+        if (result == null) {
+            throw new BadRequestException("Unknown reference " + reference.group() + ": only earlier operations can be referenced");
+        }
+        JsonNode value = result.at(JsonPointer.compile(reference.group(2).replace('.', '/')));
+        if (value.isMissingNode() || value.isNull()) {
+            throw new BadRequestException("Reference " + reference.group() + " matches nothing in the result of '" + name + "'");
+        }
+        return value;
+    }
+
+    private static BatchOperationResponse failure(int index, BatchOperationRequest operation, RuntimeException e) {
+        HttpStatus status;
+        String message = e.getMessage();
+        List<ValidationError> validationErrors = null;
+        if (e instanceof ResourceNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (e instanceof BadRequestException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else if (e instanceof ConstraintViolationException violations) {
+            status = HttpStatus.BAD_REQUEST;
+            message = "Validation failed";
+            validationErrors = violations.getConstraintViolations().stream()
+                    .map(violation -> ValidationError.builder()
+                            .field(violation.getPropertyPath().toString())
+                            .message(violation.getMessage())
+                            .build())
+                    .toList();
+        } else if (e instanceof InvalidOperationException || e instanceof DuplicateResourceException) {
+            status = HttpStatus.CONFLICT;
+        } else if (e instanceof DependencyFailedException) {
+            status = HttpStatus.FAILED_DEPENDENCY;
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            message = "An unexpected error occurred: " + e.getMessage();
+        }
+        return new BatchOperationResponse(index, operation.getRef(), operation.getOp(), status.value(), null,
+                error(index, status, message, validationErrors));
+    }
+
+    private static BatchOperationResponse dependencyFailure(int index, BatchOperationRequest operation, String message) {
+        return new BatchOperationResponse(index, operation.getRef(), operation.getOp(), HttpStatus.FAILED_DEPENDENCY.value(),
+                null, error(index, HttpStatus.FAILED_DEPENDENCY, message, null));
+    }
+
+    private static ErrorResponse error(int index, HttpStatus status, String message, List<ValidationError> validationErrors) {
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path("operations[" + index + "]")
+                .validationErrors(validationErrors)
+                .build();
+    }
+
+    private static boolean creates(BatchOperationType type) {
+        return type == BatchOperationType.CREATE_ORDER || type == BatchOperationType.CREATE_EXIT_SLIP;
+    }
+
+    // results so far, and the results later operations may reference by ref or by index
+    private class Batch {
+
+        final List<BatchOperationRequest> operations;
+        final List<BatchOperationResponse> results = new ArrayList<>();
+        final Map<String, JsonNode> named = new HashMap<>();
+        final Set<String> failed = new HashSet<>();
+
+        Batch(List<BatchOperationRequest> operations) {
+            this.operations = operations;
+        }
+
+        // true when the operation succeeded
+        boolean run(int index) {
+            BatchOperationRequest operation = operations.get(index);
+            try {
+                Object body = dispatch(operation, named, failed);
+                JsonNode tree = objectMapper.valueToTree(body);
+                named.put(String.valueOf(index), tree);
+                if (operation.getRef() != null) {
+                    named.put(operation.getRef(), tree);
+                }
+                results.add(new BatchOperationResponse(index, operation.getRef(), operation.getOp(),
+                        creates(operation.getOp()) ? HttpStatus.CREATED.value() : HttpStatus.OK.value(), body, null));
+                return true;
+            } catch (RuntimeException e) {
+                fail(index, failure(index, operation, e));
+                return false;
+            }
+        }
+
+        // also replaces a success whose transaction then failed to commit
+        void fail(int index, BatchOperationResponse failure) {
+            BatchOperationRequest operation = operations.get(index);
+            named.remove(String.valueOf(index));
+            failed.add(String.valueOf(index));
+            if (operation.getRef() != null) {
+                named.remove(operation.getRef());
+                failed.add(operation.getRef());
+            }
+            if (results.size() > index) {
+                results.set(index, failure);
+            } else {
+                results.add(failure);
+            }
+        }
+    }
+
+    // an operation references the result of one that failed
+    private static class DependencyFailedException extends RuntimeException {
+        DependencyFailedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,43 +1,66 @@
 package com.example.tricol.tricolspringbootrestapi.service.impl;
 
+import com.example.tricol.tricolspringbootrestapi.coalescing.ReadCoalescer;
 import com.example.tricol.tricolspringbootrestapi.dto.request.CreateExitSlipRequest;
 import com.example.tricol.tricolspringbootrestapi.dto.request.ExitSlipItemRequest;
 import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipResponse;
 import com.example.tricol.tricolspringbootrestapi.enums.ExitSlipStatus;
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
 import com.example.tricol.tricolspringbootrestapi.exception.InsufficientStockException;
 import com.example.tricol.tricolspringbootrestapi.exception.ResourceNotFoundException;
 import com.example.tricol.tricolspringbootrestapi.mapper.ExitSlipMapper;
+import com.example.tricol.tricolspringbootrestapi.metrics.InventoryMetrics;
 import com.example.tricol.tricolspringbootrestapi.model.*;
+import com.example.tricol.tricolspringbootrestapi.outbox.Outbox;
 import com.example.tricol.tricolspringbootrestapi.repository.ExitSlipRepository;
 import com.example.tricol.tricolspringbootrestapi.repository.ProductRepository;
 import com.example.tricol.tricolspringbootrestapi.repository.StockMovementRepository;
 import com.example.tricol.tricolspringbootrestapi.repository.StockSlotRepository;
 import com.example.tricol.tricolspringbootrestapi.service.ExitSlipService;
+import com.example.tricol.tricolspringbootrestapi.service.WarehouseService;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseViews;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class ExitSlipServiceImpl implements ExitSlipService {
+
+    private static final String SLIP_PREFIX = "BS";
+    private static final DateTimeFormatter SLIP_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
     
     private final ExitSlipRepository exitSlipRepository;
     private final ProductRepository productRepository;
     private final StockSlotRepository stockSlotRepository;
     private final StockMovementRepository stockMovementRepository;
     private final ExitSlipMapper exitSlipMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryMetrics inventoryMetrics;
+    private final ReadCoalescer readCoalescer;
+    private final Outbox outbox;
+    private final WarehouseService warehouseService;
     
     @Transactional
+    @Timed(value = InventoryMetrics.OPERATION_TIMER, extraTags = {"operation", "createExitSlip"}, histogram = true)
     public ExitSlipResponse createExitSlip(CreateExitSlipRequest request) {
         ExitSlip exitSlip = new ExitSlip();
         exitSlip.setSlipNumber(generateSlipNumber());
         exitSlip.setExitDate(request.getExitDate());
         exitSlip.setDestinationWorkshop(request.getDestinationWorkshop());
+        exitSlip.setWarehouse(warehouseService.resolve(request.getWarehouseId()));
         exitSlip.setReason(request.getReason());
         exitSlip.setComment(request.getComment());
         exitSlip.setStatus(ExitSlipStatus.DRAFT);
@@ -62,6 +85,7 @@ public class ExitSlipServiceImpl implements ExitSlipService {
     }
 
     @Transactional
+    @Timed(value = InventoryMetrics.OPERATION_TIMER, extraTags = {"operation", "validateExitSlip"}, histogram = true)
     public ExitSlipResponse validateExitSlip(Long id) {
         ExitSlip exitSlip = exitSlipRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Exit slip not found: " + id));
@@ -70,15 +94,19 @@ public class ExitSlipServiceImpl implements ExitSlipService {
             throw new RuntimeException("Only DRAFT exit slips can be validated");
         }
         
-        // Consume stock in FIFO for each item
+        // Consume stock in FIFO for each item, from the lots of the slip's warehouse only
+        int lotsScanned = 0;
+        List<StockMovement> movements = new ArrayList<>();
         for (ExitSlipItem item : exitSlip.getItems()) {
             Product product = item.getProduct();
             double quantityNeeded = item.getRequestedQuantity().doubleValue();
             
             List<StockSlot> availableSlots = stockSlotRepository
-                .findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(product, 0.0);
+                .findByProductAndWarehouseAndAvailableQuantityGreaterThanOrderByEntryDateAsc(product, exitSlip.getWarehouse(), 0.0);
+            lotsScanned += availableSlots.size();
             
             if (availableSlots.isEmpty()) {
+                inventoryMetrics.insufficientStock(lotsScanned);
                 throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
             }
             
@@ -87,39 +115,33 @@ public class ExitSlipServiceImpl implements ExitSlipService {
                 .sum();
             
             if (totalAvailable < quantityNeeded) {
+                inventoryMetrics.insufficientStock(lotsScanned);
                 throw new InsufficientStockException(
                     String.format("Insufficient stock for product: %s. Required: %.2f, Available: %.2f",
                         product.getName(), quantityNeeded, totalAvailable)
                 );
             }
             
-            double remainingQuantity = quantityNeeded;
-            
             // Consume from oldest slots first (FIFO)
-            for (StockSlot slot : availableSlots) {
-                if (remainingQuantity <= 0) {
-                    break;
-                }
-                
-                double availableInSlot = slot.getAvailableQuantity() != null ? slot.getAvailableQuantity() : 0.0;
-                double toConsume = Math.min(remainingQuantity, availableInSlot);
+            for (LotAllocation allocation : allocateFifo(availableSlots, quantityNeeded)) {
+                StockSlot slot = allocation.slot();
                 
                 // Create stock movement OUT
-                saveStockMovementOut(slot, product, toConsume);
+                movements.add(saveStockMovementOut(slot, product, allocation.quantity(), item));
                 
                 // Update slot available quantity
-                slot.setAvailableQuantity(availableInSlot - toConsume);
+                slot.setAvailableQuantity(slot.getAvailableQuantity() - allocation.quantity());
                 stockSlotRepository.save(slot);
-                
-                remainingQuantity -= toConsume;
             }
             
             item.setActualQuantity(item.getRequestedQuantity());
             
             // Update product current stock
-            double newStock = product.getCurrentStock() - quantityNeeded;
+            double previousStock = product.getCurrentStock();
+            double newStock = previousStock - quantityNeeded;
             product.setCurrentStock(newStock);
             productRepository.save(product);
+            outbox.productStockChanged(product, previousStock, "exit-slip-validated", exitSlip.getId());
         }
         
         exitSlip.setStatus(ExitSlipStatus.VALIDATED);
@@ -127,17 +149,23 @@ public class ExitSlipServiceImpl implements ExitSlipService {
         exitSlip.setValidatedBy("SYSTEM");
         
         ExitSlip validated = exitSlipRepository.save(exitSlip);
+        outbox.exitSlipValidated(validated, movements);
+        inventoryMetrics.exitSlipValidated(lotsScanned);
         return exitSlipMapper.toResponse(validated);
     }
     
-    private void saveStockMovementOut(StockSlot stockSlot, Product product, double quantity) {
+    private StockMovement saveStockMovementOut(StockSlot stockSlot, Product product, double quantity, ExitSlipItem item) {
         StockMovement stockMovement = new StockMovement();
         stockMovement.setType(StockMovement.Type.out);
         stockMovement.setQuantity(-quantity);
         stockMovement.setProduct(product);
         stockMovement.setStockSlot(stockSlot);
+        stockMovement.setWarehouse(stockSlot.getWarehouse());
+        stockMovement.setExitSlipItem(item);
         
         stockMovementRepository.save(stockMovement);
+        eventPublisher.publishEvent(new StockMovementEvent(stockMovement, item.getExitSlip()));
+        return stockMovement;
     }
     
     @Transactional
@@ -158,41 +186,73 @@ public class ExitSlipServiceImpl implements ExitSlipService {
         exitSlip.setCancelledBy("SYSTEM"); 
         
         ExitSlip cancelled = exitSlipRepository.save(exitSlip);
+        outbox.exitSlipCancelled(cancelled);
         return exitSlipMapper.toResponse(cancelled);
     }
     
     public ExitSlipResponse getExitSlip(Long id) {
-        ExitSlip exitSlip = exitSlipRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Exit slip not found: " + id));
-        return exitSlipMapper.toResponse(exitSlip);
+        return readCoalescer.read("exit-slip", id, () -> {
+            ExitSlip exitSlip = exitSlipRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Exit slip not found: " + id));
+            return exitSlipMapper.toResponse(exitSlip);
+        });
     }
     
+    @Transactional(readOnly = true)
     public List<ExitSlipResponse> getAllExitSlips() {
         return exitSlipMapper.toResponseList(exitSlipRepository.findAll());
     }
 
+    @Transactional(readOnly = true)
     public List<ExitSlipResponse> getExitSlipsByStatus(ExitSlipStatus status) {
         return exitSlipMapper.toResponseList(exitSlipRepository.findByStatus(status));
     }
     
+    @Transactional(readOnly = true)
     public List<ExitSlipResponse> getExitSlipsByWorkshop(String workshop) {
         return exitSlipMapper.toResponseList(exitSlipRepository.findByDestinationWorkshop(workshop));
     }
 
+    @Transactional(readOnly = true)
+    public ExitSlipResponse getExitSlip(Long id, FieldSelection fields) {
+        return exitSlipRepository.findSparse(SparseViews.EXIT_SLIPS, fields, (root, query, cb) -> cb.equal(root.get("id"), id), Sort.unsorted())
+                .stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Exit slip not found: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ExitSlipResponse> getExitSlips(ExitSlipStatus status, String workshop, FieldSelection fields) {
+        Specification<ExitSlip> spec = (root, query, cb) -> cb.and(
+                status != null ? cb.equal(root.get("status"), status) : cb.conjunction(),
+                workshop != null ? cb.equal(root.get("destinationWorkshop"), workshop) : cb.conjunction());
+        return exitSlipRepository.findSparse(SparseViews.EXIT_SLIPS, fields, spec, Sort.by("id"));
+    }
+
     private String generateSlipNumber() {
-        String prefix = "BS";
-        String date = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = exitSlipRepository.count() + 1;
-        return String.format("%s-%s-%04d", prefix, date, count);
+        return formatSlipNumber(LocalDate.now(), exitSlipRepository.count() + 1);
     }
 
-    public double calculateStockValue(Long productId) {
-        Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
+    static String formatSlipNumber(LocalDate date, long sequence) {
+        return String.format("%s-%s-%04d", SLIP_PREFIX, date.format(SLIP_DATE), sequence);
+    }
 
-        List<StockSlot> stockSlots = stockSlotRepository
-            .findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(product, 0.0);
+    // walks the lots oldest first and takes from each until the quantity is covered; lots are not modified
+    static List<LotAllocation> allocateFifo(List<StockSlot> slots, double quantity) {
+        List<LotAllocation> allocations = new ArrayList<>();
+        double remainingQuantity = quantity;
+        for (StockSlot slot : slots) {
+            if (remainingQuantity <= 0) {
+                break;
+            }
+            double availableInSlot = slot.getAvailableQuantity() != null ? slot.getAvailableQuantity() : 0.0;
+            double toConsume = Math.min(remainingQuantity, availableInSlot);
+            allocations.add(new LotAllocation(slot, toConsume));
+            remainingQuantity -= toConsume;
+        }
+        return allocations;
+    }
 
+    static double valueOf(List<StockSlot> stockSlots) {
         return stockSlots.stream()
             .mapToDouble(slot -> {
                 double availableQty = slot.getAvailableQuantity() != null ? slot.getAvailableQuantity() : 0.0;
@@ -201,4 +261,19 @@ public class ExitSlipServiceImpl implements ExitSlipService {
             })
             .sum();
     }
+
+    record LotAllocation(StockSlot slot, double quantity) {
+    }
+
+    @Transactional(readOnly = true)
+    @Timed(value = InventoryMetrics.OPERATION_TIMER, extraTags = {"operation", "calculateStockValue"}, histogram = true)
+    public double calculateStockValue(Long productId) {
+        Product product = productRepository.findById(productId)
+            .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
+
+        List<StockSlot> stockSlots = stockSlotRepository
+            .findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(product, 0.0);
+
+        return valueOf(stockSlots);
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.tricol.tricolspringbootrestapi.service.impl;
+
+import com.example.tricol.tricolspringbootrestapi.archive.ArchiveQuery;
+import com.example.tricol.tricolspringbootrestapi.archive.StockMovementArchive;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipLotResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.LotConsumptionResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.LotTraceResponse;
+import com.example.tricol.tricolspringbootrestapi.exception.ResourceNotFoundException;
+import com.example.tricol.tricolspringbootrestapi.model.Order;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.model.StockSlot;
+import com.example.tricol.tricolspringbootrestapi.repository.ExitSlipRepository;
+import com.example.tricol.tricolspringbootrestapi.repository.StockMovementRepository;
+import com.example.tricol.tricolspringbootrestapi.repository.StockSlotRepository;
+import com.example.tricol.tricolspringbootrestapi.service.LotTraceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class LotTraceServiceImpl implements LotTraceService {
+
+    private final StockSlotRepository stockSlotRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ExitSlipRepository exitSlipRepository;
+    private final StockMovementArchive archive;
+
+    @Override
+    @Transactional(readOnly = true)
+    public LotTraceResponse traceLot(String lotNumber) {
+        StockSlot slot = stockSlotRepository.findByLotNumber(lotNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Lot not found: " + lotNumber));
+
+        /*
+            Archived movements no longer carry their exit slip line, so they cannot be listed. The trace is marked
+            as starting at the archive watermark instead, with the number of consumptions it leaves out.
+         */
+        LocalDateTime watermark = archive.watermark();
+        long archivedConsumptions = watermark == null ? 0 : archive.count(ArchiveQuery.builder()
+                .lotNumber(slot.getLotNumber())
+                .type(StockMovement.Type.out)
+                .build());
+
+        List<LotConsumptionResponse> consumptions = stockMovementRepository.findLotConsumptions(slot.getId()).stream()
+                .filter(consumption -> watermark == null || !consumption.getDate().isBefore(watermark))
+                .toList();
+        List<String> workshops = consumptions.stream()
+                .map(LotConsumptionResponse::getDestinationWorkshop)
+                .distinct()
+                .toList();
+
+        Order order = slot.getOrder();
+        return new LotTraceResponse(
+                slot.getLotNumber(),
+                slot.getId(),
+                slot.getProduct().getId(),
+                slot.getProduct().getName(),
+                order != null ? order.getId() : null,
+                order != null ? order.getSupplier().getId() : null,
+                order != null ? order.getSupplier().getSociety() : null,
+                slot.getEntryDate(),
+                slot.getQuantity(),
+                slot.getAvailableQuantity(),
+                consumptions,
+                workshops,
+                archivedConsumptions > 0 ? watermark : null,
+                archivedConsumptions);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ExitSlipLotResponse> getExitSlipLots(Long exitSlipId) {
+        if (!exitSlipRepository.existsById(exitSlipId)) {
+            throw new ResourceNotFoundException("Exit slip not found: " + exitSlipId);
+        }
+        return stockMovementRepository.findExitSlipLots(exitSlipId);
+    }
+}
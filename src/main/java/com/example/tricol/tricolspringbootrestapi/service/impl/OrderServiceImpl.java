@@ -1,19 +1,29 @@
 package com.example.tricol.tricolspringbootrestapi.service.impl;
 
+import com.example.tricol.tricolspringbootrestapi.coalescing.ReadCoalescer;
 import com.example.tricol.tricolspringbootrestapi.dto.request.CreateOrderItemRequest;
 import com.example.tricol.tricolspringbootrestapi.dto.request.CreateOrderRequest;
 import com.example.tricol.tricolspringbootrestapi.dto.request.UpdateOrderStatus;
 import com.example.tricol.tricolspringbootrestapi.dto.response.OrderResponse;
 import com.example.tricol.tricolspringbootrestapi.dto.response.ReceiveOrderResponse;
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
 import com.example.tricol.tricolspringbootrestapi.exception.BadRequestException;
 import com.example.tricol.tricolspringbootrestapi.exception.InvalidOperationException;
 import com.example.tricol.tricolspringbootrestapi.exception.ResourceNotFoundException;
 import com.example.tricol.tricolspringbootrestapi.mapper.OrderItemMapper;
 import com.example.tricol.tricolspringbootrestapi.mapper.OrderMapper;
+import com.example.tricol.tricolspringbootrestapi.metrics.InventoryMetrics;
 import com.example.tricol.tricolspringbootrestapi.model.*;
+import com.example.tricol.tricolspringbootrestapi.outbox.Outbox;
 import com.example.tricol.tricolspringbootrestapi.repository.*;
 import com.example.tricol.tricolspringbootrestapi.service.OrderService;
+import com.example.tricol.tricolspringbootrestapi.service.WarehouseService;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseViews;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,19 +42,26 @@ public class OrderServiceImpl implements OrderService {
     private final StockMovementRepository stockMovementRepository;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryMetrics inventoryMetrics;
+    private final ReadCoalescer readCoalescer;
+    private final Outbox outbox;
+    private final WarehouseService warehouseService;
 
     @Override
+    @Timed(value = InventoryMetrics.OPERATION_TIMER, extraTags = {"operation", "createOrder"}, histogram = true)
     public OrderResponse createOrder(CreateOrderRequest request) {
         // Validate order has items
         if (request.getItems() == null || request.getItems().isEmpty()) {
             throw new BadRequestException("Order must contain at least one item");
         }
 
-        Supplier supplier = supplierRepository.findById(request.getSupplierId()).
+        Supplier supplier = supplierRepository.findByIdAndArchivedAtIsNull(request.getSupplierId()).
                 orElseThrow(() -> new ResourceNotFoundException("Supplier with id " + request.getSupplierId() + " not found"));
 
         Order order = new Order();
         order.setSupplier(supplier);
+        order.setWarehouse(warehouseService.resolve(request.getWarehouseId()));
         order.setStatus(Order.OrderStatus.pending);
 
         List<OrderItem> items = new ArrayList<>();
@@ -74,15 +91,28 @@ public class OrderServiceImpl implements OrderService {
     }
 
     public OrderResponse getOrderById(Long id){
-        return orderRepository.findById(id)
+        return readCoalescer.read("order", id, () -> orderRepository.findById(id)
                 .map(order -> orderMapper.toDto(order))
-                .orElseThrow(() -> new ResourceNotFoundException("Order with id " + id + " not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Order with id " + id + " not found")));
     }
 
+    @Transactional(readOnly = true)
     public List<OrderResponse> getAllOrders(){
         return orderMapper.toDTOList(orderRepository.findAll());
     }
 
+    @Transactional(readOnly = true)
+    public OrderResponse getOrderById(Long id, FieldSelection fields) {
+        return orderRepository.findSparse(SparseViews.ORDERS, fields, (root, query, cb) -> cb.equal(root.get("id"), id), Sort.unsorted())
+                .stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Order with id " + id + " not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getAllOrders(FieldSelection fields) {
+        return orderRepository.findSparse(SparseViews.ORDERS, fields, null, Sort.by("id"));
+    }
+
     //update order
     public OrderResponse updateOrder(Long id, UpdateOrderStatus request) {
         Order existingOrder = orderRepository.findById(id)
@@ -92,20 +122,24 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDto(orderRepository.save(existingOrder));
     }
     // filter order
+    @Transactional(readOnly = true)
     public List<OrderResponse> filterOrdersByStatus(Order.OrderStatus status) {
         return orderMapper.toDTOList(orderRepository.findByStatus(status));
     }
+    @Transactional(readOnly = true)
     public List<OrderResponse> filterOrdersBySupplier(Long supplierId) {
         Supplier supplier = supplierRepository.findById(supplierId)
                 .orElseThrow(() -> new RuntimeException("Supplier not found with id: " + supplierId));
         return orderMapper.toDTOList(orderRepository.findBySupplier(supplier));
     }
+    @Transactional(readOnly = true)
     public List<OrderResponse> filterOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         return orderMapper.toDTOList(orderRepository.findByOrderDateBetween(startDate, endDate));
     }
 
     // receive an order
     @Transactional
+    @Timed(value = InventoryMetrics.OPERATION_TIMER, extraTags = {"operation", "receiveOrder"}, histogram = true)
     public ReceiveOrderResponse receiveOrder(Long orderId){
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order with id " + orderId + " not found"));
@@ -122,6 +156,7 @@ public class OrderServiceImpl implements OrderService {
             StockSlot stockSlot = new StockSlot();
             stockSlot.setLotNumber(generateLotNumber());
             stockSlot.setOrder(order);
+            stockSlot.setWarehouse(order.getWarehouse());
             stockSlot.setProduct(orderItem.getProduct());
             stockSlot.setQuantity(orderItem.getQuantity());
             stockSlot.setAvailableQuantity(orderItem.getQuantity());
@@ -136,6 +171,7 @@ public class OrderServiceImpl implements OrderService {
             product.setCurrentStock(newStock);
 
             productRepository.save(product);
+            outbox.productStockChanged(product, currentStock, "order-received", order.getId());
         }
 
         // save all stock slots
@@ -149,14 +185,19 @@ public class OrderServiceImpl implements OrderService {
 
         // save updated order
         Order savedOrder = orderRepository.save(order);
+        outbox.orderReceived(savedOrder, stockSlots);
+        // per item: a lot, a movement and a product; plus the order itself
+        inventoryMetrics.orderReceived(stockSlots.size() * 3 + 1);
 
         return orderMapper.toReceiveOrderResponse(savedOrder);
     }
 
     private String generateLotNumber() {
-        long count = stockSlotRepository.count() + 1;
-        int year = java.time.Year.now().getValue();
-        return String.format("LOT-%d-%03d", year, count);
+        return formatLotNumber(java.time.Year.now().getValue(), stockSlotRepository.count() + 1);
+    }
+
+    static String formatLotNumber(int year, long sequence) {
+        return String.format("LOT-%d-%03d", year, sequence);
     }
 
     private void saveStockMovementIn(StockSlot stockSlot){
@@ -165,9 +206,11 @@ public class OrderServiceImpl implements OrderService {
         stockMovement.setQuantity(stockSlot.getQuantity());
         stockMovement.setProduct(stockSlot.getProduct());
         stockMovement.setStockSlot(stockSlot);
+        stockMovement.setWarehouse(stockSlot.getWarehouse());
         stockMovement.setOrder(stockSlot.getOrder());
 
         stockMovementRepository.save(stockMovement);
+        eventPublisher.publishEvent(new StockMovementEvent(stockMovement, null));
     }
 
 }
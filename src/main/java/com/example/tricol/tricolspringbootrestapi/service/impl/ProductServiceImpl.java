@@ -1,16 +1,23 @@
 package com.example.tricol.tricolspringbootrestapi.service.impl;
 
+import com.example.tricol.tricolspringbootrestapi.coalescing.ReadCoalescer;
 import com.example.tricol.tricolspringbootrestapi.dto.request.ProductDTO;
 import com.example.tricol.tricolspringbootrestapi.exception.DuplicateResourceException;
 import com.example.tricol.tricolspringbootrestapi.exception.ResourceNotFoundException;
 import com.example.tricol.tricolspringbootrestapi.mapper.ProductMapper;
 import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.outbox.Outbox;
 import com.example.tricol.tricolspringbootrestapi.repository.ProductRepository;
 import com.example.tricol.tricolspringbootrestapi.service.ProductService;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseViews;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -18,6 +25,10 @@ public class ProductServiceImpl implements ProductService {
     private ProductRepository productRepository;
     @Autowired
     private ProductMapper productMapper;
+    @Autowired
+    private ReadCoalescer readCoalescer;
+    @Autowired
+    private Outbox outbox;
 
     @Override
     public Product createProduct(ProductDTO ProductDTO){
@@ -30,23 +41,44 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public ProductDTO getProductById(Long id){
-        return productRepository.findById(id)
+        return readCoalescer.read("product", id, () -> productRepository.findById(id)
                 .map(product -> productMapper.toDTO(product))
-                .orElseThrow(() -> new ResourceNotFoundException("Product with id " + id + " not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Product with id " + id + " not found")));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDTO> getProducts() {
         return productMapper.toDTOList(productRepository.findAll());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ProductDTO getProductById(Long id, FieldSelection fields) {
+        return productRepository.findSparse(SparseViews.PRODUCTS, fields, (root, query, cb) -> cb.equal(root.get("id"), id), Sort.unsorted())
+                .stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Product with id " + id + " not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProducts(FieldSelection fields) {
+        return productRepository.findSparse(SparseViews.PRODUCTS, fields, null, Sort.by("id"));
+    }
+
+    @Override
+    @Transactional
     public ProductDTO updateProduct(Long id, ProductDTO ProductDTO){
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product with id " + id + " not found"));
 
+        Double previousStock = existingProduct.getCurrentStock();
         productMapper.updateProductFromDTO(ProductDTO, existingProduct);
-        return productMapper.toDTO(productRepository.save(existingProduct));
+        Product saved = productRepository.save(existingProduct);
+        if (!Objects.equals(previousStock, saved.getCurrentStock())) {
+            outbox.productStockChanged(saved, previousStock != null ? previousStock : 0.0, "adjustment", null);
+        }
+        return productMapper.toDTO(saved);
     }
 
     @Override
@@ -59,12 +91,13 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Double getProductStock(Long id){
-        return productRepository.findById(id)
+        return readCoalescer.read("product-stock", id, () -> productRepository.findById(id)
                 .map(Product::getCurrentStock)
-                .orElse(0.0);
+                .orElse(0.0));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDTO> getLowStockProducts(){
         List<Product> products = productRepository.findAll();
         return products.stream().filter(product -> {
@@ -0,0 +1,200 @@
+package com.example.tricol.tricolspringbootrestapi.service.impl;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.JournalReplayResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ProjectedStockResponse;
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
+import com.example.tricol.tricolspringbootrestapi.journal.JournalRecord;
+import com.example.tricol.tricolspringbootrestapi.journal.StockEventJournal;
+import com.example.tricol.tricolspringbootrestapi.journal.StockProjection;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.model.StockSlot;
+import com.example.tricol.tricolspringbootrestapi.repository.StockSlotRepository;
+import com.example.tricol.tricolspringbootrestapi.service.StockJournalService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/*
+    Committing threads only hand their records to a bounded queue; one writer thread appends them to the journal
+    and folds them into the projection, so stock writes never wait on each other or on a journal force. A full
+    queue makes the committing thread wait for room rather than drop a committed movement. The projection trails
+    the commits by whatever is still queued.
+ */
+@Slf4j
+@Service
+public class StockJournalServiceImpl implements StockJournalService, SmartLifecycle {
+
+    // records appended per turn of the writer, between two takes of the lock
+    private static final int WRITE_BATCH = 256;
+
+    private final StockEventJournal journal;
+    private final StockSlotRepository stockSlotRepository;
+    private final BlockingQueue<JournalRecord> pending;
+    private final Thread writer;
+
+    private volatile StockProjection projection = new StockProjection();
+    private volatile boolean running;
+
+    public StockJournalServiceImpl(StockEventJournal journal,
+                                   StockSlotRepository stockSlotRepository,
+                                   @Value("${tricol.journal.queue-capacity:10000}") int queueCapacity) {
+        this.journal = journal;
+        this.stockSlotRepository = stockSlotRepository;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeQueued, "stock-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void startWriter() {
+        writer.start();
+    }
+
+    // stops the writer and appends whatever it had not taken yet
+    @PreDestroy
+    public void stopWriter() throws InterruptedException {
+        writer.interrupt();
+        writer.join();
+        List<JournalRecord> rest = new ArrayList<>();
+        pending.drainTo(rest);
+        append(rest);
+        journal.force();
+    }
+
+    // only committed movements reach the journal, a rolled back reception or exit leaves no trace
+    @Override
+    @TransactionalEventListener
+    public void record(StockMovementEvent event) {
+        StockMovement movement = event.getMovement();
+        StockSlot slot = movement.getStockSlot();
+
+        JournalRecord record = new JournalRecord();
+        record.setKind(movement.getType() == StockMovement.Type.in ? JournalRecord.LOT_CREATED : JournalRecord.LOT_CONSUMED);
+        record.setDate(movement.getDate() != null ? movement.getDate() : LocalDateTime.now());
+        record.setMovementId(movement.getId() != null ? movement.getId() : 0L);
+        record.setProductId(movement.getProduct().getId());
+        record.setSlotId(slot.getId());
+        record.setQuantity(movement.getQuantity() != null ? movement.getQuantity() : 0.0);
+        record.setUnitPrice(slot.getUnitPrice() != null ? slot.getUnitPrice() : 0.0);
+
+        try {
+            pending.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            append(List.of(record));
+        }
+    }
+
+    private void writeQueued() {
+        List<JournalRecord> batch = new ArrayList<>(WRITE_BATCH);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batch, WRITE_BATCH - 1);
+            try {
+                append(batch);
+            } catch (RuntimeException e) {
+                log.error("Cannot append {} stock events to the journal", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    // the lock is only shared with a replay, which must not miss or double-apply a record
+    private synchronized void append(List<JournalRecord> records) {
+        for (JournalRecord record : records) {
+            journal.append(record);
+            projection.apply(record);
+        }
+    }
+
+    /*
+        A new journal on an existing database starts from a snapshot of the current lots. This runs in the first
+        lifecycle phase, before the web server and the schedulers start: a movement committed before the snapshot
+        would be counted in it and then applied again from the queue.
+     */
+    @Override
+    public void start() {
+        if (journal.isEmpty()) {
+            snapshotLots();
+        }
+        JournalReplayResponse replay = rebuildProjection();
+        log.info("Stock projection rebuilt from {} journal events in {} ms", replay.getEvents(), replay.getElapsedMillis());
+        running = true;
+    }
+
+    // the writer is stopped with the bean, after every request has been served
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public synchronized JournalReplayResponse rebuildProjection() {
+        StockProjection rebuilt = new StockProjection();
+        long start = System.nanoTime();
+        long events = journal.replay(0, rebuilt::apply);
+        long elapsedNanos = System.nanoTime() - start;
+        projection = rebuilt;
+
+        long eventsPerSecond = elapsedNanos > 0 ? events * 1_000_000_000L / elapsedNanos : events;
+        return new JournalReplayResponse(events, rebuilt.getLastSequence(), rebuilt.productCount(),
+                rebuilt.lotCount(), elapsedNanos / 1_000_000, eventsPerSecond);
+    }
+
+    @Override
+    public ProjectedStockResponse getProjectedStock(Long productId) {
+        StockProjection current = projection;
+        return new ProjectedStockResponse(
+                productId,
+                current.stockOf(productId),
+                current.getLastSequence(),
+                current.openLotsOf(productId).stream()
+                        .map(lot -> new ProjectedStockResponse.ProjectedLot(lot.getSlotId(), lot.getQuantity(),
+                                lot.getAvailableQuantity(), lot.getUnitPrice()))
+                        .toList());
+    }
+
+    private synchronized void snapshotLots() {
+        int lots = 0;
+        for (StockSlot slot : stockSlotRepository.findAll()) {
+            if (slot.getAvailableQuantity() == null || slot.getAvailableQuantity() <= 0) {
+                continue;
+            }
+            JournalRecord record = new JournalRecord();
+            record.setKind(JournalRecord.LOT_SNAPSHOT);
+            record.setDate(slot.getEntryDate() != null ? slot.getEntryDate() : LocalDateTime.now());
+            record.setProductId(slot.getProduct().getId());
+            record.setSlotId(slot.getId());
+            record.setQuantity(slot.getAvailableQuantity());
+            record.setUnitPrice(slot.getUnitPrice() != null ? slot.getUnitPrice() : 0.0);
+            journal.append(record);
+            lots++;
+        }
+        journal.force();
+        log.info("Stock event journal started from a snapshot of {} open lots", lots);
+    }
+}
@@ -1,37 +1,142 @@
 package com.example.tricol.tricolspringbootrestapi.service.impl;
 
+import com.example.tricol.tricolspringbootrestapi.archive.ArchiveQuery;
+import com.example.tricol.tricolspringbootrestapi.archive.StockMovementArchive;
+import com.example.tricol.tricolspringbootrestapi.dto.response.CursorSliceResponse;
 import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
-import com.example.tricol.tricolspringbootrestapi.mapper.StockMovementMapper;
+import com.example.tricol.tricolspringbootrestapi.exception.BadRequestException;
+import com.example.tricol.tricolspringbootrestapi.metrics.InventoryMetrics;
 import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
 import com.example.tricol.tricolspringbootrestapi.repository.StockMovementRepository;
 import com.example.tricol.tricolspringbootrestapi.service.StockMovementService;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class StockMovementServiceImpl implements StockMovementService {
-    
+
+    // newest first; id breaks ties between movements written in the same second
+    private static final Sort MOVEMENT_ORDER = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+    private static final int MAX_SLICE_SIZE = 500;
+
     private final StockMovementRepository stockMovementRepository;
-    private final StockMovementMapper stockMovementMapper;
-    
+    private final StockMovementArchive archive;
+
     @Override
+    @Transactional(readOnly = true)
+    @Timed(value = InventoryMetrics.OPERATION_TIMER, extraTags = {"operation", "searchMovements"}, histogram = true)
     public Page<StockMovementResponse> searchMovements(
-            LocalDateTime startDate, 
-            LocalDateTime endDate, 
-            Long productId, 
-            String reference, 
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Long productId,
+            String reference,
             StockMovement.Type type,
             String lotNumber,
-            Pageable pageable) {
-        
+            Pageable pageable,
+            FieldSelection fields) {
+
+        Specification<StockMovement> spec = hotRows(buildSpecification(startDate, endDate, productId, reference, type, lotNumber));
+
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), MOVEMENT_ORDER);
+        }
+
+        Page<StockMovementResponse> hot = stockMovementRepository.findResponses(spec, pageable, fields);
+
+        if (!archive.reaches(startDate)) {
+            return hot;
+        }
+
+        // archived rows are all older than the hot ones, so in (date desc, id desc) they follow the hot result
+        ArchiveQuery archiveQuery = archiveQuery(startDate, endDate, productId, reference, type, lotNumber).build();
+        long skip = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+        int limit = pageable.getPageSize() - hot.getNumberOfElements();
+        List<StockMovementResponse> content = new ArrayList<>(hot.getContent());
+        if (limit > 0) {
+            content.addAll(archive.search(archiveQuery, skip, limit, false).getRows());
+        }
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archive.count(archiveQuery));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = InventoryMetrics.OPERATION_TIMER, extraTags = {"operation", "scrollMovements"}, histogram = true)
+    public CursorSliceResponse<StockMovementResponse> scrollMovements(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Long productId,
+            String reference,
+            StockMovement.Type type,
+            String lotNumber,
+            String cursor,
+            int size,
+            boolean withCount,
+            FieldSelection fields) {
+
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new BadRequestException("Slice size must be between 1 and " + MAX_SLICE_SIZE);
+        }
+
+        Specification<StockMovement> filters = hotRows(buildSpecification(startDate, endDate, productId, reference, type, lotNumber));
+        MovementCursor position = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+
+        // fetch one extra row to know whether another slice exists without counting
+        List<StockMovementResponse> rows = new ArrayList<>();
+        if (position == null || !archive.isArchived(position.date())) {
+            Specification<StockMovement> spec = position != null ? addSpec(filters, seekAfter(position)) : filters;
+            rows.addAll(stockMovementRepository.findResponses(spec, MOVEMENT_ORDER, size + 1, fields));
+        }
+
+        boolean reachesArchive = archive.reaches(startDate);
+        if (rows.size() <= size && reachesArchive) {
+            ArchiveQuery.ArchiveQueryBuilder archiveQuery = archiveQuery(startDate, endDate, productId, reference, type, lotNumber);
+            if (position != null) {
+                archiveQuery.beforeDate(position.date()).beforeId(position.id());
+            }
+            rows.addAll(archive.search(archiveQuery.build(), 0, size + 1 - rows.size(), false).getRows());
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<StockMovementResponse> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1)) : null;
+
+        Long total = null;
+        if (withCount) {
+            total = filters != null ? stockMovementRepository.count(filters) : stockMovementRepository.count();
+            if (reachesArchive) {
+                total += archive.count(archiveQuery(startDate, endDate, productId, reference, type, lotNumber).build());
+            }
+        }
+
+        return new CursorSliceResponse<>(content, content.size(), hasNext, nextCursor, total);
+    }
+
+    private Specification<StockMovement> buildSpecification(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Long productId,
+            String reference,
+            StockMovement.Type type,
+            String lotNumber) {
+
         Specification<StockMovement> spec = null;
-        
+
         if (startDate != null && endDate != null) {
             spec = (root, query, cb) -> cb.between(root.get("date"), startDate, endDate);
         } else if (startDate != null) {
@@ -39,28 +144,85 @@ public class StockMovementServiceImpl implements StockMovementService {
         } else if (endDate != null) {
             spec = addSpec(spec, (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), endDate));
         }
-        
+
         if (productId != null) {
             spec = addSpec(spec, (root, query, cb) -> cb.equal(root.get("product").get("id"), productId));
         }
-        
+
         if (reference != null) {
             spec = addSpec(spec, (root, query, cb) -> cb.equal(root.get("product").get("reference"), reference));
         }
-        
+
         if (type != null) {
             spec = addSpec(spec, (root, query, cb) -> cb.equal(root.get("type"), type));
         }
-        
+
         if (lotNumber != null) {
             spec = addSpec(spec, (root, query, cb) -> cb.equal(root.get("stockSlot").get("lotNumber"), lotNumber));
         }
-        
-        Page<StockMovement> movements = spec != null ? stockMovementRepository.findAll(spec, pageable) : stockMovementRepository.findAll(pageable);
-        return movements.map(stockMovementMapper::toResponse);
+
+        return spec;
+    }
+
+    /*
+        Rows dated before the archive watermark are answered by the archive alone. Normally there are none left in
+        the table, but a day whose delete failed after its segment was written keeps its rows until the next run
+        archives it again, and they must not come back twice.
+     */
+    private Specification<StockMovement> hotRows(Specification<StockMovement> spec) {
+        LocalDateTime watermark = archive.watermark();
+        if (watermark == null) {
+            return spec;
+        }
+        return addSpec(spec, (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), watermark));
     }
-    
+
+    // rows strictly after the cursor in MOVEMENT_ORDER: date < d OR (date = d AND id < id);
+    // the redundant date <= d gives the optimizer a plain range to seek on the (…, date, id) indexes
+    private Specification<StockMovement> seekAfter(MovementCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("date"), cursor.date()),
+                cb.or(
+                        cb.lessThan(root.get("date"), cursor.date()),
+                        cb.and(cb.equal(root.get("date"), cursor.date()), cb.lessThan(root.get("id"), cursor.id()))));
+    }
+
     private Specification<StockMovement> addSpec(Specification<StockMovement> spec, Specification<StockMovement> newSpec) {
         return spec == null ? newSpec : spec.and(newSpec);
     }
+
+    private ArchiveQuery.ArchiveQueryBuilder archiveQuery(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Long productId,
+            String reference,
+            StockMovement.Type type,
+            String lotNumber) {
+        return ArchiveQuery.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .productId(productId)
+                .reference(reference)
+                .type(type)
+                .lotNumber(lotNumber);
+    }
+
+    private String encodeCursor(StockMovementResponse last) {
+        String raw = last.getDate() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MovementCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new MovementCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private record MovementCursor(LocalDateTime date, Long id) {
+    }
 }
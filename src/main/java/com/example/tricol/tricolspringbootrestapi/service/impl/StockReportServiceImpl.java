@@ -0,0 +1,96 @@
+package com.example.tricol.tricolspringbootrestapi.service.impl;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.RollupTotalResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.ReportGranularity;
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
+import com.example.tricol.tricolspringbootrestapi.exception.BadRequestException;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.model.WorkshopDailyRollup;
+import com.example.tricol.tricolspringbootrestapi.repository.StockDailyRollupRepository;
+import com.example.tricol.tricolspringbootrestapi.repository.WorkshopDailyRollupRepository;
+import com.example.tricol.tricolspringbootrestapi.service.StockReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class StockReportServiceImpl implements StockReportService {
+
+    private final StockDailyRollupRepository stockDailyRollupRepository;
+    private final WorkshopDailyRollupRepository workshopDailyRollupRepository;
+
+    // runs inside the transaction that saves the movement, so a rollback also undoes the rollup
+    @EventListener
+    public void onStockMovement(StockMovementEvent event) {
+        StockMovement movement = event.getMovement();
+        LocalDate day = (movement.getDate() != null ? movement.getDate() : LocalDateTime.now()).toLocalDate();
+        double quantity = movement.getQuantity() != null ? movement.getQuantity() : 0.0;
+
+        stockDailyRollupRepository.add(day, movement.getProduct().getId(), movement.getType().name(), quantity);
+        if (event.getExitSlip() != null) {
+            workshopDailyRollupRepository.add(day, event.getExitSlip().getDestinationWorkshop(), quantity);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RollupTotalResponse> getMovementTotals(LocalDate from, LocalDate to, ReportGranularity granularity,
+                                                       Long productId, StockMovement.Type type) {
+        validateRange(from, to);
+
+        Map<String, RollupTotalResponse> buckets = new LinkedHashMap<>();
+        for (StockDailyRollupRepository.DailyTotal total : stockDailyRollupRepository.sumByDay(from, to, productId, type)) {
+            addToBucket(buckets, periodStart(total.getDay(), granularity), total.getType().name(),
+                    total.getQuantity(), total.getMovementCount());
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RollupTotalResponse> getWorkshopTotals(LocalDate from, LocalDate to, ReportGranularity granularity,
+                                                       String workshop) {
+        validateRange(from, to);
+
+        Map<String, RollupTotalResponse> buckets = new LinkedHashMap<>();
+        for (WorkshopDailyRollup rollup : workshopDailyRollupRepository.findByDayRange(from, to, workshop)) {
+            addToBucket(buckets, periodStart(rollup.getId().getDay(), granularity), rollup.getId().getWorkshop(),
+                    rollup.getQuantity(), rollup.getMovementCount());
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Report start date must not be after its end date");
+        }
+    }
+
+    // rows arrive ordered by day, so buckets are created in period order
+    private void addToBucket(Map<String, RollupTotalResponse> buckets, LocalDate periodStart, String key,
+                             double quantity, long movementCount) {
+        RollupTotalResponse bucket = buckets.computeIfAbsent(periodStart + "|" + key,
+                k -> new RollupTotalResponse(periodStart, key, 0.0, 0L));
+        bucket.setQuantity(bucket.getQuantity() + quantity);
+        bucket.setMovementCount(bucket.getMovementCount() + movementCount);
+    }
+
+    private LocalDate periodStart(LocalDate day, ReportGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+}
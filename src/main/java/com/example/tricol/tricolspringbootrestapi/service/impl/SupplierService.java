@@ -1,65 +1,161 @@
 package com.example.tricol.tricolspringbootrestapi.service.impl;
 
 import com.example.tricol.tricolspringbootrestapi.dto.request.SupplierDTO;
+import com.example.tricol.tricolspringbootrestapi.dto.response.CursorSliceResponse;
+import com.example.tricol.tricolspringbootrestapi.exception.BadRequestException;
 import com.example.tricol.tricolspringbootrestapi.exception.DuplicateResourceException;
 import com.example.tricol.tricolspringbootrestapi.exception.ResourceNotFoundException;
 import com.example.tricol.tricolspringbootrestapi.mapper.SupplierMapper;
 import com.example.tricol.tricolspringbootrestapi.model.Supplier;
 import com.example.tricol.tricolspringbootrestapi.repository.SupplierRepository;
+import com.example.tricol.tricolspringbootrestapi.search.SupplierSearchIndex;
 import com.example.tricol.tricolspringbootrestapi.service.SupplierServiceInterface;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class SupplierService implements SupplierServiceInterface {
+    private static final Sort SUPPLIER_ORDER = Sort.by("id");
+    private static final int MAX_SLICE_SIZE = 500;
+
     @Autowired
     private SupplierRepository supplierRepository;
     @Autowired
     private SupplierMapper supplierMapper;
+    @Autowired
+    private SupplierSearchIndex supplierSearchIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        long start = System.currentTimeMillis();
+        supplierSearchIndex.rebuild(supplierRepository.findByArchivedAtIsNull());
+        log.info("Supplier search index built with {} suppliers in {} ms",
+                supplierSearchIndex.size(), System.currentTimeMillis() - start);
+    }
 
     public Supplier createSupplier(SupplierDTO supplierDTO) {
         // Check for duplicate email
         if (supplierRepository.findByEmail(supplierDTO.getEmail()).isPresent()) {
             throw new DuplicateResourceException("Supplier with email '" + supplierDTO.getEmail() + "' already exists");
         }
-        return supplierRepository.save(supplierMapper.toEntity(supplierDTO));
+        Supplier supplier = supplierRepository.save(supplierMapper.toEntity(supplierDTO));
+        afterCommit(() -> supplierSearchIndex.index(supplier));
+        return supplier;
     }
 
+    @Transactional(readOnly = true)
     public SupplierDTO getSupplierById(Long id) {
-        return supplierRepository.findById(id)
+        return supplierRepository.findByIdAndArchivedAtIsNull(id)
                 .map(supplier -> supplierMapper.toDTO(supplier))
                 .orElseThrow(() -> new ResourceNotFoundException("Supplier with id " + id + " not found"));
     }
 
-    public List<SupplierDTO> getSuppliers() {
-        return supplierMapper.toDTOList(supplierRepository.findAll());
+    @Transactional(readOnly = true)
+    public Page<SupplierDTO> getSuppliers(Pageable pageable) {
+        Pageable byId = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), SUPPLIER_ORDER);
+        return supplierRepository.findByArchivedAtIsNull(byId).map(supplierMapper::toDTO);
+    }
+
+    // keyset listing by id: no OFFSET, and no COUNT unless asked for
+    @Transactional(readOnly = true)
+    public CursorSliceResponse<SupplierDTO> scrollSuppliers(String cursor, int size, boolean withCount) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new BadRequestException("Slice size must be between 1 and " + MAX_SLICE_SIZE);
+        }
+        long afterId = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : 0L;
+
+        // fetch one extra row to know whether another slice exists
+        List<Supplier> rows = supplierRepository.findByArchivedAtIsNullAndIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1));
+        boolean hasNext = rows.size() > size;
+        List<Supplier> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1).getId()) : null;
+        Long total = withCount ? supplierRepository.countByArchivedAtIsNull() : null;
+
+        return new CursorSliceResponse<>(supplierMapper.toDTOList(content), content.size(), hasNext, nextCursor, total);
     }
 
     // update a supplier
     public SupplierDTO updateSupplier(Long id, SupplierDTO supplierDTO) {
-        Supplier existingSupplier = supplierRepository.findById(id)
+        Supplier existingSupplier = supplierRepository.findByIdAndArchivedAtIsNull(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Supplier with id " + id + " not found"));
 
         supplierMapper.updateSupplierFromDTO(supplierDTO, existingSupplier);
-        return supplierMapper.toDTO(supplierRepository.save(existingSupplier));
+        Supplier supplier = supplierRepository.save(existingSupplier);
+        afterCommit(() -> supplierSearchIndex.index(supplier));
+        return supplierMapper.toDTO(supplier);
     }
 
-    // delete a supplier
+    // delete a supplier: set-based, nothing is loaded; suppliers with orders are archived to keep the history
+    @Transactional
     public void deleteSupplier(Long id) {
-        Supplier existingSupplier = supplierRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Supplier with id " + id + " not found"));
-        supplierRepository.delete(existingSupplier);
+        if (supplierRepository.deleteIfNoOrders(id) == 0
+                && supplierRepository.archive(id, LocalDateTime.now()) == 0) {
+            throw new ResourceNotFoundException("Supplier with id " + id + " not found");
+        }
+        afterCommit(() -> supplierSearchIndex.remove(id));
     }
 
-    // search suppliers by society or contact agent
-    public List<SupplierDTO> searchSuppliers(String query) {
-        return supplierRepository
-                .findBySocietyContainingIgnoreCaseOrContactAgentContainingIgnoreCase(query, query)
-                .stream()
-                .map(supplierMapper::toDTO)
+    // ranked search over the in-memory trigram index; the page of suppliers is then loaded by id
+    @Transactional(readOnly = true)
+    public Page<SupplierDTO> searchSuppliers(String query, Pageable pageable) {
+        if (!supplierSearchIndex.isReady()) {
+            return supplierRepository.searchActive(query, pageable).map(supplierMapper::toDTO);
+        }
+
+        Page<Long> ids = supplierSearchIndex.search(query, pageable);
+        Map<Long, Supplier> suppliers = supplierRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Supplier::getId, Function.identity()));
+        List<SupplierDTO> content = ids.getContent().stream()
+                .filter(suppliers::containsKey)
+                .map(id -> supplierMapper.toDTO(suppliers.get(id)))
                 .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    // the index only sees committed suppliers: a rolled-back change must not show up in (or drop out of) searches
+    private void afterCommit(Runnable indexChange) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexChange.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexChange.run();
+            }
+        });
+    }
+
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
     }
 }
\ No newline at end of file
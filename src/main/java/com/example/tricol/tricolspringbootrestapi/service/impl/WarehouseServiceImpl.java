@@ -0,0 +1,109 @@
+package com.example.tricol.tricolspringbootrestapi.service.impl;
+
+import com.example.tricol.tricolspringbootrestapi.dto.request.WarehouseRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.response.WarehouseResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.WarehouseStockResponse;
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
+import com.example.tricol.tricolspringbootrestapi.exception.DuplicateResourceException;
+import com.example.tricol.tricolspringbootrestapi.exception.ResourceNotFoundException;
+import com.example.tricol.tricolspringbootrestapi.mapper.WarehouseMapper;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.model.Warehouse;
+import com.example.tricol.tricolspringbootrestapi.model.WarehouseStock;
+import com.example.tricol.tricolspringbootrestapi.repository.WarehouseRepository;
+import com.example.tricol.tricolspringbootrestapi.repository.WarehouseStockRepository;
+import com.example.tricol.tricolspringbootrestapi.service.WarehouseService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class WarehouseServiceImpl implements WarehouseService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final WarehouseMapper warehouseMapper;
+    private final Long defaultWarehouseId;
+
+    public WarehouseServiceImpl(WarehouseRepository warehouseRepository,
+                                WarehouseStockRepository warehouseStockRepository,
+                                WarehouseMapper warehouseMapper,
+                                @Value("${tricol.warehouse.default-id:1}") Long defaultWarehouseId) {
+        this.warehouseRepository = warehouseRepository;
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.warehouseMapper = warehouseMapper;
+        this.defaultWarehouseId = defaultWarehouseId;
+    }
+
+    // runs inside the transaction that saves the movement, so the counter and the lots commit together
+    @EventListener
+    public void onStockMovement(StockMovementEvent event) {
+        StockMovement movement = event.getMovement();
+        double quantity = movement.getQuantity() != null ? movement.getQuantity() : 0.0;
+        warehouseStockRepository.add(movement.getWarehouse().getId(), movement.getProduct().getId(), quantity);
+    }
+
+    @Override
+    @Transactional
+    public WarehouseResponse createWarehouse(WarehouseRequest request) {
+        if (warehouseRepository.findByCode(request.getCode()).isPresent()) {
+            throw new DuplicateResourceException("Warehouse with code '" + request.getCode() + "' already exists");
+        }
+        return warehouseMapper.toResponse(warehouseRepository.save(warehouseMapper.toEntity(request)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WarehouseResponse> getWarehouses() {
+        return warehouseMapper.toResponseList(warehouseRepository.findAll());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WarehouseStockResponse> getWarehouseStock(Long warehouseId) {
+        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse with id " + warehouseId + " not found"));
+
+        List<WarehouseStockResponse> stock = new ArrayList<>();
+        for (WarehouseStock row : warehouseStockRepository.findByWarehouse(warehouseId)) {
+            stock.add(new WarehouseStockResponse(row.getId().getProductId(), row.getQuantity(),
+                    List.of(new WarehouseStockResponse.Location(warehouseId, warehouse.getCode(), row.getQuantity()))));
+        }
+        return stock;
+    }
+
+    // one counter row per (warehouse, product): the total is a sum over a handful of rows, whatever the number of lots
+    @Override
+    @Transactional(readOnly = true)
+    public List<WarehouseStockResponse> getConsolidatedStock(Long productId) {
+        Map<Long, String> codes = warehouseRepository.findAll().stream()
+                .collect(Collectors.toMap(Warehouse::getId, Warehouse::getCode));
+
+        Map<Long, WarehouseStockResponse> products = new LinkedHashMap<>();
+        for (WarehouseStock row : warehouseStockRepository.findByProduct(productId)) {
+            WarehouseStockResponse product = products.computeIfAbsent(row.getId().getProductId(),
+                    id -> new WarehouseStockResponse(id, 0.0, new ArrayList<>()));
+            product.setTotal(product.getTotal() + row.getQuantity());
+            product.getWarehouses().add(new WarehouseStockResponse.Location(row.getId().getWarehouseId(),
+                    codes.get(row.getId().getWarehouseId()), row.getQuantity()));
+        }
+        return new ArrayList<>(products.values());
+    }
+
+    // the default warehouse is referenced without a query; a named one must exist
+    @Override
+    public Warehouse resolve(Long warehouseId) {
+        if (warehouseId == null) {
+            return warehouseRepository.getReferenceById(defaultWarehouseId);
+        }
+        return warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse with id " + warehouseId + " not found"));
+    }
+}
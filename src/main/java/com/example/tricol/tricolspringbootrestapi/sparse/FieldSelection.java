@@ -0,0 +1,71 @@
+package com.example.tricol.tricolspringbootrestapi.sparse;
+
+import com.example.tricol.tricolspringbootrestapi.exception.BadRequestException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+    The fields a client asked for with ?fields=, checked against the fields of a SparseView and kept in the
+    view's order. project() turns a response DTO into a map of those fields only, so the fields that were not
+    read are left out of the JSON rather than written as null.
+ */
+public final class FieldSelection {
+
+    private final List<String> names;
+
+    private FieldSelection(List<String> names) {
+        this.names = names;
+    }
+
+    public static FieldSelection parse(String fields, SparseView<?, ?> view) {
+        Set<String> requested = new LinkedHashSet<>();
+        if (fields != null) {
+            Arrays.stream(fields.split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .forEach(requested::add);
+        }
+        if (requested.isEmpty()) {
+            throw new BadRequestException("fields must name at least one of " + view.fieldNames());
+        }
+        Set<String> unknown = new LinkedHashSet<>(requested);
+        unknown.removeAll(view.fieldNames());
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException("Unknown fields " + unknown + ", expected some of " + view.fieldNames());
+        }
+        return new FieldSelection(view.fieldNames().stream().filter(requested::contains).toList());
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+
+    public Map<String, Object> project(Object response) {
+        BeanWrapper properties = PropertyAccessorFactory.forBeanPropertyAccess(response);
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String name : names) {
+            projected.put(name, properties.getPropertyValue(name));
+        }
+        return projected;
+    }
+
+    public List<Map<String, Object>> project(List<?> responses) {
+        return responses.stream().map(this::project).toList();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+}
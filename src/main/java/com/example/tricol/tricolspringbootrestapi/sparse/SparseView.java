@@ -0,0 +1,142 @@
+package com.example.tricol.tricolspringbootrestapi.sparse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/*
+    How one resource answers ?fields=: every scalar field is an attribute path on the entity, so a sparse read
+    selects only the chosen columns into a tuple, and an association is joined only when a chosen path goes
+    through it (ids of to-one associations are read from the foreign key). A child collection is loaded for
+    all the rows in one extra query, and only when it is chosen. Fields left out stay null in the response DTO.
+    A null FieldSelection reads every field.
+ */
+public final class SparseView<E, D> {
+
+    // ids per IN list when loading child collections
+    private static final int CHILD_BATCH = 1000;
+
+    private final Class<E> entity;
+    private final Supplier<D> factory;
+    private final Map<String, Column<D>> columns = new LinkedHashMap<>();
+    private final Map<String, Child<D>> children = new LinkedHashMap<>();
+    private final Set<String> fieldNames = new LinkedHashSet<>();
+    private final Set<String> required = new LinkedHashSet<>(List.of("id"));
+
+    private SparseView(Class<E> entity, Supplier<D> factory) {
+        this.entity = entity;
+        this.factory = factory;
+    }
+
+    public static <E, D> SparseView<E, D> of(Class<E> entity, Supplier<D> factory) {
+        return new SparseView<>(entity, factory);
+    }
+
+    public <V> SparseView<E, D> column(String name, String path, Class<V> type, BiConsumer<D, V> setter) {
+        columns.put(name, new Column<>(path.split("\\."), (row, value) -> setter.accept(row, type.cast(value))));
+        fieldNames.add(name);
+        return this;
+    }
+
+    public <C> SparseView<E, D> child(String name, ChildLoader<C> loader, BiConsumer<D, List<C>> setter) {
+        children.put(name, (entityManager, rows) -> {
+            List<Long> ids = new ArrayList<>(rows.keySet());
+            Map<Long, List<C>> loaded = new LinkedHashMap<>();
+            for (int from = 0; from < ids.size(); from += CHILD_BATCH) {
+                loaded.putAll(loader.load(entityManager, ids.subList(from, Math.min(ids.size(), from + CHILD_BATCH))));
+            }
+            rows.forEach((id, row) -> setter.accept(row, loaded.getOrDefault(id, new ArrayList<>())));
+        });
+        fieldNames.add(name);
+        return this;
+    }
+
+    // read even when not chosen, because the caller needs them (the id always is); project() still leaves them out
+    public SparseView<E, D> required(String... names) {
+        required.addAll(List.of(names));
+        return this;
+    }
+
+    public Set<String> fieldNames() {
+        return fieldNames;
+    }
+
+    public List<D> select(EntityManager entityManager, FieldSelection fields, Specification<E> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entity);
+
+        List<String> selected = columns.keySet().stream()
+                .filter(name -> fields == null || fields.includes(name) || required.contains(name))
+                .toList();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String name : selected) {
+            Path<?> path = root;
+            for (String attribute : columns.get(name).path()) {
+                path = path.get(attribute);
+            }
+            selections.add(path.alias(name));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        List<D> rows = new ArrayList<>();
+        Map<Long, D> byId = new LinkedHashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            D row = factory.get();
+            for (String name : selected) {
+                columns.get(name).setter().accept(row, tuple.get(name));
+            }
+            rows.add(row);
+            byId.put((Long) tuple.get("id"), row);
+        }
+
+        if (!byId.isEmpty()) {
+            children.forEach((name, child) -> {
+                if (fields == null || fields.includes(name)) {
+                    child.fill(entityManager, byId);
+                }
+            });
+        }
+        return rows;
+    }
+
+    @FunctionalInterface
+    public interface ChildLoader<C> {
+        // the children of each parent id, in the order they should be listed
+        Map<Long, List<C>> load(EntityManager entityManager, Collection<Long> parentIds);
+    }
+
+    private record Column<D>(String[] path, BiConsumer<D, Object> setter) {
+    }
+
+    @FunctionalInterface
+    private interface Child<D> {
+        void fill(EntityManager entityManager, Map<Long, D> rows);
+    }
+}
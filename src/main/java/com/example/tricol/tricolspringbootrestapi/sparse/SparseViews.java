@@ -0,0 +1,122 @@
+package com.example.tricol.tricolspringbootrestapi.sparse;
+
+import com.example.tricol.tricolspringbootrestapi.dto.request.ProductDTO;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipItemResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.OrderItemResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.OrderResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.ExitReason;
+import com.example.tricol.tricolspringbootrestapi.enums.ExitSlipStatus;
+import com.example.tricol.tricolspringbootrestapi.model.ExitSlip;
+import com.example.tricol.tricolspringbootrestapi.model.Order;
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// the fields= views of orders, exit slips, products and movements, with the same names as their response DTOs
+public final class SparseViews {
+
+    public static final SparseView<Order, OrderResponse> ORDERS = SparseView.of(Order.class, OrderResponse::new)
+            .column("id", "id", Long.class, OrderResponse::setId)
+            .column("supplierId", "supplier.id", Long.class, OrderResponse::setSupplierId)
+            .column("warehouseId", "warehouse.id", Long.class, OrderResponse::setWarehouseId)
+            .column("orderDate", "orderDate", LocalDateTime.class, OrderResponse::setOrderDate)
+            .column("status", "status", Order.OrderStatus.class,
+                    (order, status) -> order.setStatus(status != null ? status.name() : null))
+            .column("totalAmount", "totalAmount", Double.class, OrderResponse::setTotalAmount)
+            .child("items", SparseViews::orderItems, OrderResponse::setItems);
+
+    public static final SparseView<ExitSlip, ExitSlipResponse> EXIT_SLIPS = SparseView.of(ExitSlip.class, ExitSlipResponse::new)
+            .column("id", "id", Long.class, ExitSlipResponse::setId)
+            .column("slipNumber", "slipNumber", String.class, ExitSlipResponse::setSlipNumber)
+            .column("exitDate", "exitDate", LocalDateTime.class, ExitSlipResponse::setExitDate)
+            .column("destinationWorkshop", "destinationWorkshop", String.class, ExitSlipResponse::setDestinationWorkshop)
+            .column("warehouseId", "warehouse.id", Long.class, ExitSlipResponse::setWarehouseId)
+            .column("reason", "reason", ExitReason.class, ExitSlipResponse::setReason)
+            .column("status", "status", ExitSlipStatus.class, ExitSlipResponse::setStatus)
+            .column("comment", "comment", String.class, ExitSlipResponse::setComment)
+            .child("items", SparseViews::exitSlipItems, ExitSlipResponse::setItems)
+            .column("createdAt", "createdAt", LocalDateTime.class, ExitSlipResponse::setCreatedAt)
+            .column("validatedAt", "validatedAt", LocalDateTime.class, ExitSlipResponse::setValidatedAt)
+            .column("cancelledAt", "cancelledAt", LocalDateTime.class, ExitSlipResponse::setCancelledAt)
+            .column("createdBy", "createdBy", String.class, ExitSlipResponse::setCreatedBy)
+            .column("validatedBy", "validatedBy", String.class, ExitSlipResponse::setValidatedBy)
+            .column("cancelledBy", "cancelledBy", String.class, ExitSlipResponse::setCancelledBy);
+
+    public static final SparseView<Product, ProductDTO> PRODUCTS = SparseView.of(Product.class, ProductDTO::new)
+            .column("id", "id", Long.class, ProductDTO::setId)
+            .column("reference", "reference", String.class, ProductDTO::setReference)
+            .column("name", "name", String.class, ProductDTO::setName)
+            .column("description", "description", String.class, ProductDTO::setDescription)
+            .column("unitPrice", "unitPrice", Double.class, ProductDTO::setUnitPrice)
+            .column("category", "category", String.class, ProductDTO::setCategory)
+            .column("measureUnit", "measureUnit", String.class, ProductDTO::setMeasureUnit)
+            .column("reorderPoint", "reorderPoint", Double.class, ProductDTO::setReorderPoint)
+            .column("currentStock", "currentStock", Double.class, ProductDTO::setCurrentStock);
+
+    // date and id are always read: they order the rows and make the scroll cursor
+    public static final SparseView<StockMovement, StockMovementResponse> MOVEMENTS = SparseView.of(StockMovement.class, StockMovementResponse::new)
+            .column("id", "id", Long.class, StockMovementResponse::setId)
+            .column("type", "type", StockMovement.Type.class,
+                    (movement, type) -> movement.setType(type != null ? type.name() : null))
+            .column("date", "date", LocalDateTime.class, StockMovementResponse::setDate)
+            .column("quantity", "quantity", Double.class, StockMovementResponse::setQuantity)
+            .column("productId", "product.id", Long.class, StockMovementResponse::setProductId)
+            .column("productName", "product.name", String.class, StockMovementResponse::setProductName)
+            .column("orderId", "order.id", Long.class, StockMovementResponse::setOrderId)
+            .column("stockSlotId", "stockSlot.id", Long.class, StockMovementResponse::setStockSlotId)
+            .column("lotNumber", "stockSlot.lotNumber", String.class, StockMovementResponse::setLotNumber)
+            .required("date");
+
+    private SparseViews() {
+    }
+
+    private static Map<Long, List<OrderItemResponse>> orderItems(EntityManager entityManager, Collection<Long> orderIds) {
+        List<Tuple> rows = entityManager.createQuery("select i.order.id as orderId, p.id as productId, p.name as productName, "
+                        + "i.quantity as quantity, i.unitPrice as unitPrice, i.total as total "
+                        + "from OrderItem i left join i.product p "
+                        + "where i.order.id in :orderIds order by i.id", Tuple.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+        Map<Long, List<OrderItemResponse>> items = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            OrderItemResponse item = new OrderItemResponse();
+            item.setProductId(row.get("productId", Long.class));
+            item.setProductName(row.get("productName", String.class));
+            item.setQuantity(row.get("quantity", Double.class));
+            item.setUnitPrice(row.get("unitPrice", Double.class));
+            item.setTotal(row.get("total", Double.class));
+            items.computeIfAbsent(row.get("orderId", Long.class), id -> new ArrayList<>()).add(item);
+        }
+        return items;
+    }
+
+    private static Map<Long, List<ExitSlipItemResponse>> exitSlipItems(EntityManager entityManager, Collection<Long> exitSlipIds) {
+        List<Tuple> rows = entityManager.createQuery("select i.exitSlip.id as exitSlipId, i.id as id, p.id as productId, "
+                        + "p.name as productName, p.reference as productReference, i.requestedQuantity as requestedQuantity, "
+                        + "i.actualQuantity as actualQuantity, i.note as note "
+                        + "from ExitSlipItem i join i.product p "
+                        + "where i.exitSlip.id in :exitSlipIds order by i.id", Tuple.class)
+                .setParameter("exitSlipIds", exitSlipIds)
+                .getResultList();
+        Map<Long, List<ExitSlipItemResponse>> items = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            items.computeIfAbsent(row.get("exitSlipId", Long.class), id -> new ArrayList<>())
+                    .add(new ExitSlipItemResponse(row.get("id", Long.class), row.get("productId", Long.class),
+                            row.get("productName", String.class), row.get("productReference", String.class),
+                            row.get("requestedQuantity", BigDecimal.class), row.get("actualQuantity", BigDecimal.class),
+                            row.get("note", String.class)));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.tricol.tricolspringbootrestapi.stream;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.StreamOverflowPolicy;
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
+import com.example.tricol.tricolspringbootrestapi.exception.InvalidOperationException;
+import com.example.tricol.tricolspringbootrestapi.mapper.StockMovementMapper;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    In-process fan-out of committed stock movements to SSE clients.
+
+    The committing thread only matches filters and offers into each subscriber's bounded queue, it never
+    writes to a socket. Queues are drained by a small pool of sender threads, one drain task per subscriber
+    at a time, so a slow client only ever holds one sender and fills its own queue, where its overflow policy
+    (drop oldest or disconnect) applies.
+ */
+@Slf4j
+@Component
+public class StockMovementBroadcaster {
+
+    private final StockMovementMapper stockMovementMapper;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMs;
+    private final ExecutorService senders;
+    private final Set<StockMovementSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    public StockMovementBroadcaster(StockMovementMapper stockMovementMapper,
+                                    @Value("${tricol.stream.queue-capacity:256}") int queueCapacity,
+                                    @Value("${tricol.stream.max-subscribers:200}") int maxSubscribers,
+                                    @Value("${tricol.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                    @Value("${tricol.stream.sender-threads:4}") int senderThreads) {
+        this.stockMovementMapper = stockMovementMapper;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long productId, StockMovement.Type type, String lotNumber, StreamOverflowPolicy policy) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new InvalidOperationException("Too many stock movement stream subscribers, retry later");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        register(new StockMovementSubscription(emitter, productId, type != null ? type.name() : null, lotNumber,
+                policy, queueCapacity));
+        return emitter;
+    }
+
+    void register(StockMovementSubscription subscription) {
+        SseEmitter emitter = subscription.getEmitter();
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(error -> remove(subscription));
+        subscriptions.add(subscription);
+    }
+
+    @TransactionalEventListener
+    public void onStockMovement(StockMovementEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        StockMovementResponse movement = stockMovementMapper.toResponse(event.getMovement());
+        for (StockMovementSubscription subscription : subscriptions) {
+            if (!subscription.matches(movement)) {
+                continue;
+            }
+            SseEmitter.SseEventBuilder sse = SseEmitter.event()
+                    .id(String.valueOf(movement.getId()))
+                    .name("movement")
+                    .data(movement);
+            if (subscription.offer(sse)) {
+                scheduleDrain(subscription);
+            } else {
+                log.info("Disconnecting a stock movement stream subscriber that fell {} events behind", queueCapacity);
+                remove(subscription);
+                subscription.getEmitter().complete();
+            }
+        }
+    }
+
+    // keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${tricol.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (StockMovementSubscription subscription : subscriptions) {
+            if (subscription.getQueue().isEmpty() && subscription.offer(SseEmitter.event().comment("keep-alive"))) {
+                scheduleDrain(subscription);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void scheduleDrain(StockMovementSubscription subscription) {
+        if (subscription.getDraining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(StockMovementSubscription subscription) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscription.isClosed() && (event = subscription.getQueue().poll()) != null) {
+                long dropped = subscription.getDropped().getAndSet(0);
+                if (dropped > 0) {
+                    subscription.getEmitter().send(SseEmitter.event().name("overflow").data(dropped));
+                }
+                subscription.getEmitter().send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscription);
+            subscription.getEmitter().completeWithError(e);
+            return;
+        } finally {
+            subscription.getDraining().set(false);
+        }
+        // an offer may have landed between the last poll and releasing the flag
+        if (!subscription.isClosed() && !subscription.getQueue().isEmpty()) {
+            scheduleDrain(subscription);
+        }
+    }
+
+    private void remove(StockMovementSubscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.close();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptions.forEach(subscription -> subscription.getEmitter().complete());
+        senders.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.tricol.tricolspringbootrestapi.stream;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.StreamOverflowPolicy;
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// one connected client: its filters, its bounded queue and its overflow policy
+@Getter
+public class StockMovementSubscription {
+
+    private final SseEmitter emitter;
+    private final Long productId;
+    private final String type;
+    private final String lotNumber;
+    private final StreamOverflowPolicy policy;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    // set while a drain task for this subscription is queued or running
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    public StockMovementSubscription(SseEmitter emitter, Long productId, String type, String lotNumber,
+                                     StreamOverflowPolicy policy, int capacity) {
+        this.emitter = emitter;
+        this.productId = productId;
+        this.type = type;
+        this.lotNumber = lotNumber;
+        this.policy = policy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public boolean matches(StockMovementResponse movement) {
+        return (productId == null || productId.equals(movement.getProductId()))
+                && (type == null || type.equals(movement.getType()))
+                && (lotNumber == null || lotNumber.equals(movement.getLotNumber()));
+    }
+
+    // never blocks; false means the queue is full and the policy asks for a disconnect
+    public boolean offer(SseEmitter.SseEventBuilder event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        if (policy == StreamOverflowPolicy.DISCONNECT) {
+            return false;
+        }
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.tricol.tricolspringbootrestapi.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.sql.DataSource;
+
+/*
+    Per-group concurrency limits for the controllers (tricol.bulkhead.*). Without them one slow listing can
+    take every pooled connection and time out the exit slip writes of the workshops; with them each group
+    and kind of request gets its own share, and excess requests are shed with 503 and Retry-After.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(BulkheadProperties.class)
+@ConditionalOnProperty(name = "tricol.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfiguration implements WebMvcConfigurer {
+
+    private final BulkheadInterceptor interceptor;
+
+    public BulkheadConfiguration(BulkheadInterceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Bean
+    static BulkheadInterceptor bulkheadInterceptor(BulkheadProperties properties, ObjectProvider<MeterRegistry> registry) {
+        return new BulkheadInterceptor(properties, registry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    static BulkheadPoolCheck bulkheadPoolCheck(BulkheadProperties properties, ObjectProvider<RequestMappingHandlerMapping> handlerMappings,
+                                               ObjectProvider<DataSource> dataSource) {
+        return new BulkheadPoolCheck(properties, handlerMappings, dataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor);
+    }
+}
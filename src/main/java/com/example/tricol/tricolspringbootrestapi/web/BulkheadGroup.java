@@ -0,0 +1,16 @@
+package com.example.tricol.tricolspringbootrestapi.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// the bulkhead a controller's requests are admitted through; limits are tricol.bulkhead.groups.<value>.*
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BulkheadGroup {
+
+    String value();
+}
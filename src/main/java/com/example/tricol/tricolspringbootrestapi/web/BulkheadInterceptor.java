@@ -0,0 +1,94 @@
+package com.example.tricol.tricolspringbootrestapi.web;
+
+import com.example.tricol.tricolspringbootrestapi.exception.BulkheadFullException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Admits each controller request through the bulkhead of its @BulkheadGroup, one compartment for reads and
+    one for writes per group. The permit is held until the request completes; for async handlers (the SSE
+    stream) it is returned as soon as the handler hands off, since an open stream holds no connection.
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry registry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadInterceptor(BulkheadProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        BulkheadGroup group = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), BulkheadGroup.class);
+        if (group == null) {
+            return true;
+        }
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        Bulkhead bulkhead = bulkhead(group.value(), read);
+        if (!bulkhead.tryAcquire()) {
+            throw new BulkheadFullException(bulkhead.getName(), properties.getRetryAfterSeconds());
+        }
+        request.setAttribute(PERMIT, bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    public Bulkhead bulkhead(String group, boolean read) {
+        String name = group + (read ? ".reads" : ".writes");
+        return bulkheads.computeIfAbsent(name, key -> {
+            BulkheadProperties.Group limits = properties.group(group);
+            Bulkhead bulkhead = new Bulkhead(key, read ? limits.getReads() : limits.getWrites(), limits.getMaxWaitMs());
+            register(bulkhead, group, read ? "read" : "write");
+            return bulkhead;
+        });
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT) instanceof Bulkhead bulkhead) {
+            request.removeAttribute(PERMIT);
+            bulkhead.release();
+        }
+    }
+
+    private void register(Bulkhead bulkhead, String group, String kind) {
+        Gauge.builder("tricol.bulkhead.active", bulkhead, Bulkhead::getActive)
+                .description("Requests holding a bulkhead permit")
+                .tags("group", group, "kind", kind)
+                .register(registry);
+        Gauge.builder("tricol.bulkhead.waiting", bulkhead, Bulkhead::getWaiting)
+                .description("Requests queued for a bulkhead permit")
+                .tags("group", group, "kind", kind)
+                .register(registry);
+        FunctionCounter.builder("tricol.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                .description("Requests answered 503 because the bulkhead stayed full for the whole wait")
+                .tags("group", group, "kind", kind)
+                .register(registry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.tricol.tricolspringbootrestapi.web;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/*
+    Warns at startup when the bulkheads together admit more requests than the primary pool has connections.
+    Past that point a request that got its permit can still queue for a connection, and a slow group takes
+    connections from the others, which is what the compartments are there to prevent. Only the compartments
+    some controller method can enter are counted: a group whose handlers are all writes has no read limit.
+ */
+@Slf4j
+public class BulkheadPoolCheck implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final BulkheadProperties properties;
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMappings;
+    private final ObjectProvider<DataSource> dataSource;
+
+    public BulkheadPoolCheck(BulkheadProperties properties, ObjectProvider<RequestMappingHandlerMapping> handlerMappings,
+                             ObjectProvider<DataSource> dataSource) {
+        this.properties = properties;
+        this.handlerMappings = handlerMappings;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Integer poolSize = poolSize();
+        if (poolSize == null) {
+            return;
+        }
+        Map<RequestMappingInfo, HandlerMethod> handlers = new HashMap<>();
+        handlerMappings.orderedStream().forEach(mapping -> handlers.putAll(mapping.getHandlerMethods()));
+        Map<String, Integer> compartments = compartments(properties, handlers);
+        int permits = compartments.values().stream().mapToInt(Integer::intValue).sum();
+        if (permits > poolSize) {
+            log.warn("Bulkheads admit {} concurrent requests but the connection pool has {} connections; "
+                    + "raise spring.datasource.hikari.maximum-pool-size or lower tricol.bulkhead.groups.*: {}",
+                    permits, poolSize, compartments);
+        }
+    }
+
+    // permits per compartment, as "group.reads" or "group.writes", of every compartment a handler can enter
+    static Map<String, Integer> compartments(BulkheadProperties properties, Map<RequestMappingInfo, HandlerMethod> handlers) {
+        Map<String, Integer> compartments = new TreeMap<>();
+        handlers.forEach((mapping, method) -> {
+            BulkheadGroup group = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), BulkheadGroup.class);
+            if (group == null) {
+                return;
+            }
+            BulkheadProperties.Group limits = properties.group(group.value());
+            Set<RequestMethod> methods = mapping.getMethodsCondition().getMethods();
+            if (methods.isEmpty() || methods.contains(RequestMethod.GET) || methods.contains(RequestMethod.HEAD)) {
+                compartments.put(group.value() + ".reads", limits.getReads());
+            }
+            if (methods.isEmpty() || methods.stream().anyMatch(m -> m != RequestMethod.GET && m != RequestMethod.HEAD)) {
+                compartments.put(group.value() + ".writes", limits.getWrites());
+            }
+        });
+        return compartments;
+    }
+
+    private Integer poolSize() {
+        DataSource pool = dataSource.getIfUnique();
+        try {
+            if (pool == null || !pool.isWrapperFor(HikariDataSource.class)) {
+                return null;
+            }
+            return pool.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.tricol.tricolspringbootrestapi.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("tricol.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    // sent as Retry-After on a 503 from a full bulkhead
+    private int retryAfterSeconds = 1;
+
+    // by @BulkheadGroup name; a group without an entry gets the defaults of Group
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    public Group group(String name) {
+        return groups.getOrDefault(name, new Group());
+    }
+
+    // reads (GET, HEAD) and writes are separate compartments, so a read storm cannot queue the group's writes
+    @Data
+    public static class Group {
+        private int reads = 4;
+        private int writes = 4;
+        private long maxWaitMs = 500;
+    }
+}
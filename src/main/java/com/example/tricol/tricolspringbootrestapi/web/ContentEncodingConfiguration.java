@@ -0,0 +1,36 @@
+package com.example.tricol.tricolspringbootrestapi.web;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/*
+    Response encodings besides JSON, chosen by the Accept header: Smile (application/x-jackson-smile) and
+    CBOR (application/cbor). Both converters are built from Boot's Jackson2ObjectMapperBuilder, so they
+    share the JSON mapper's modules and settings and produce the same documents in binary form.
+    Blackbird replaces reflective getter and field access with generated lambdas in all three mappers.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ContentEncodingConfiguration {
+
+    @Bean
+    Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.tricol.tricolspringbootrestapi.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    Closed-loop HTTP load driver for a running instance (usually the perf profile). Each worker thread
+    picks an operation from the weighted mix, sends it and records the latency, until the duration is up.
+    Orders and exit slips created by the run feed the receive and validate operations; when none is
+    waiting, the worker creates one instead. Prints throughput, errors and latency percentiles per operation.
+
+    mvn -Pperf exec:java -Dexec.args="--threads 16 --duration 60 --mix create-order=20,receive=15,create-slip=20,validate=15,search=30"
+ */
+public class LoadDriver {
+
+    enum Operation {
+        CREATE_ORDER("create-order"),
+        RECEIVE("receive"),
+        CREATE_SLIP("create-slip"),
+        VALIDATE("validate"),
+        SEARCH("search");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+
+        static Operation of(String label) {
+            return Arrays.stream(values())
+                    .filter(operation -> operation.label.equals(label))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation in --mix: " + label));
+        }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int threads;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Map<Operation, Integer> mix;
+    private final int suppliers;
+    private final int products;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Queue<Long> pendingOrders = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> draftSlips = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Boolean> lastStatusOk = ThreadLocal.withInitial(() -> true);
+
+    LoadDriver(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080/tricol/api/v2");
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        this.mix = parseMix(options.getOrDefault("mix", "create-order=20,receive=15,create-slip=20,validate=15,search=30"));
+        this.suppliers = Integer.parseInt(options.getOrDefault("suppliers", "1000"));
+        this.products = Integer.parseInt(options.getOrDefault("products", "200"));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new LoadDriver(options).run();
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("Driving %s with %d threads for %ds (warm-up %ds), mix %s%n",
+                baseUrl, threads, duration.toSeconds(), warmup.toSeconds(), mix);
+
+        if (!warmup.isZero()) {
+            drive(warmup);
+        }
+        Map<Operation, Recorder> recorders = drive(duration);
+        report(recorders);
+    }
+
+    private Map<Operation, Recorder> drive(Duration length) throws InterruptedException {
+        List<Map<Operation, Recorder>> perThread = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + length.toNanos();
+
+        for (int t = 0; t < threads; t++) {
+            Map<Operation, Recorder> recorders = recorders();
+            perThread.add(recorders);
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = pick();
+                        long start = System.nanoTime();
+                        Operation executed = execute(operation);
+                        recorders.get(executed).record(System.nanoTime() - start, lastStatusOk.get());
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-driver-" + t);
+            worker.start();
+        }
+        done.await();
+
+        Map<Operation, Recorder> merged = recorders();
+        perThread.forEach(recorders -> recorders.forEach((operation, recorder) -> merged.get(operation).merge(recorder)));
+        return merged;
+    }
+
+    private Operation pick() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int draw = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            draw -= entry.getValue();
+            if (draw < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    // returns the operation actually sent: receive and validate fall back to a create when nothing is waiting
+    private Operation execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case RECEIVE -> {
+                Long orderId = pendingOrders.poll();
+                if (orderId == null) {
+                    return execute(Operation.CREATE_ORDER);
+                }
+                send(post("/orders/" + orderId + "/receive", null));
+            }
+            case VALIDATE -> {
+                Long slipId = draftSlips.poll();
+                if (slipId == null) {
+                    return execute(Operation.CREATE_SLIP);
+                }
+                send(post("/exit-slips/" + slipId + "/validate", null));
+            }
+            case CREATE_ORDER -> {
+                // one line per order: receiving numbers lots by count, so the lots of a multi-line order collide
+                Map<String, Object> body = Map.of(
+                        "supplierId", 1 + random.nextInt(suppliers),
+                        "items", List.of(Map.of("productId", 1 + random.nextInt(products), "quantity", 20 + random.nextInt(80))));
+                JsonNode created = send(post("/orders/create", body));
+                if (created != null) {
+                    pendingOrders.add(created.get("id").asLong());
+                }
+            }
+            case CREATE_SLIP -> {
+                Map<String, Object> body = Map.of(
+                        "exitDate", LocalDateTime.now().withNano(0).toString(),
+                        "destinationWorkshop", "Workshop " + (1 + random.nextInt(5)),
+                        "reason", "PRODUCTION",
+                        "items", List.of(Map.of("productId", 1 + random.nextInt(products), "quantity", 5 + random.nextInt(20))));
+                JsonNode created = send(post("/exit-slips", body));
+                if (created != null) {
+                    draftSlips.add(created.get("id").asLong());
+                }
+            }
+            case SEARCH -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/stock/movements?productId="
+                    + (1 + random.nextInt(products)) + "&page=0&size=20")).GET().build());
+        }
+        return operation;
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            HttpRequest.BodyPublisher publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body));
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(publisher)
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    // null when the call failed; the failure is counted against the operation
+    private JsonNode send(HttpRequest request) {
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean ok = response.statusCode() < 400;
+            lastStatusOk.set(ok);
+            if (!ok || response.body().length == 0) {
+                return null;
+            }
+            return JSON.readTree(response.body());
+        } catch (Exception e) {
+            lastStatusOk.set(false);
+            return null;
+        }
+    }
+
+    private void report(Map<Operation, Recorder> recorders) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%n%-13s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        Recorder all = new Recorder();
+        recorders.forEach((operation, recorder) -> {
+            all.merge(recorder);
+            print(operation.label, recorder, seconds);
+        });
+        print("total", all, seconds);
+    }
+
+    private static void print(String label, Recorder recorder, double seconds) {
+        if (recorder.count() == 0) {
+            System.out.printf("%-13s %9d%n", label, 0);
+            return;
+        }
+        long[] sorted = recorder.sorted();
+        System.out.printf("%-13s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                label, sorted.length, recorder.errors, sorted.length / seconds,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)),
+                millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<Operation, Recorder> recorders() {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder());
+        }
+        return recorders;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] weight = part.trim().split("=");
+            weights.put(Operation.of(weight[0]), Integer.parseInt(weight[1]));
+        }
+        return weights;
+    }
+
+    // one per thread and operation, merged at the end: no contention on the recording path
+    static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        int count() {
+            return size;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+}
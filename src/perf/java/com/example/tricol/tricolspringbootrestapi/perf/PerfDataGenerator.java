@@ -0,0 +1,182 @@
+package com.example.tricol.tricolspringbootrestapi.perf;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+    Fills the embedded perf database with a synthetic history before the application starts serving:
+    suppliers, products, and for every product a deep FIFO history of lots. Each lot comes from its own
+    delivered order and has an IN movement; the oldest lots are consumed by validated exit slips with
+    their OUT movements. Rows go in with plain batched INSERTs, all in the default warehouse; the daily
+    rollups and the warehouse stock counters are then backfilled the same way the v011 and v016
+    changesets do.
+
+    Runs once every singleton exists, before the lifecycle beans start: the stock journal snapshots the
+    lots in the first lifecycle phase, and the web server only opens after it.
+ */
+@Slf4j
+@Component
+@Profile("perf")
+public class PerfDataGenerator implements SmartInitializingSingleton {
+
+    private static final int BATCH = 5_000;
+    private static final String[] WORKSHOPS = {"Cutting", "Sewing", "Finishing", "Embroidery", "Packing"};
+    private static final String[] CITIES = {"Casablanca", "Rabat", "Fès", "Tanger", "Marrakech", "Agadir"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int suppliers;
+    private final int products;
+    private final int lotsPerProduct;
+    private final double consumedShare;
+    private final Random random;
+
+    public PerfDataGenerator(JdbcTemplate jdbcTemplate,
+                             @Value("${tricol.perf.suppliers:1000}") int suppliers,
+                             @Value("${tricol.perf.products:200}") int products,
+                             @Value("${tricol.perf.lots-per-product:250}") int lotsPerProduct,
+                             @Value("${tricol.perf.consumed-share:0.6}") double consumedShare,
+                             @Value("${tricol.perf.seed:42}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.suppliers = suppliers;
+        this.products = products;
+        this.lotsPerProduct = lotsPerProduct;
+        this.consumedShare = consumedShare;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Perf database already holds {} products, skipping data generation", existing);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        insertSuppliers();
+        insertProducts();
+        long lots = insertLotHistories();
+        backfillRollups();
+        restartIdentities();
+        jdbcTemplate.execute("ANALYZE");
+
+        log.info("Generated {} suppliers, {} products and {} lots in {} ms",
+                suppliers, products, lots, System.currentTimeMillis() - start);
+    }
+
+    private void insertSuppliers() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= suppliers; id++) {
+            rows.add(new Object[]{id, "Supplier " + id + " SARL", "Agent " + id, CITIES[(int) (id % CITIES.length)],
+                    "supplier" + id + "@perf.tricol", "06" + String.format("%08d", id)});
+        }
+        batch("INSERT INTO supplier (id, society, contact_agent, city, email, phone) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertProducts() {
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusYears(3));
+        for (long id = 1; id <= products; id++) {
+            rows.add(new Object[]{id, "PERF-" + id, "Product " + id, 5.0 + id % 40, "Fabric", "m", 50.0, 0.0, created});
+        }
+        batch("INSERT INTO products (id, reference, name, unit_price, category, measure_unit, reorder_point, current_stock, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // one delivered order per lot; the oldest consumedShare of each product's lots is drawn by exit slips
+    private long insertLotHistories() {
+        LocalDateTime first = LocalDateTime.now().minusDays(lotsPerProduct * 2L);
+        int consumedLots = (int) (lotsPerProduct * consumedShare);
+
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> orderItems = new ArrayList<>();
+        List<Object[]> slots = new ArrayList<>();
+        List<Object[]> exitSlips = new ArrayList<>();
+        List<Object[]> exitSlipItems = new ArrayList<>();
+        List<Object[]> movements = new ArrayList<>();
+        List<Object[]> stock = new ArrayList<>();
+        long lotId = 0;
+        long movementId = 0;
+        long slipId = 0;
+
+        for (long productId = 1; productId <= products; productId++) {
+            double available = 0;
+            for (int lot = 0; lot < lotsPerProduct; lot++) {
+                lotId++;
+                LocalDateTime entry = first.plusDays(lot * 2L).plusMinutes(productId);
+                double quantity = 50 + random.nextInt(150);
+                double unitPrice = 5.0 + productId % 40 + random.nextInt(5);
+                long supplierId = 1 + random.nextInt(suppliers);
+
+                orders.add(new Object[]{lotId, supplierId, Timestamp.valueOf(entry.minusDays(3)), "delivered", quantity * unitPrice});
+                orderItems.add(new Object[]{lotId, quantity, unitPrice, quantity * unitPrice, lotId, productId});
+                movements.add(new Object[]{++movementId, "in", Timestamp.valueOf(entry), quantity, productId, lotId, lotId, null});
+
+                // the oldest lots are emptied, the next one half used, the rest untouched
+                double consumed = lot < consumedLots ? quantity : lot == consumedLots ? Math.floor(quantity / 2) : 0;
+                if (consumed > 0) {
+                    slipId++;
+                    LocalDateTime exit = entry.plusDays(1);
+                    exitSlips.add(new Object[]{slipId, "BS-PERF-" + slipId, Timestamp.valueOf(exit),
+                            WORKSHOPS[(int) (slipId % WORKSHOPS.length)], "PRODUCTION", "VALIDATED",
+                            Timestamp.valueOf(exit), Timestamp.valueOf(exit), "SYSTEM", "SYSTEM"});
+                    exitSlipItems.add(new Object[]{slipId, slipId, productId, consumed, consumed});
+                    movements.add(new Object[]{++movementId, "out", Timestamp.valueOf(exit), -consumed, productId, null, lotId, slipId});
+                }
+                slots.add(new Object[]{lotId, "LOT-PERF-" + lotId, Timestamp.valueOf(entry), quantity, quantity - consumed,
+                        unitPrice, lotId, productId});
+                available += quantity - consumed;
+            }
+            stock.add(new Object[]{available, productId});
+        }
+
+        batch("INSERT INTO orders (id, supplier_id, order_date, status, total_amount) VALUES (?, ?, ?, ?, ?)", orders);
+        batch("INSERT INTO order_item (id, quantity, unit_price, total, order_id, product_id) VALUES (?, ?, ?, ?, ?, ?)", orderItems);
+        batch("INSERT INTO stock_slots (id, lot_number, entry_date, quantity, available_quantity, unit_price, order_id, product_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", slots);
+        batch("INSERT INTO exit_slips (id, slip_number, exit_date, destination_workshop, reason, status, created_at, validated_at, created_by, validated_by) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", exitSlips);
+        batch("INSERT INTO exit_slip_items (id, exit_slip_id, product_id, requested_quantity, actual_quantity) VALUES (?, ?, ?, ?, ?)", exitSlipItems);
+        batch("INSERT INTO stock_movements (id, type, date, quantity, product_id, order_id, stock_slot_id, exit_slip_item_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", movements);
+        batch("UPDATE products SET current_stock = ? WHERE id = ?", stock);
+        return lotId;
+    }
+
+    private void backfillRollups() {
+        jdbcTemplate.update("INSERT INTO stock_daily_rollups (rollup_day, product_id, type, quantity, movement_count) "
+                + "SELECT CAST(date AS DATE), product_id, type, SUM(quantity), COUNT(*) FROM stock_movements "
+                + "GROUP BY CAST(date AS DATE), product_id, type");
+        jdbcTemplate.update("INSERT INTO workshop_daily_rollups (rollup_day, workshop, quantity, movement_count) "
+                + "SELECT CAST(s.validated_at AS DATE), s.destination_workshop, -SUM(i.actual_quantity), COUNT(*) "
+                + "FROM exit_slips s JOIN exit_slip_items i ON i.exit_slip_id = s.id "
+                + "GROUP BY CAST(s.validated_at AS DATE), s.destination_workshop");
+        jdbcTemplate.update("INSERT INTO warehouse_stock (warehouse_id, product_id, quantity) "
+                + "SELECT warehouse_id, product_id, SUM(available_quantity) FROM stock_slots GROUP BY warehouse_id, product_id");
+    }
+
+    // rows were inserted with explicit ids; move every identity past them so the application can insert
+    private void restartIdentities() {
+        for (String table : List.of("supplier", "products", "orders", "order_item", "stock_slots",
+                "exit_slips", "exit_slip_items", "stock_movements")) {
+            Long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH, rows.size())));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.tricol.tricolspringbootrestapi.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/*
+    Time from JVM launch to the first successful request, for the packaged application started the plain
+    way and the startup-optimized way (AOT bean definitions, AppCDS archive, Liquibase skipped when the
+    changelog is unchanged). Both modes get the same arguments, only the database and ports; what differs is
+    what the fast-startup build froze into the AOT bean definitions. Every launch starts a new JVM on a
+    file-backed H2 database shared by all runs; the first launch of each mode is a warm-up that is not reported.
+
+    mvn -Pperf,fast-startup -DskipTests package
+    java -cp target/classes com.example.tricol.tricolspringbootrestapi.perf.StartupBenchmark --runs 10
+ */
+public class StartupBenchmark {
+
+    enum Mode {
+        DEFAULT("default"),
+        OPTIMIZED("optimized");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Path directory;
+    private final Path jar;
+    private final Path archive;
+    private final Path workDirectory;
+    private final int runs;
+    private final int port;
+    private final String path;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    StartupBenchmark(Map<String, String> options) throws IOException {
+        this.directory = Path.of(options.getOrDefault("directory", "target/fast-startup")).toAbsolutePath();
+        this.jar = options.containsKey("jar") ? Path.of(options.get("jar")).toAbsolutePath() : findJar(directory);
+        this.archive = directory.resolve(options.getOrDefault("archive", "application.jsa"));
+        this.workDirectory = Path.of(options.getOrDefault("work-directory", "target/startup-benchmark")).toAbsolutePath();
+        this.runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        this.port = Integer.parseInt(options.getOrDefault("port", "18080"));
+        this.path = options.getOrDefault("path", "/tricol/api/v2/products");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new StartupBenchmark(options).run();
+    }
+
+    void run() throws Exception {
+        if (!Files.isRegularFile(archive)) {
+            throw new IllegalStateException("No CDS archive at " + archive + ", build with mvn -Pperf,fast-startup package");
+        }
+        Files.createDirectories(workDirectory);
+        System.out.printf("Time to first GET %s, %s, %d runs per mode%n", path, jar.getFileName(), runs);
+
+        Map<Mode, List<Long>> results = new LinkedHashMap<>();
+        for (Mode mode : Mode.values()) {
+            launch(mode, 0);
+            List<Long> millis = new ArrayList<>();
+            for (int run = 1; run <= runs; run++) {
+                millis.add(launch(mode, run));
+            }
+            results.put(mode, millis);
+        }
+
+        System.out.printf("%n%-10s %8s %8s %8s%n", "mode", "min", "median", "max");
+        for (Map.Entry<Mode, List<Long>> result : results.entrySet()) {
+            long[] sorted = result.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%-10s %6dms %6dms %6dms%n", result.getKey(), sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1]);
+        }
+    }
+
+    private long launch(Mode mode, int run) throws Exception {
+        Path log = workDirectory.resolve(mode + "-" + run + ".log");
+        ProcessBuilder builder = new ProcessBuilder(command(mode))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            awaitFirstResponse(process, log);
+            long millis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            System.out.printf("%-10s %s %6dms%n", mode, run == 0 ? "warm-up" : "run " + run, millis);
+            return millis;
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private void awaitFirstResponse(Process process, Path log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No response within " + START_TIMEOUT.toSeconds() + "s, see " + log);
+    }
+
+    private List<String> command(Mode mode) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode == Mode.OPTIMIZED) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+            command.add("-Xlog:cds=error");
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(Arrays.asList(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:file:" + workDirectory.resolve("tricol") + ";MODE=MySQL;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--tricol.archive.enabled=false",
+                "--tricol.journal.directory=" + workDirectory.resolve("journal")));
+        return command;
+    }
+
+    private static Path findJar(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + directory + File.separator));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.tricol.tricolspringbootrestapi.archive;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockMovementArchiveTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2023, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2023, 3, 2);
+
+    @TempDir
+    Path directory;
+
+    private StockMovementArchive archive;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        archive = new StockMovementArchive(directory.toString());
+        archive.loadIndexes();
+        archive.writeSegment(DAY_1, movements(DAY_1, 1, 10));
+        archive.writeSegment(DAY_2, movements(DAY_2, 11, 10));
+    }
+
+    @Test
+    void searchReturnsNewestFirstAcrossSegments() {
+        ArchiveSlice slice = archive.search(ArchiveQuery.builder().build(), 8, 4, true);
+
+        assertEquals(20, slice.getTotalMatched());
+        assertEquals(List.of(12L, 11L, 10L, 9L), slice.getRows().stream().map(StockMovementResponse::getId).toList());
+        assertEquals(DAY_2.plusDays(1).atStartOfDay(), archive.watermark());
+    }
+
+    @Test
+    void searchAppliesFiltersAndKeysetPosition() {
+        ArchiveQuery query = ArchiveQuery.builder()
+                .productId(2L)
+                .type(StockMovement.Type.out)
+                .beforeDate(DAY_2.atTime(8, 5))
+                .beforeId(16L)
+                .build();
+
+        ArchiveSlice slice = archive.search(query, 0, 10, true);
+
+        assertEquals(List.of(14L, 12L, 10L, 8L, 6L, 4L, 2L), slice.getRows().stream().map(StockMovementResponse::getId).toList());
+        assertEquals(7, slice.getTotalMatched());
+    }
+
+    @Test
+    void segmentsSurviveARestartAndRewritesMergeRows() throws Exception {
+        archive.writeSegment(DAY_1, movements(DAY_1, 1, 3));
+
+        StockMovementArchive reopened = new StockMovementArchive(directory.toString());
+        reopened.loadIndexes();
+
+        assertEquals(20, reopened.search(ArchiveQuery.builder().build(), 0, 0, true).getTotalMatched());
+        assertEquals("LOT-1", reopened.search(ArchiveQuery.builder().lotNumber("LOT-1").build(), 0, 1, false)
+                .getRows().get(0).getLotNumber());
+    }
+
+    @Test
+    void countsAreCachedUntilTheNextSegmentWrite() throws Exception {
+        ArchiveQuery query = ArchiveQuery.builder().productId(2L).build();
+        assertEquals(10, archive.count(query));
+
+        // a segment deleted behind the archive's back shows whether the second count decoded it again
+        Files.delete(directory.resolve("2023/03/stock-movements-" + DAY_1 + ".seg.gz"));
+        assertEquals(10, archive.count(query));
+
+        archive.writeSegment(DAY_2.plusDays(1), movements(DAY_2.plusDays(1), 21, 4));
+        assertThrows(UncheckedIOException.class, () -> archive.count(query));
+    }
+
+    // ids firstId.. spread one minute apart from 08:00; even ids belong to product 2 and are exits
+    private static List<ArchivedStockMovement> movements(LocalDate day, long firstId, int count) {
+        List<ArchivedStockMovement> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            LocalDateTime date = day.atTime(8, 0).plusMinutes(i);
+            boolean exit = id % 2 == 0;
+            rows.add(new ArchivedStockMovement(id, exit ? "out" : "in", date, exit ? -2.0 : 10.0,
+                    exit ? 2L : 1L, "Product", "REF-" + (exit ? 2 : 1), exit ? null : 5L, id, "LOT-" + id));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.tricol.tricolspringbootrestapi.coalescing;
+
+import com.example.tricol.tricolspringbootrestapi.exception.ResourceNotFoundException;
+import com.example.tricol.tricolspringbootrestapi.mapper.ProductMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.outbox.Outbox;
+import com.example.tricol.tricolspringbootrestapi.service.impl.ProductServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    The first product query is held at the JDBC boundary by GateInspector until every other caller has joined
+    it, so the callers are guaranteed to overlap; the prepared statement count then shows how many queries ran.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.tricol.tricolspringbootrestapi.coalescing.ReadCoalescerTest$GateInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@ImportAutoConfiguration(TransactionManagerCustomizationAutoConfiguration.class)
+@Import({ProductServiceImpl.class, ProductMapperImpl.class, ReadCoalescer.class, CommittedWrites.class, Outbox.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReadCoalescerTest {
+
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private ReadCoalescer readCoalescer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        callers = Executors.newFixedThreadPool(CALLERS);
+        jdbcTemplate.update("INSERT INTO products (id, reference, name, unit_price, category, measure_unit, reorder_point, current_stock, created_at) "
+                + "VALUES (1, 'REF-1', 'Cotton', 10.0, 'Fabric', 'm', 5.0, 42.0, ?)", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        GateInspector.open();
+        callers.shutdownNow();
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    @Test
+    void simultaneousIdenticalLookupsRunOneQuery() throws Exception {
+        SingleFlight<Object, Object> stock = readCoalescer.lookup("product-stock");
+        long followersBefore = stock.getFollowers();
+        GateInspector.close();
+        statistics.clear();
+
+        List<CompletableFuture<Double>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> productService.getProductStock(1L), callers));
+        }
+        assertTrue(GateInspector.held.await(5, TimeUnit.SECONDS));
+        awaitFollowers(stock, followersBefore + CALLERS - 1);
+        GateInspector.open();
+
+        for (CompletableFuture<Double> result : results) {
+            assertEquals(42.0, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(CALLERS - 1, meterRegistry.get("tricol.single_flight.calls")
+                .tags("lookup", "product-stock", "outcome", "follower").functionCounter().count() - followersBefore);
+        assertEquals(0, stock.getInFlight());
+    }
+
+    @Test
+    void lookupsThatDoNotOverlapEachRunTheirOwnQuery() {
+        statistics.clear();
+        assertEquals(42.0, productService.getProductStock(1L));
+        jdbcTemplate.update("UPDATE products SET current_stock = 40.0 WHERE id = 1");
+        assertEquals(40.0, productService.getProductStock(1L));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void aReadAfterACommittedWriteDoesNotJoinAnOlderLookup() throws Exception {
+        SingleFlight<Object, Object> stock = readCoalescer.lookup("product-stock");
+        long leadersBefore = stock.getLeaders();
+        long followersBefore = stock.getFollowers();
+        GateInspector.close();
+
+        CompletableFuture<Double> older = CompletableFuture.supplyAsync(() -> productService.getProductStock(1L), callers);
+        assertTrue(GateInspector.held.await(5, TimeUnit.SECONDS));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("UPDATE products SET current_stock = 40.0 WHERE id = 1"));
+
+        assertEquals(40.0, productService.getProductStock(1L));
+        GateInspector.open();
+        older.get(5, TimeUnit.SECONDS);
+        assertEquals(leadersBefore + 2, stock.getLeaders());
+        assertEquals(followersBefore, stock.getFollowers());
+    }
+
+    @Test
+    void followersGetTheLeadersException() throws Exception {
+        SingleFlight<Object, Object> product = readCoalescer.lookup("product");
+        long followersBefore = product.getFollowers();
+        GateInspector.close();
+
+        List<CompletableFuture<Object>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> productService.getProductById(99L), callers));
+        }
+        assertTrue(GateInspector.held.await(5, TimeUnit.SECONDS));
+        awaitFollowers(product, followersBefore + 3);
+        GateInspector.open();
+
+        for (CompletableFuture<Object> result : results) {
+            Exception failure = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ResourceNotFoundException.class, failure.getCause());
+        }
+    }
+
+    private static void awaitFollowers(SingleFlight<Object, Object> flight, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getFollowers() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, flight.getFollowers());
+    }
+
+    // holds the first query on products after close() until the test opens the gate
+    public static class GateInspector implements StatementInspector {
+
+        static final AtomicBoolean armed = new AtomicBoolean();
+        static volatile CountDownLatch gate = new CountDownLatch(0);
+        static volatile CountDownLatch held = new CountDownLatch(1);
+
+        static void close() {
+            held = new CountDownLatch(1);
+            gate = new CountDownLatch(1);
+            armed.set(true);
+        }
+
+        static void open() {
+            armed.set(false);
+            gate.countDown();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("products") && armed.compareAndSet(true, false)) {
+                held.countDown();
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import liquibase.Liquibase;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    A restart is simulated with a second SpringLiquibase on the same database, passed through the post
+    processor the way the container does; it records whether it got as far as the update instead of
+    applying the changelog a second time.
+ */
+@DataJpaTest(properties = "tricol.liquibase.skip-unchanged=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ChangelogFingerprintConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ChangelogFingerprintTest {
+
+    @Autowired
+    private SpringLiquibase liquibase;
+
+    @Autowired
+    @Qualifier("changelogFingerprintPostProcessor")
+    private BeanPostProcessor postProcessor;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void theFirstRunStoresTheFingerprint() throws Exception {
+        assertEquals(ChangelogFingerprint.of(liquibase), new ChangelogFingerprint(jdbcTemplate).stored());
+    }
+
+    @Test
+    void anUnchangedChangelogIsNotRunAgain() throws Exception {
+        assertFalse(restart().updated);
+    }
+
+    @Test
+    void aChangedChangelogRunsAndRecordsTheNewFingerprint() throws Exception {
+        String current = new ChangelogFingerprint(jdbcTemplate).stored();
+        jdbcTemplate.update("UPDATE changelog_fingerprint SET fingerprint = 'stale' WHERE id = 1");
+
+        assertTrue(restart().updated);
+        assertEquals(current, new ChangelogFingerprint(jdbcTemplate).stored());
+    }
+
+    private RecordingLiquibase restart() throws Exception {
+        RecordingLiquibase restarted = new RecordingLiquibase();
+        restarted.setDataSource(dataSource);
+        restarted.setChangeLog(liquibase.getChangeLog());
+        restarted.setResourceLoader(new DefaultResourceLoader());
+        postProcessor.postProcessBeforeInitialization(restarted, "liquibase");
+        restarted.afterPropertiesSet();
+        postProcessor.postProcessAfterInitialization(restarted, "liquibase");
+        return restarted;
+    }
+
+    private static class RecordingLiquibase extends SpringLiquibase {
+
+        private boolean updated;
+
+        @Override
+        protected void performUpdate(Liquibase liquibase) {
+            updated = true;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPermitDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+    private final ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(pool, 2, 50);
+
+    @Test
+    void borrowersBeyondThePoolSizeWaitThenFail() throws SQLException {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertEquals(0, dataSource.getAvailablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        Connection third = dataSource.getConnection();
+        assertNotNull(third);
+        second.close();
+        third.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws SQLException {
+        Connection physical = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(physical);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(physical, times(2)).close();
+    }
+
+    @Test
+    void failedBorrowReturnsThePermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import com.example.tricol.tricolspringbootrestapi.coalescing.CommittedWrites;
+import com.example.tricol.tricolspringbootrestapi.coalescing.ReadCoalescer;
+import com.example.tricol.tricolspringbootrestapi.dto.request.ProductDTO;
+import com.example.tricol.tricolspringbootrestapi.mapper.ProductMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.outbox.Outbox;
+import com.example.tricol.tricolspringbootrestapi.outbox.OutboxRelay;
+import com.example.tricol.tricolspringbootrestapi.service.impl.ProductServiceImpl;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    Two embedded databases stand in for the primary and the replica. The same product is seeded with a
+    different name in each, so the name a service call returns tells which database served it.
+ */
+@DataJpaTest(properties = {
+        "tricol.datasource.replica.url=jdbc:h2:mem:tricol-replica-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "tricol.datasource.replica.username=sa",
+        "tricol.datasource.replica.driver-class-name=org.h2.Driver",
+        "tricol.datasource.read-your-writes-ms=300"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ReadWriteRoutingConfiguration.class, ProductServiceImpl.class, ProductMapperImpl.class, ReadCoalescer.class, CommittedWrites.class, Outbox.class, OutboxRelay.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReadWriteRoutingTest {
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products (id, reference, name, unit_price, category, measure_unit, "
+            + "reorder_point, current_stock, created_at) VALUES (1, 'REF-1', ?, 10.0, 'Fabric', 'm', 5.0, 0.0, ?)";
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private RecentWriteWindow recentWrites;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @BeforeEach
+    void seed() throws Exception {
+        // Liquibase only runs on the primary; the replica gets the same schema once per context
+        Long schema = new JdbcTemplate(replica).queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'products'", Long.class);
+        if (schema == 0) {
+            SpringLiquibase liquibase = new SpringLiquibase();
+            liquibase.setDataSource(replica);
+            liquibase.setChangeLog("classpath:db/db.changelog-master.yaml");
+            liquibase.setResourceLoader(new DefaultResourceLoader());
+            liquibase.afterPropertiesSet();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        new JdbcTemplate(primary).update("DELETE FROM products");
+        new JdbcTemplate(replica).update("DELETE FROM products");
+        new JdbcTemplate(primary).update(INSERT_PRODUCT, "on primary", now);
+        new JdbcTemplate(replica).update(INSERT_PRODUCT, "on replica", now);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("on replica", productService.getProductById(1L).getName());
+        assertEquals("on replica", productService.getProducts().get(0).getName());
+    }
+
+    @Test
+    void everythingElseGoesToThePrimary() {
+        assertEquals("on primary", jdbcTemplate.queryForObject("SELECT name FROM products WHERE id = 1", String.class));
+    }
+
+    @Test
+    void readsFollowTheirWritesUntilTheWindowCloses() throws InterruptedException {
+        ProductDTO rename = new ProductDTO();
+        rename.setName("renamed on primary");
+        productService.updateProduct(1L, rename);
+
+        assertEquals("renamed on primary", productService.getProductById(1L).getName());
+
+        Thread.sleep(400);
+        assertEquals("on replica", productService.getProductById(1L).getName());
+    }
+
+    @Test
+    void transactionsThatOnlyReadLeaveTheReplicaInUse() throws InterruptedException {
+        waitForTheWindowToClose();
+
+        for (int tick = 0; tick < 3; tick++) {
+            assertEquals(0, outboxRelay.relayBatch());
+        }
+        transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class));
+
+        assertFalse(recentWrites.isOpen());
+        assertEquals("on replica", productService.getProductById(1L).getName());
+    }
+
+    @Test
+    void writesOutsideATransactionOpenTheWindow() throws InterruptedException {
+        waitForTheWindowToClose();
+
+        jdbcTemplate.update("UPDATE products SET name = 'renamed on primary' WHERE id = 1");
+
+        assertEquals("renamed on primary", productService.getProductById(1L).getName());
+    }
+
+    private void waitForTheWindowToClose() throws InterruptedException {
+        while (recentWrites.isOpen()) {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.tricol.tricolspringbootrestapi.datasource;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryListenerTest {
+
+    private final StatementStatistics statistics = new StatementStatistics(100);
+    private final List<Runnable> logged = new ArrayList<>();
+
+    private JdbcDataSource database;
+
+    @BeforeEach
+    void setUp() {
+        database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:sql-log-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(database).execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(100))");
+    }
+
+    @Test
+    void literalsAndInListsShareOneShape() {
+        assertEquals("select * from products p1_0 where p1_0.id in (?) and p1_0.name = ?",
+                StatementStatistics.shapeOf("select * from products p1_0\n   where p1_0.id in (1, 2, 3) and p1_0.name = 'it''s'"));
+        assertEquals("select * from products p1_0 where p1_0.id in (?) and p1_0.name = ?",
+                StatementStatistics.shapeOf("select * from products p1_0 where p1_0.id in (?,?) and p1_0.name = ?"));
+        assertEquals("insert into products (id,name) values (?,?)",
+                StatementStatistics.shapeOf("insert into products (id,name) values (?,?)"));
+    }
+
+    @Test
+    void everyExecutionIsCountedUnderItsShape() {
+        JdbcTemplate jdbc = new JdbcTemplate(proxy(new SlowQueryListener(statistics, 10_000, 0.0, logged::add)));
+        for (long id = 1; id <= 5; id++) {
+            jdbc.update("INSERT INTO products (id, name) VALUES (?, ?)", id, "Product " + id);
+        }
+        jdbc.queryForList("SELECT name FROM products WHERE id IN (1, 2)");
+        jdbc.queryForList("SELECT name FROM products WHERE id IN (3, 4, 5)");
+
+        List<StatementStatistics.ShapeSnapshot> top = statistics.top(10);
+        assertEquals(2, top.size());
+        assertEquals(5, count(top, "INSERT INTO products (id, name) VALUES (?, ?)"));
+        assertEquals(2, count(top, "SELECT name FROM products WHERE id IN (?)"));
+        assertTrue(logged.isEmpty());
+    }
+
+    @Test
+    void statementsOverTheThresholdAreLogged() {
+        JdbcTemplate jdbc = new JdbcTemplate(proxy(new SlowQueryListener(statistics, 0, 0.0, logged::add)));
+        jdbc.update("INSERT INTO products (id, name) VALUES (?, ?)", 1L, "Cotton");
+        jdbc.batchUpdate("INSERT INTO products (id, name) VALUES (?, ?)", List.of(new Object[]{2L, null}, new Object[]{3L, "Linen"}));
+
+        assertEquals(2, logged.size());
+        logged.forEach(Runnable::run);
+        // the batch is one execution
+        assertEquals(2, statistics.top(1).get(0).slow());
+    }
+
+    @Test
+    void aSampledShareOfTheRestIsLogged() {
+        JdbcTemplate everything = new JdbcTemplate(proxy(new SlowQueryListener(statistics, 10_000, 1.0, logged::add)));
+        everything.queryForList("SELECT name FROM products");
+        everything.queryForList("SELECT name FROM products");
+        assertEquals(2, logged.size());
+        assertEquals(0, statistics.top(1).get(0).slow());
+    }
+
+    @Test
+    void aFullLogQueueDropsEntriesInsteadOfBlocking() {
+        SlowQueryListener listener = new SlowQueryListener(statistics, 0, 0.0, entry -> {
+            throw new RejectedExecutionException();
+        });
+        new JdbcTemplate(proxy(listener)).queryForList("SELECT name FROM products");
+
+        assertEquals(1, listener.getDropped());
+        assertEquals(1, statistics.top(1).get(0).count());
+    }
+
+    @Test
+    void shapesBeyondTheCapGoToOther() {
+        StatementStatistics capped = new StatementStatistics(2);
+        capped.record("select 1 from products", 1_000, false);
+        capped.record("select 1 from supplier", 1_000, false);
+        capped.record("select 1 from orders", 1_000, false);
+        capped.record("select 1 from exit_slips", 1_000, false);
+
+        assertEquals(3, capped.size());
+        assertEquals(2, count(capped.top(10), StatementStatistics.OTHER));
+    }
+
+    private DataSource proxy(SlowQueryListener listener) {
+        return ProxyDataSourceBuilder.create(database).listener(listener).build();
+    }
+
+    private static long count(List<StatementStatistics.ShapeSnapshot> shapes, String shape) {
+        return shapes.stream().filter(s -> s.shape().equals(shape)).mapToLong(StatementStatistics.ShapeSnapshot::count).sum();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.tricol.tricolspringbootrestapi.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockEventJournalTest {
+
+    private static final int RECORDS_PER_FILE = 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayRebuildsStockAndLotsAcrossFiles() throws Exception {
+        StockEventJournal journal = new StockEventJournal(directory.toString(), RECORDS_PER_FILE);
+        // 20 lots of 10 on two products, then 3 taken from each: 40 records over 3 files
+        for (long slot = 1; slot <= 20; slot++) {
+            journal.append(record(JournalRecord.LOT_CREATED, slot % 2 + 1, slot, 10.0));
+            journal.append(record(JournalRecord.LOT_CONSUMED, slot % 2 + 1, slot, -3.0));
+        }
+        journal.force();
+
+        StockEventJournal reopened = new StockEventJournal(directory.toString(), RECORDS_PER_FILE);
+        StockProjection projection = new StockProjection();
+        long replayed = reopened.replay(0, projection::apply);
+
+        assertEquals(40, replayed);
+        assertEquals(40, reopened.getSequence());
+        assertEquals(70.0, projection.stockOf(1L));
+        assertEquals(70.0, projection.stockOf(2L));
+        assertEquals(10, projection.openLotsOf(1L).size());
+        assertEquals(7.0, projection.openLotsOf(1L).get(0).getAvailableQuantity());
+        assertEquals(41, reopened.append(record(JournalRecord.LOT_CREATED, 1L, 21L, 5.0)));
+    }
+
+    @Test
+    void replayStartsAfterTheGivenSequence() throws Exception {
+        StockEventJournal journal = new StockEventJournal(directory.toString(), RECORDS_PER_FILE);
+        for (long slot = 1; slot <= 40; slot++) {
+            journal.append(record(JournalRecord.LOT_CREATED, 1L, slot, 1.0));
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        journal.replay(35, record -> sequences.add(record.getSequence()));
+
+        assertEquals(List.of(36L, 37L, 38L, 39L, 40L), sequences);
+    }
+
+    @Test
+    void tornTailRecordIsDiscardedOnOpen() throws Exception {
+        StockEventJournal journal = new StockEventJournal(directory.toString(), RECORDS_PER_FILE);
+        for (long slot = 1; slot <= 5; slot++) {
+            journal.append(record(JournalRecord.LOT_CREATED, 1L, slot, 1.0));
+        }
+        journal.force();
+
+        // flip a byte inside the fifth record's payload, as a crash in the middle of a write would
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("stock-events-000001.journal").toFile(), "rw")) {
+            file.seek(4L * JournalRecord.SIZE + 30);
+            file.write(0x7F);
+        }
+
+        StockEventJournal reopened = new StockEventJournal(directory.toString(), RECORDS_PER_FILE);
+
+        assertEquals(4, reopened.getSequence());
+        assertEquals(4, reopened.replay(0, record -> { }));
+        assertEquals(5, reopened.append(record(JournalRecord.LOT_CREATED, 1L, 5L, 1.0)));
+    }
+
+    private static JournalRecord record(byte kind, long productId, long slotId, double quantity) {
+        JournalRecord record = new JournalRecord();
+        record.setKind(kind);
+        record.setDate(LocalDateTime.of(2024, 5, 1, 10, 0).plusSeconds(slotId));
+        record.setProductId(productId);
+        record.setSlotId(slotId);
+        record.setQuantity(quantity);
+        record.setUnitPrice(12.5);
+        return record;
+    }
+}
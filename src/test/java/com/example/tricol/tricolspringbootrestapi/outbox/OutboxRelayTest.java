@@ -0,0 +1,167 @@
+package com.example.tricol.tricolspringbootrestapi.outbox;
+
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// batches of two, delivered to the file sink and to RecordingSink, which can be told to fail its next batch;
+// the scheduled relay is pushed out of the way so only the tests drive it
+@DataJpaTest(properties = {
+        "tricol.outbox.file.enabled=true",
+        "tricol.outbox.relay.batch-size=2",
+        "tricol.outbox.relay.interval-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({Outbox.class, OutboxRelay.class, FileOutboxSink.class, OutboxRelayTest.RecordingSink.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OutboxRelayTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void outboxFile(DynamicPropertyRegistry registry) {
+        registry.add("tricol.outbox.file.path", () -> directory.resolve("events.jsonl").toString());
+    }
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private FileOutboxSink fileSink;
+
+    @Autowired
+    private RecordingSink recordingSink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        outboxEventRepository.deleteAllInBatch();
+        recordingSink.batches.clear();
+        fileSink.close();
+        Files.deleteIfExists(directory.resolve("events.jsonl"));
+    }
+
+    @Test
+    void eventsExistOnlyIfTheirTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.productStockChanged(product(1L, 10.0), 0.0, "adjustment", null);
+            status.setRollbackOnly();
+        });
+        assertEquals(0, outboxEventRepository.count());
+
+        transactionTemplate.executeWithoutResult(status -> outbox.productStockChanged(product(1L, 10.0), 0.0, "adjustment", null));
+        assertEquals(1, outboxEventRepository.count());
+
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outbox.productStockChanged(product(1L, 10.0), 0.0, "adjustment", null));
+    }
+
+    @Test
+    void relayDeliversEveryEventInIdOrderAndEmptiesTheOutbox() throws IOException {
+        for (long productId = 1; productId <= 5; productId++) {
+            long id = productId;
+            transactionTemplate.executeWithoutResult(status -> outbox.productStockChanged(product(id, id * 10.0), 0.0, "adjustment", null));
+        }
+
+        relay.relayPending();
+
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(List.of(2, 2, 1), recordingSink.batches.stream().map(List::size).toList());
+
+        List<String> lines = Files.readAllLines(directory.resolve("events.jsonl"));
+        assertEquals(5, lines.size());
+        ObjectMapper json = new ObjectMapper();
+        long previousId = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode event = json.readTree(lines.get(i));
+            assertTrue(event.get("id").asLong() > previousId);
+            previousId = event.get("id").asLong();
+            assertEquals(Outbox.PRODUCT_STOCK_CHANGED, event.get("eventType").asText());
+            assertEquals(i + 1, event.get("payload").get("productId").asLong());
+            assertEquals((i + 1) * 10.0, event.get("payload").get("currentStock").asDouble());
+        }
+    }
+
+    @Test
+    void aFailedBatchIsDeliveredAgainOnTheNextRun() {
+        for (long productId = 1; productId <= 3; productId++) {
+            long id = productId;
+            transactionTemplate.executeWithoutResult(status -> outbox.productStockChanged(product(id, 1.0), 0.0, "adjustment", null));
+        }
+        recordingSink.failNext = true;
+
+        assertEquals(0, relay.relayBatch());
+        assertEquals(3, outboxEventRepository.count());
+        assertEquals(1, meterRegistry.get("tricol.outbox.failures").tag("sink", "RecordingSink").counter().count());
+
+        relay.relayPending();
+
+        assertEquals(0, outboxEventRepository.count());
+        List<List<Long>> delivered = recordingSink.batches.stream()
+                .map(batch -> batch.stream().map(OutboxMessage::aggregateId).toList())
+                .toList();
+        assertEquals(List.of(List.of(1L, 2L), List.of(1L, 2L), List.of(3L)), delivered);
+    }
+
+    private static Product product(Long id, double currentStock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setReference("REF-" + id);
+        product.setCurrentStock(currentStock);
+        return product;
+    }
+
+    // keeps every batch it was handed, including the one it failed
+    static class RecordingSink implements OutboxSink {
+
+        final List<List<OutboxMessage>> batches = new ArrayList<>();
+        volatile boolean failNext;
+
+        @Override
+        public void deliver(List<OutboxMessage> batch) {
+            batches.add(batch);
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("sink unavailable");
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.OrderResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.exception.BadRequestException;
+import com.example.tricol.tricolspringbootrestapi.model.ExitSlip;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.sparse.FieldSelection;
+import com.example.tricol.tricolspringbootrestapi.sparse.SparseViews;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// checks through the generated SQL that ?fields= reads only the chosen columns and joins
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.tricol.tricolspringbootrestapi.repository.SparseRepositoryTest$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SparseRepositoryTest {
+
+    private static final Sort MOVEMENT_ORDER = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ExitSlipRepository exitSlipRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @BeforeAll
+    void seed() {
+        StockTestData.seed(jdbcTemplate);
+        jdbcTemplate.update("INSERT INTO order_item (quantity, unit_price, total, order_id, product_id) VALUES (2.0, 10.0, 20.0, 1, 1)");
+        jdbcTemplate.update("INSERT INTO order_item (quantity, unit_price, total, order_id, product_id) VALUES (3.0, 10.0, 30.0, 1, 2)");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM order_item");
+        StockTestData.cleanUp(jdbcTemplate);
+    }
+
+    @Test
+    void orderListReadsOnlyTheChosenColumnsWithoutItems() {
+        CapturingInspector.STATEMENTS.clear();
+        List<OrderResponse> orders = orderRepository.findSparse(SparseViews.ORDERS,
+                FieldSelection.parse("status", SparseViews.ORDERS), null, Sort.by("id"));
+
+        assertEquals(StockTestData.PRODUCTS, orders.size());
+        assertEquals("delivered", orders.get(0).getStatus());
+        assertNull(orders.get(0).getTotalAmount());
+        assertNull(orders.get(0).getItems());
+
+        assertEquals(1, CapturingInspector.STATEMENTS.size());
+        String sql = CapturingInspector.STATEMENTS.get(0).toLowerCase();
+        assertFalse(sql.contains(" join "), sql);
+        assertFalse(sql.contains("total_amount"), sql);
+        assertFalse(sql.contains("order_item"), sql);
+    }
+
+    @Test
+    void itemsCostOneQueryForAllTheOrders() {
+        CapturingInspector.STATEMENTS.clear();
+        List<OrderResponse> orders = orderRepository.findSparse(SparseViews.ORDERS,
+                FieldSelection.parse("id,items", SparseViews.ORDERS), null, Sort.by("id"));
+
+        assertEquals(2, CapturingInspector.STATEMENTS.size());
+        assertEquals(List.of(20.0, 30.0), orders.get(0).getItems().stream().map(item -> item.getTotal()).toList());
+        assertEquals("Product 2", orders.get(0).getItems().get(1).getProductName());
+        assertTrue(orders.get(1).getItems().isEmpty());
+    }
+
+    @Test
+    void exitSlipsFilterAndLoadTheirItems() {
+        Specification<ExitSlip> byWorkshop = (root, query, cb) -> cb.equal(root.get("destinationWorkshop"), "Workshop 3");
+        List<ExitSlipResponse> slips = exitSlipRepository.findSparse(SparseViews.EXIT_SLIPS,
+                FieldSelection.parse("slipNumber,items", SparseViews.EXIT_SLIPS), byWorkshop, Sort.by("id"));
+
+        assertFalse(slips.isEmpty());
+        assertTrue(slips.stream().allMatch(slip -> slip.getItems().size() == 1 && slip.getStatus() == null));
+        assertEquals("REF-1", slips.get(0).getItems().get(0).getProductReference());
+    }
+
+    @Test
+    void movementsJoinOnlyForTheChosenFields() {
+        Specification<StockMovement> byProduct = (root, query, cb) -> cb.equal(root.get("product").get("id"), 7L);
+        PageRequest page = PageRequest.of(1, 20, MOVEMENT_ORDER);
+
+        CapturingInspector.STATEMENTS.clear();
+        List<StockMovementResponse> quantities = stockMovementRepository.findResponses(byProduct, page,
+                FieldSelection.parse("id,quantity", SparseViews.MOVEMENTS)).getContent();
+        assertTrue(CapturingInspector.STATEMENTS.stream().noneMatch(sql -> sql.toLowerCase().contains(" join ")),
+                () -> String.join("\n", CapturingInspector.STATEMENTS));
+
+        CapturingInspector.STATEMENTS.clear();
+        List<StockMovementResponse> lots = stockMovementRepository.findResponses(byProduct, page,
+                FieldSelection.parse("lotNumber", SparseViews.MOVEMENTS)).getContent();
+        String sql = CapturingInspector.STATEMENTS.stream().map(String::toLowerCase)
+                .filter(statement -> statement.contains("lot_number")).findFirst().orElseThrow();
+        assertTrue(sql.contains("join stock_slots"), sql);
+        assertFalse(sql.contains("products"), sql);
+
+        List<StockMovementResponse> full = stockMovementRepository.findResponses(byProduct, page).getContent();
+        assertEquals(full.stream().map(StockMovementResponse::getQuantity).toList(),
+                quantities.stream().map(StockMovementResponse::getQuantity).toList());
+        assertEquals(full.stream().map(StockMovementResponse::getLotNumber).toList(),
+                lots.stream().map(StockMovementResponse::getLotNumber).toList());
+    }
+
+    @Test
+    void selectionIsCheckedAndProjectsOnlyTheChosenFields() {
+        assertThrows(BadRequestException.class, () -> FieldSelection.parse("id,supplier", SparseViews.ORDERS));
+        assertThrows(BadRequestException.class, () -> FieldSelection.parse(" , ", SparseViews.ORDERS));
+
+        FieldSelection fields = FieldSelection.parse("totalAmount, id", SparseViews.ORDERS);
+        OrderResponse order = orderRepository.findSparse(SparseViews.ORDERS, fields, null, Sort.by("id")).get(0);
+        assertEquals(List.of("id", "totalAmount"), List.copyOf(fields.project(order).keySet()));
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.mapper.StockMovementMapper;
+import com.example.tricol.tricolspringbootrestapi.mapper.StockMovementMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+    The constructor projection must return exactly what the entity path plus StockMovementMapper returned.
+    StockMovementProjectionBenchmark in src/jmh/java compares the cost of both paths per page.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(StockMovementMapperImpl.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class StockMovementProjectionTest {
+
+    private static final Sort ORDER = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockMovementMapper stockMovementMapper;
+
+    @BeforeAll
+    void seed() {
+        StockTestData.seed(jdbcTemplate);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        StockTestData.cleanUp(jdbcTemplate);
+    }
+
+    @Test
+    void projectionMatchesTheEntityPath() {
+        Specification<StockMovement> byProduct = (root, query, cb) -> cb.equal(root.get("product").get("id"), 7L);
+        Specification<StockMovement> byLot = (root, query, cb) -> cb.equal(root.get("stockSlot").get("lotNumber"), "LOT-PLAN-321");
+
+        for (Specification<StockMovement> spec : List.of(byProduct, byLot)) {
+            Pageable pageable = PageRequest.of(1, PAGE_SIZE, ORDER);
+
+            Page<StockMovementResponse> projected = stockMovementRepository.findResponses(spec, pageable);
+            Page<StockMovementResponse> mapped = stockMovementRepository.findAll(spec, pageable).map(stockMovementMapper::toResponse);
+
+            assertEquals(mapped.getTotalElements(), projected.getTotalElements());
+            assertEquals(mapped.getContent(), projected.getContent());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import com.example.tricol.tricolspringbootrestapi.archive.StockMovementArchive;
+import com.example.tricol.tricolspringbootrestapi.dto.response.CursorSliceResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipLotResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.LotTraceResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.service.LotTraceService;
+import com.example.tricol.tricolspringbootrestapi.service.StockMovementService;
+import com.example.tricol.tricolspringbootrestapi.service.impl.LotTraceServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.StockMovementServiceImpl;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    Runs every statement generated by the movement search and the FIFO lookup against a seeded
+    embedded database and checks through EXPLAIN that none of them falls back to a table scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.tricol.tricolspringbootrestapi.repository.StockQueryPlanTest$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StockMovementServiceImpl.class, StockMovementArchive.class, LotTraceServiceImpl.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class StockQueryPlanTest {
+
+    private static final LocalDateTime START = StockTestData.START;
+    private static final int MOVEMENTS_PER_SLOT = StockTestData.MOVEMENTS_PER_SLOT;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private LotTraceService lotTraceService;
+
+    @Autowired
+    private StockSlotRepository stockSlotRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeAll
+    void seed() {
+        StockTestData.seed(jdbcTemplate);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        StockTestData.cleanUp(jdbcTemplate);
+    }
+
+    @BeforeEach
+    void resetCapture() {
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    static Stream<Arguments> searchFilters() {
+        LocalDateTime from = START.plusDays(10);
+        LocalDateTime to = START.plusDays(20);
+        return Stream.of(
+                Arguments.of("no filter", null, null, null, null, null, null),
+                Arguments.of("date range", from, to, null, null, null, null),
+                Arguments.of("start date", from, null, null, null, null, null),
+                Arguments.of("end date", null, to, null, null, null, null),
+                Arguments.of("product", null, null, 7L, null, null, null),
+                Arguments.of("reference", null, null, null, "REF-12", null, null),
+                Arguments.of("type", null, null, null, null, StockMovement.Type.in, null),
+                Arguments.of("lot number", null, null, null, null, null, "LOT-PLAN-321"),
+                Arguments.of("product and date range", from, to, 7L, null, null, null),
+                Arguments.of("type and date range", from, to, null, null, StockMovement.Type.out, null),
+                Arguments.of("product and type", null, null, 7L, null, StockMovement.Type.in, null)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("searchFilters")
+    void movementSearchNeverScansTheTable(String label, LocalDateTime startDate, LocalDateTime endDate, Long productId,
+                                          String reference, StockMovement.Type type, String lotNumber) {
+        // offset mode, including the COUNT query behind Page
+        stockMovementService.searchMovements(startDate, endDate, productId, reference, type, lotNumber, PageRequest.of(2, 5), null);
+
+        // keyset mode: first slice with an explicit count, then a seek from its cursor
+        CursorSliceResponse<StockMovementResponse> first = stockMovementService.scrollMovements(
+                startDate, endDate, productId, reference, type, lotNumber, null, 5, true, null);
+        if (first.getNextCursor() != null) {
+            stockMovementService.scrollMovements(startDate, endDate, productId, reference, type, lotNumber,
+                    first.getNextCursor(), 5, false, null);
+        }
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void fifoLotLookupNeverScansTheTable() {
+        Product product = productRepository.findById(3L).orElseThrow();
+
+        List<?> slots = stockSlotRepository.findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(product, 0.0);
+
+        assertFalse(slots.isEmpty());
+        assertNoTableScan();
+    }
+
+    @Test
+    void lotTraceNeverScansTheTable() {
+        LotTraceResponse trace = lotTraceService.traceLot("LOT-PLAN-321");
+        List<ExitSlipLotResponse> lots = lotTraceService.getExitSlipLots(321L);
+
+        assertEquals(MOVEMENTS_PER_SLOT - 1, trace.getConsumptions().size());
+        assertEquals(List.of("Workshop " + (321 % 7)), trace.getWorkshops());
+        assertEquals(MOVEMENTS_PER_SLOT - 1, lots.size());
+        assertTrue(lots.stream().allMatch(lot -> "LOT-PLAN-321".equals(lot.getLotNumber())));
+        assertNoTableScan();
+    }
+
+    private void assertNoTableScan() {
+        List<String> selects = CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .toList();
+        assertFalse(selects.isEmpty(), "No statement was captured");
+
+        for (String sql : selects) {
+            String plan = jdbcTemplate.execute((Connection connection) -> {
+                // parameters stay unbound, EXPLAIN only needs the statement shape
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                     ResultSet result = statement.executeQuery()) {
+                    return result.next() ? result.getString(1) : null;
+                }
+            });
+            assertNotNull(plan);
+            assertFalse(plan.contains(".tableScan"), () -> "Full table scan in plan:\n" + plan);
+        }
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
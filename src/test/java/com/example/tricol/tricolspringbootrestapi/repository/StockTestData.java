@@ -0,0 +1,79 @@
+package com.example.tricol.tricolspringbootrestapi.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// bulk seed shared by the repository tests: 1 supplier, 40 products with one delivered order each, 2000 lots,
+// 20000 movements, and one validated exit slip per lot whose single line carries that lot's OUT movements
+final class StockTestData {
+
+    static final int PRODUCTS = 40;
+    static final int SLOTS_PER_PRODUCT = 50;
+    static final int MOVEMENTS_PER_SLOT = 10;
+    static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private StockTestData() {
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO supplier (id, society, email, phone) VALUES (1, 'Plan Supplier', 'plan@tricol.test', '0600000000')");
+
+        List<Object[]> products = new ArrayList<>();
+        List<Object[]> orders = new ArrayList<>();
+        for (long p = 1; p <= PRODUCTS; p++) {
+            products.add(new Object[]{p, "REF-" + p, "Product " + p, 10.0, "Fabric", "m", 5.0, 0.0, Timestamp.valueOf(START)});
+            orders.add(new Object[]{p, 1L, Timestamp.valueOf(START), "delivered", 0.0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, reference, name, unit_price, category, measure_unit, reorder_point, current_stock, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", products);
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, supplier_id, order_date, status, total_amount) VALUES (?, ?, ?, ?, ?)", orders);
+
+        List<Object[]> slots = new ArrayList<>();
+        List<Object[]> exitSlips = new ArrayList<>();
+        List<Object[]> exitSlipItems = new ArrayList<>();
+        List<Object[]> movements = new ArrayList<>();
+        long slotId = 0;
+        long movementId = 0;
+        for (long p = 1; p <= PRODUCTS; p++) {
+            for (int s = 0; s < SLOTS_PER_PRODUCT; s++) {
+                slotId++;
+                LocalDateTime entry = START.plusHours(slotId);
+                slots.add(new Object[]{slotId, "LOT-PLAN-" + slotId, Timestamp.valueOf(entry), 100.0, s % 3 == 0 ? 0.0 : 40.0, 12.5, p, p});
+                exitSlips.add(new Object[]{slotId, "BS-PLAN-" + slotId, Timestamp.valueOf(entry), "Workshop " + (slotId % 7),
+                        "PRODUCTION", "VALIDATED", Timestamp.valueOf(entry), Timestamp.valueOf(entry)});
+                exitSlipItems.add(new Object[]{slotId, slotId, p, 54.0, 54.0});
+                for (int m = 0; m < MOVEMENTS_PER_SLOT; m++) {
+                    movementId++;
+                    boolean in = m == 0;
+                    movements.add(new Object[]{movementId, in ? "in" : "out", Timestamp.valueOf(entry.plusMinutes(m)),
+                            in ? 100.0 : -6.0, p, in ? p : null, slotId, in ? null : slotId});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_slots (id, lot_number, entry_date, quantity, available_quantity, unit_price, order_id, product_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", slots);
+        jdbcTemplate.batchUpdate("INSERT INTO exit_slips (id, slip_number, exit_date, destination_workshop, reason, status, created_at, validated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", exitSlips);
+        jdbcTemplate.batchUpdate("INSERT INTO exit_slip_items (id, exit_slip_id, product_id, requested_quantity, actual_quantity) "
+                + "VALUES (?, ?, ?, ?, ?)", exitSlipItems);
+        jdbcTemplate.batchUpdate("INSERT INTO stock_movements (id, type, date, quantity, product_id, order_id, stock_slot_id, exit_slip_item_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", movements);
+
+        // refresh selectivity statistics so the optimizer sees the seeded distribution
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    static void cleanUp(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        jdbcTemplate.update("DELETE FROM exit_slip_items");
+        jdbcTemplate.update("DELETE FROM exit_slips");
+        jdbcTemplate.update("DELETE FROM stock_slots");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM supplier");
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.tricol.tricolspringbootrestapi.search;
+
+import com.example.tricol.tricolspringbootrestapi.model.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupplierSearchIndexTest {
+
+    private final SupplierSearchIndex index = new SupplierSearchIndex(0.6);
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild(List.of(
+                supplier(1L, "Textiles Atlas", "Karim Bennani", "Casablanca", "contact@atlas.ma"),
+                supplier(2L, "Société Générale de Tissage", "Nadia Alaoui", "Fès", "achats@sgt.ma"),
+                supplier(3L, "Maroc Boutons", "Youssef Atlas", "Tanger", "ventes@boutons.ma"),
+                supplier(4L, "Fils du Nord", "Samira Idrissi", "Tétouan", "info@filsdunord.ma")));
+    }
+
+    @Test
+    void societyPrefixRanksBeforeOtherFields() {
+        assertEquals(List.of(1L, 3L), ids("atlas"));
+        assertEquals(List.of(1L, 3L), ids("ATL"));
+    }
+
+    @Test
+    void matchesInfixesAccentsAndEmails() {
+        assertEquals(List.of(2L), ids("generale"));
+        assertEquals(List.of(4L), ids("tetouan"));
+        assertEquals(List.of(3L), ids("boutons.ma"));
+        assertEquals(List.of(2L), ids("issage"));
+    }
+
+    @Test
+    void toleratesATypo() {
+        assertEquals(List.of(2L), ids("tisage"));
+        assertTrue(ids("zzz").isEmpty());
+        assertTrue(ids("  ").isEmpty());
+    }
+
+    @Test
+    void repeatedQueriesCountFromZero() {
+        for (int round = 0; round < 3; round++) {
+            assertEquals(List.of(2L), ids("tisage"));
+            assertEquals(List.of(1L, 3L), ids("atlas"));
+        }
+    }
+
+    @Test
+    void updatesAndDeletesAreVisibleImmediately() {
+        index.index(supplier(4L, "Fils et Rubans", "Samira Idrissi", "Rabat", "info@filsdunord.ma"));
+        index.remove(1L);
+
+        assertEquals(List.of(3L), ids("atlas"));
+        assertEquals(List.of(4L), ids("rubans"));
+        assertTrue(ids("tetouan").isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void pagesThroughRankedMatchesAndSurvivesCompaction() {
+        List<Supplier> suppliers = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            suppliers.add(supplier(id, "Atlas " + id, "Agent " + id, "Rabat", "s" + id + "@atlas.ma"));
+        }
+        index.rebuild(suppliers);
+        // re-index every supplier twice so that freed slots trigger compaction
+        for (int round = 0; round < 2; round++) {
+            suppliers.forEach(index::index);
+        }
+
+        Page<Long> second = index.search("atlas", PageRequest.of(1, 20));
+
+        assertEquals(3000, second.getTotalElements());
+        assertEquals(20, second.getContent().size());
+        assertEquals(3000, index.size());
+        assertEquals(List.of(2999L), index.search("atlas 2999", PageRequest.of(0, 1)).getContent());
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, PageRequest.of(0, 10)).getContent();
+    }
+
+    private static Supplier supplier(Long id, String society, String contactAgent, String city, String email) {
+        Supplier supplier = new Supplier();
+        supplier.setId(id);
+        supplier.setSociety(society);
+        supplier.setContactAgent(contactAgent);
+        supplier.setCity(city);
+        supplier.setEmail(email);
+        supplier.setPhone("0600000000");
+        return supplier;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.coalescing.CommittedWrites;
+import com.example.tricol.tricolspringbootrestapi.coalescing.ReadCoalescer;
+import com.example.tricol.tricolspringbootrestapi.dto.request.BatchOperationRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.BatchRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.response.BatchOperationResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.BatchResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.BatchOperationType;
+import com.example.tricol.tricolspringbootrestapi.enums.BatchTransactionMode;
+import com.example.tricol.tricolspringbootrestapi.mapper.ExitSlipItemMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.ExitSlipMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.OrderItemMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.OrderMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.ProductMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.WarehouseMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.metrics.InventoryMetrics;
+import com.example.tricol.tricolspringbootrestapi.outbox.Outbox;
+import com.example.tricol.tricolspringbootrestapi.service.impl.BatchServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.ExitSlipServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.OrderServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.ProductServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.StockReportServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.WarehouseServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the create order, receive, create slip, validate flow of the mobile clients, committed for real by each batch
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({BatchServiceImpl.class, OrderServiceImpl.class, ExitSlipServiceImpl.class, ProductServiceImpl.class, WarehouseServiceImpl.class,
+        StockReportServiceImpl.class, ReadCoalescer.class, CommittedWrites.class, Outbox.class, OrderMapperImpl.class, OrderItemMapperImpl.class,
+        ExitSlipMapperImpl.class, ExitSlipItemMapperImpl.class, ProductMapperImpl.class, WarehouseMapperImpl.class,
+        InventoryMetrics.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BatchServiceTest {
+
+    private static final String ORDER = """
+            {"supplierId": 1, "items": [{"productId": 1, "quantity": 5}]}""";
+    private static final String SLIP = """
+            {"exitDate": "2024-05-06T08:00:00", "destinationWorkshop": "Cutting", "reason": "PRODUCTION",
+             "items": [{"productId": 1, "quantity": %s}]}""";
+
+    @Autowired
+    private BatchServiceImpl batchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO supplier (id, society, email, phone) VALUES (1, 'Supplier', 's@tricol.test', '0600000000')");
+        jdbcTemplate.update("INSERT INTO products (id, reference, name, unit_price, category, measure_unit, reorder_point, current_stock, created_at) "
+                + "VALUES (1, 'REF-1', 'Product 1', 10.0, 'Fabric', 'm', 5.0, 0.0, CURRENT_TIMESTAMP)");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("outbox_events", "warehouse_stock", "workshop_daily_rollups", "stock_daily_rollups",
+                "stock_movements", "exit_slip_items", "exit_slips", "stock_slots", "order_item", "orders", "products", "supplier")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void theWholeFlowRunsInOneTransactionWithReferences() throws JsonProcessingException {
+        BatchResponse response = batchService.execute(new BatchRequest(BatchTransactionMode.SINGLE, List.of(
+                operation("order", BatchOperationType.CREATE_ORDER, null, ORDER),
+                operation(null, BatchOperationType.RECEIVE_ORDER, "${order.id}", null),
+                operation("slip", BatchOperationType.CREATE_EXIT_SLIP, null, SLIP.formatted("3")),
+                operation(null, BatchOperationType.VALIDATE_EXIT_SLIP, "${slip.id}", null),
+                operation(null, BatchOperationType.GET_PRODUCT_STOCK, "${slip.items.0.productId}", null))));
+
+        assertTrue(response.isCommitted());
+        assertEquals(List.of(201, 200, 201, 200, 200), statuses(response));
+        assertEquals(2.0, response.getResults().get(4).getBody());
+        assertEquals(2.0, stock());
+    }
+
+    @Test
+    void aFailedOperationRollsBackTheSingleTransaction() throws JsonProcessingException {
+        BatchResponse response = batchService.execute(new BatchRequest(BatchTransactionMode.SINGLE, List.of(
+                operation("order", BatchOperationType.CREATE_ORDER, null, ORDER),
+                operation(null, BatchOperationType.RECEIVE_ORDER, "${0.id}", null),
+                operation("slip", BatchOperationType.CREATE_EXIT_SLIP, null, SLIP.formatted("50")),
+                operation(null, BatchOperationType.VALIDATE_EXIT_SLIP, "${slip.id}", null),
+                operation(null, BatchOperationType.GET_ORDER, "${order.id}", null))));
+
+        assertFalse(response.isCommitted());
+        assertEquals(List.of(424, 424, 424, 500, 424), statuses(response));
+        assertTrue(response.getResults().get(3).getError().getMessage().contains("Insufficient stock"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+        assertEquals(0.0, stock());
+    }
+
+    @Test
+    void perOperationKeepsEarlierCommitsAndFailsOnlyDependents() throws JsonProcessingException {
+        BatchResponse response = batchService.execute(new BatchRequest(BatchTransactionMode.PER_OPERATION, List.of(
+                operation("order", BatchOperationType.CREATE_ORDER, null, ORDER),
+                operation("missing", BatchOperationType.GET_ORDER, "999", null),
+                operation(null, BatchOperationType.RECEIVE_ORDER, "${order.id}", null),
+                operation(null, BatchOperationType.GET_ORDER, "${missing.id}", null),
+                operation(null, BatchOperationType.CREATE_EXIT_SLIP, null, """
+                        {"destinationWorkshop": "Cutting", "reason": "PRODUCTION", "items": []}"""))));
+
+        assertFalse(response.isCommitted());
+        assertEquals(List.of(201, 404, 200, 424, 400), statuses(response));
+        assertEquals(List.of("exitDate", "items"), response.getResults().get(4).getError().getValidationErrors().stream()
+                .map(error -> error.getField()).sorted().toList());
+        assertEquals(5.0, stock());
+    }
+
+    private BatchOperationRequest operation(String ref, BatchOperationType op, String target, String body) throws JsonProcessingException {
+        return new BatchOperationRequest(ref, op, target, body != null ? objectMapper.readTree(body) : null);
+    }
+
+    private static List<Integer> statuses(BatchResponse response) {
+        return response.getResults().stream().map(BatchOperationResponse::getStatus).toList();
+    }
+
+    private double stock() {
+        return jdbcTemplate.queryForObject("SELECT current_stock FROM products WHERE id = 1", Double.class);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.tricol.tricolspringbootrestapi.service;
 
+import com.example.tricol.tricolspringbootrestapi.coalescing.ReadCoalescer;
 import com.example.tricol.tricolspringbootrestapi.dto.response.ExitSlipResponse;
 import com.example.tricol.tricolspringbootrestapi.enums.ExitReason;
 import com.example.tricol.tricolspringbootrestapi.enums.ExitSlipStatus;
@@ -7,7 +8,9 @@ import com.example.tricol.tricolspringbootrestapi.exception.InsufficientStockExc
 import com.example.tricol.tricolspringbootrestapi.mapper.ExitSlipMapper;
 import com.example.tricol.tricolspringbootrestapi.mapper.OrderMapper;
 import com.example.tricol.tricolspringbootrestapi.mapper.OrderItemMapper;
+import com.example.tricol.tricolspringbootrestapi.metrics.InventoryMetrics;
 import com.example.tricol.tricolspringbootrestapi.model.*;
+import com.example.tricol.tricolspringbootrestapi.outbox.Outbox;
 import com.example.tricol.tricolspringbootrestapi.repository.ExitSlipRepository;
 import com.example.tricol.tricolspringbootrestapi.repository.OrderRepository;
 import com.example.tricol.tricolspringbootrestapi.repository.ProductRepository;
@@ -16,13 +19,16 @@ import com.example.tricol.tricolspringbootrestapi.repository.StockSlotRepository
 import com.example.tricol.tricolspringbootrestapi.repository.SupplierRepository;
 import com.example.tricol.tricolspringbootrestapi.service.impl.ExitSlipServiceImpl;
 import com.example.tricol.tricolspringbootrestapi.service.impl.OrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -94,6 +100,22 @@ public class ExitSlipServiceTest {
     @Mock
     private SupplierRepository supplierRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReadCoalescer readCoalescer;
+
+    @Mock
+    private Outbox outbox;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Warehouse warehouse = new Warehouse(1L, "MAIN", "Main warehouse", LocalDateTime.now());
+
+    @Spy
+    private InventoryMetrics inventoryMetrics = new InventoryMetrics(meterRegistry);
+
     @InjectMocks
     private ExitSlipServiceImpl exitSlipService;
 
@@ -138,7 +160,7 @@ public class ExitSlipServiceTest {
 
         // Mock repository behaviors
         when(exitSlipRepository.findById(1L)).thenReturn(Optional.of(exitSlip));
-        when(stockSlotRepository.findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(testProduct, 0.0))
+        when(stockSlotRepository.findByProductAndWarehouseAndAvailableQuantityGreaterThanOrderByEntryDateAsc(testProduct, warehouse, 0.0))
                 .thenReturn(List.of(slot));
         when(stockSlotRepository.save(any(StockSlot.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -169,6 +191,10 @@ public class ExitSlipServiceTest {
 
         // Verify stock movement was created
         verify(stockMovementRepository, times(1)).save(any(StockMovement.class));
+
+        // Verify the validation and the stock change were written to the outbox
+        verify(outbox).productStockChanged(any(Product.class), eq(100.0), eq("exit-slip-validated"), any());
+        verify(outbox).exitSlipValidated(any(ExitSlip.class), argThat(movements -> movements.size() == 1));
         System.out.println("test finished");
     }
 
@@ -227,7 +253,7 @@ public class ExitSlipServiceTest {
 
         // Mock repository behaviors
         when(exitSlipRepository.findById(2L)).thenReturn(Optional.of(exitSlip));
-        when(stockSlotRepository.findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(testProduct, 0.0))
+        when(stockSlotRepository.findByProductAndWarehouseAndAvailableQuantityGreaterThanOrderByEntryDateAsc(testProduct, warehouse, 0.0))
                 .thenReturn(List.of(slot1, slot2, slot3));
         when(stockSlotRepository.save(any(StockSlot.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -259,6 +285,10 @@ public class ExitSlipServiceTest {
 
         // Verify stock movements were created (2 movements: from slot1 and slot2)
         verify(stockMovementRepository, times(2)).save(any(StockMovement.class));
+
+        // Metrics: one validation that read the three open lots
+        assertEquals(3.0, meterRegistry.get("tricol.exit_slip.lots_scanned").summary().totalAmount(), 0.001);
+        assertEquals(1.0, meterRegistry.get("tricol.exit_slip.validations").tag("outcome", "validated").counter().count(), 0.001);
     }
 
     @Test
@@ -299,7 +329,7 @@ public class ExitSlipServiceTest {
 
         // Mock repository behaviors
         when(exitSlipRepository.findById(3L)).thenReturn(Optional.of(exitSlip));
-        when(stockSlotRepository.findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(testProduct, 0.0))
+        when(stockSlotRepository.findByProductAndWarehouseAndAvailableQuantityGreaterThanOrderByEntryDateAsc(testProduct, warehouse, 0.0))
                 .thenReturn(List.of(slot));
 
         // Act & Assert: Validation should throw an exception
@@ -325,6 +355,9 @@ public class ExitSlipServiceTest {
         assertEquals(50.0, testProduct.getCurrentStock(), 0.001);
         System.out.println("4- " + slot.getAvailableQuantity());
         System.out.println("5- " + testProduct.getCurrentStock());
+
+        // Metrics: both attempts counted as insufficient stock
+        assertEquals(2.0, meterRegistry.get("tricol.exit_slip.validations").tag("outcome", "insufficient_stock").counter().count(), 0.001);
     }
 
     @Test
@@ -372,7 +405,7 @@ public class ExitSlipServiceTest {
 
         // Mock repository behaviors
         when(exitSlipRepository.findById(4L)).thenReturn(Optional.of(exitSlip));
-        when(stockSlotRepository.findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(testProduct, 0.0))
+        when(stockSlotRepository.findByProductAndWarehouseAndAvailableQuantityGreaterThanOrderByEntryDateAsc(testProduct, warehouse, 0.0))
                 .thenReturn(List.of(slot1, slot2));
         when(stockSlotRepository.save(any(StockSlot.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -410,6 +443,7 @@ public class ExitSlipServiceTest {
         exitSlip.setSlipNumber("BS-TEST-" + String.format("%04d", id));
         exitSlip.setExitDate(LocalDateTime.now());
         exitSlip.setDestinationWorkshop("Test Workshop");
+        exitSlip.setWarehouse(warehouse);
         exitSlip.setReason(ExitReason.PRODUCTION);
         exitSlip.setStatus(status);
         exitSlip.setCreatedBy("SYSTEM");
@@ -463,6 +497,7 @@ public class ExitSlipServiceTest {
         Order order = new Order();
         order.setId(1L);
         order.setSupplier(supplier);
+        order.setWarehouse(warehouse);
         order.setStatus(Order.OrderStatus.pending);
         order.setTotalAmount(500.0);
 
@@ -541,6 +576,7 @@ public class ExitSlipServiceTest {
         assertEquals(75.0, createdSlot2.getUnitPrice(), 0.001, "Slot 2 price should match order item");
         assertEquals(order, createdSlot2.getOrder(), "Slot 2 should reference the order");
         assertNotNull(createdSlot2.getEntryDate(), "Slot 2 should have an entry date");
+        assertTrue(createdSlots.stream().allMatch(slot -> slot.getWarehouse() == warehouse), "Lots are created in the order's warehouse");
 
         // Assert: Verify product stocks were updated (2 products)
         ArgumentCaptor<Product> productCaptor = ArgumentCaptor.forClass(Product.class);
@@ -681,7 +717,7 @@ public class ExitSlipServiceTest {
 
         // Mock repositories
         when(exitSlipRepository.findById(1L)).thenReturn(Optional.of(exitSlip));
-        when(stockSlotRepository.findByProductAndAvailableQuantityGreaterThanOrderByEntryDateAsc(product, 0.0))
+        when(stockSlotRepository.findByProductAndWarehouseAndAvailableQuantityGreaterThanOrderByEntryDateAsc(product, warehouse, 0.0))
                 .thenReturn(List.of(slot));
         when(stockSlotRepository.save(any(StockSlot.class))).thenAnswer(inv -> inv.getArgument(0));
         when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -0,0 +1,101 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.archive.ArchivedStockMovement;
+import com.example.tricol.tricolspringbootrestapi.archive.StockMovementArchive;
+import com.example.tricol.tricolspringbootrestapi.dto.response.LotConsumptionResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.LotTraceResponse;
+import com.example.tricol.tricolspringbootrestapi.service.impl.LotTraceServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// a lot consumed on both sides of the archive watermark: the trace lists the hot consumptions and counts the archived ones
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({LotTraceServiceImpl.class, StockMovementArchive.class})
+public class LotTraceServiceTest {
+
+    private static final LocalDate ARCHIVED_DAY = LocalDate.of(2023, 3, 1);
+    private static final LocalDateTime HOT = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) {
+        registry.add("tricol.archive.directory", archiveDirectory::toString);
+    }
+
+    @Autowired
+    private LotTraceService lotTraceService;
+
+    @Autowired
+    private StockMovementArchive archive;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() throws IOException {
+        jdbcTemplate.update("INSERT INTO supplier (id, society, email, phone) VALUES (1, 'Supplier', 's@tricol.test', '0600000000')");
+        jdbcTemplate.update("INSERT INTO products (id, reference, name, unit_price, category, measure_unit, reorder_point, current_stock, created_at) "
+                + "VALUES (1, 'REF-1', 'Product 1', 10.0, 'Fabric', 'm', 5.0, 0.0, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO orders (id, supplier_id, order_date, status, total_amount) VALUES (1, 1, ?, 'delivered', 0.0)",
+                Timestamp.valueOf(HOT));
+        jdbcTemplate.update("INSERT INTO stock_slots (id, lot_number, entry_date, quantity, available_quantity, unit_price, order_id, product_id) "
+                + "VALUES (1, 'LOT-1', ?, 100.0, 80.0, 10.0, 1, 1), (2, 'LOT-2', ?, 100.0, 100.0, 10.0, 1, 1)",
+                Timestamp.valueOf(ARCHIVED_DAY.atTime(7, 0)), Timestamp.valueOf(HOT));
+        jdbcTemplate.update("INSERT INTO exit_slips (id, slip_number, exit_date, destination_workshop, reason, status, created_at, validated_at) "
+                + "VALUES (1, 'BS-1', ?, 'Workshop 1', 'PRODUCTION', 'VALIDATED', ?, ?)",
+                Timestamp.valueOf(HOT), Timestamp.valueOf(HOT), Timestamp.valueOf(HOT));
+        jdbcTemplate.update("INSERT INTO exit_slip_items (id, exit_slip_id, product_id, requested_quantity, actual_quantity) "
+                + "VALUES (1, 1, 1, 5.0, 5.0)");
+        jdbcTemplate.update("INSERT INTO stock_movements (id, type, date, quantity, product_id, stock_slot_id, exit_slip_item_id) "
+                + "VALUES (1, 'out', ?, -5.0, 1, 1, 1)", Timestamp.valueOf(HOT));
+
+        // two archived consumptions of LOT-1; 12 is also left in the table, as after a failed archive delete
+        archive.writeSegment(ARCHIVED_DAY, List.of(
+                new ArchivedStockMovement(10L, "in", ARCHIVED_DAY.atTime(7, 0), 100.0, 1L, "Product 1", "REF-1", 1L, 1L, "LOT-1"),
+                new ArchivedStockMovement(11L, "out", ARCHIVED_DAY.atTime(9, 0), -10.0, 1L, "Product 1", "REF-1", null, 1L, "LOT-1"),
+                new ArchivedStockMovement(12L, "out", ARCHIVED_DAY.atTime(10, 0), -5.0, 1L, "Product 1", "REF-1", null, 1L, "LOT-1")));
+        jdbcTemplate.update("INSERT INTO stock_movements (id, type, date, quantity, product_id, stock_slot_id, exit_slip_item_id) "
+                + "VALUES (12, 'out', ?, -5.0, 1, 1, 1)", Timestamp.valueOf(ARCHIVED_DAY.atTime(10, 0)));
+    }
+
+    @Test
+    void traceIsMarkedWhereTheArchiveTakesOver() {
+        LotTraceResponse trace = lotTraceService.traceLot("LOT-1");
+
+        assertEquals(List.of(1L), trace.getConsumptions().stream().map(LotConsumptionResponse::getMovementId).toList());
+        assertEquals(List.of("Workshop 1"), trace.getWorkshops());
+        assertEquals(archive.watermark(), trace.getArchivedBefore());
+        assertEquals(2, trace.getArchivedConsumptions());
+    }
+
+    @Test
+    void lotWithoutArchivedConsumptionsIsComplete() {
+        LotTraceResponse trace = lotTraceService.traceLot("LOT-2");
+
+        assertTrue(trace.getConsumptions().isEmpty());
+        assertNull(trace.getArchivedBefore());
+        assertEquals(0, trace.getArchivedConsumptions());
+    }
+}
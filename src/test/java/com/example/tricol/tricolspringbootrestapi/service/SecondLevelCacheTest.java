@@ -0,0 +1,201 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.coalescing.CommittedWrites;
+import com.example.tricol.tricolspringbootrestapi.coalescing.ReadCoalescer;
+import com.example.tricol.tricolspringbootrestapi.dto.request.CreateExitSlipRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.CreateOrderItemRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.CreateOrderRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.ExitSlipItemRequest;
+import com.example.tricol.tricolspringbootrestapi.enums.ExitReason;
+import com.example.tricol.tricolspringbootrestapi.mapper.ExitSlipItemMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.ExitSlipMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.OrderItemMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.OrderMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.WarehouseMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.metrics.InventoryMetrics;
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.outbox.Outbox;
+import com.example.tricol.tricolspringbootrestapi.repository.ProductRepository;
+import com.example.tricol.tricolspringbootrestapi.service.impl.ExitSlipServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.OrderServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.StockReportServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.WarehouseServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    Product and Supplier in the second-level cache: statements per request with a cold and a warm cache, and cached stock staying equal to the database after receptions and exit slip validations.
+    Every service call runs in its own transaction, as it does behind the controllers.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderServiceImpl.class, ExitSlipServiceImpl.class, StockReportServiceImpl.class, ReadCoalescer.class, CommittedWrites.class, Outbox.class, WarehouseServiceImpl.class,
+        OrderMapperImpl.class, OrderItemMapperImpl.class, ExitSlipMapperImpl.class, ExitSlipItemMapperImpl.class, WarehouseMapperImpl.class, InventoryMetrics.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    private static final int SUPPLIERS = 5;
+    private static final int PRODUCTS = 10;
+    private static final int ORDERS = 40;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private ExitSlipServiceImpl exitSlipService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        for (long id = 1; id <= SUPPLIERS; id++) {
+            jdbcTemplate.update("INSERT INTO supplier (id, society, email, phone) VALUES (?, ?, ?, '0600000000')",
+                    id, "Supplier " + id, "s" + id + "@tricol.test");
+        }
+        for (long id = 1; id <= PRODUCTS; id++) {
+            jdbcTemplate.update("INSERT INTO products (id, reference, name, unit_price, category, measure_unit, reorder_point, current_stock, created_at) "
+                    + "VALUES (?, ?, ?, 10.0, 'Fabric', 'm', 5.0, 0.0, ?)", id, "REF-" + id, "Product " + id, now);
+        }
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= ORDERS; id++) {
+            orders.add(new Object[]{id, 1 + id % SUPPLIERS, now, "pending", 30.0});
+            for (long item = 0; item < 3; item++) {
+                items.add(new Object[]{1.0, 10.0, 10.0, id, 1 + (id + item) % PRODUCTS});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, supplier_id, order_date, status, total_amount) VALUES (?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO order_item (quantity, unit_price, total, order_id, product_id) VALUES (?, ?, ?, ?, ?)", items);
+        jdbcTemplate.execute("ALTER TABLE orders ALTER COLUMN id RESTART WITH " + (ORDERS + 1));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("warehouse_stock", "workshop_daily_rollups", "stock_daily_rollups", "stock_movements", "exit_slip_items",
+                "exit_slips", "stock_slots", "order_item", "orders", "products", "supplier")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void warmCacheCutsStatementsPerRequest() {
+        long coldListing = statementsFor(() -> orderService.getAllOrders());
+        long warmListing = statementsFor(() -> orderService.getAllOrders());
+
+        entityManagerFactory.getCache().evictAll();
+        long coldCreate = statementsFor(() -> orderService.createOrder(order(1.0, 1L, 2L, 3L)));
+        long warmCreate = statementsFor(() -> orderService.createOrder(order(1.0, 1L, 2L, 3L)));
+
+        // the suppliers of the listing; the supplier and the three products of the creation
+        assertEquals(coldListing - SUPPLIERS, warmListing);
+        assertEquals(coldCreate - 4, warmCreate);
+    }
+
+    @Test
+    void receptionAndValidationKeepCachedStockCurrent() {
+        orderService.getAllOrders();
+
+        orderService.receiveOrder(orderService.createOrder(order(1.0, 2L)).getId());
+        assertCachedStockMatchesDatabase();
+
+        exitSlipService.validateExitSlip(exitSlipService.createExitSlip(slip(2L, "1.0")).getId());
+        assertCachedStockMatchesDatabase();
+
+        orderService.receiveOrder(orderService.createOrder(order(7.0, 3L)).getId());
+        assertCachedStockMatchesDatabase();
+        assertEquals(0.0, currentStock(2L));
+        assertEquals(7.0, currentStock(3L));
+    }
+
+    @Test
+    void rollupUpsertsLeaveTheProductRegionAlone() {
+        orderService.getAllOrders();
+        orderService.receiveOrder(orderService.createOrder(order(1.0, 2L)).getId());
+
+        statistics.clear();
+        productRepository.findById(4L);
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    // stock read through the cache (no statement) must equal the row
+    private void assertCachedStockMatchesDatabase() {
+        for (long id = 1; id <= PRODUCTS; id++) {
+            statistics.clear();
+            double cached = currentStock(id);
+            assertEquals(0, statistics.getPrepareStatementCount(), "product " + id + " was not served from the cache");
+            Double stored = jdbcTemplate.queryForObject("SELECT current_stock FROM products WHERE id = ?", Double.class, id);
+            assertEquals(stored, cached, "product " + id);
+        }
+    }
+
+    private double currentStock(Long productId) {
+        return productRepository.findById(productId).map(Product::getCurrentStock).orElseThrow();
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static CreateOrderRequest order(double quantity, Long... productIds) {
+        List<CreateOrderItemRequest> items = new ArrayList<>();
+        for (Long id : productIds) {
+            CreateOrderItemRequest item = new CreateOrderItemRequest();
+            item.setProductId(id);
+            item.setQuantity(quantity);
+            items.add(item);
+        }
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setSupplierId(1L);
+        request.setItems(items);
+        return request;
+    }
+
+    private static CreateExitSlipRequest slip(Long productId, String quantity) {
+        return new CreateExitSlipRequest(LocalDateTime.now(), "Cutting", ExitReason.PRODUCTION, null,
+                List.of(new ExitSlipItemRequest(productId, new BigDecimal(quantity), null)), null);
+    }
+}
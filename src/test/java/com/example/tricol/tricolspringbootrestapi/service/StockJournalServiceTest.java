@@ -0,0 +1,110 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
+import com.example.tricol.tricolspringbootrestapi.journal.StockEventJournal;
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.model.StockSlot;
+import com.example.tricol.tricolspringbootrestapi.repository.StockSlotRepository;
+import com.example.tricol.tricolspringbootrestapi.service.impl.StockJournalServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// committing threads only queue their records; every one of them still reaches the journal exactly once
+class StockJournalServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int RECORDS_PER_THREAD = 500;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentCommitsAreAllWrittenByTheSingleWriter() throws Exception {
+        StockEventJournal journal = new StockEventJournal(directory.toString(), 1024);
+        // a small queue, so committing threads also have to wait for the writer
+        StockJournalServiceImpl service = new StockJournalServiceImpl(journal, mock(StockSlotRepository.class), 16);
+        service.startWriter();
+
+        ExecutorService committers = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long firstSlot = (long) t * RECORDS_PER_THREAD + 1;
+            done.add(committers.submit(() -> {
+                start.await();
+                for (long slot = firstSlot; slot < firstSlot + RECORDS_PER_THREAD; slot++) {
+                    service.record(new StockMovementEvent(reception(slot), null));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : done) {
+            future.get();
+        }
+        committers.shutdown();
+        service.stopWriter();
+
+        assertEquals(THREADS * RECORDS_PER_THREAD, journal.getSequence());
+        Set<Long> slots = new HashSet<>();
+        journal.replay(0, record -> slots.add(record.getSlotId()));
+        assertEquals(THREADS * RECORDS_PER_THREAD, slots.size());
+        assertEquals(THREADS * RECORDS_PER_THREAD * 2.0, service.getProjectedStock(1L).getCurrentStock());
+    }
+
+    @Test
+    void startSnapshotsTheOpenLotsOfANewJournal() throws Exception {
+        Product product = new Product();
+        product.setId(1L);
+        StockSlot open = new StockSlot();
+        open.setId(1L);
+        open.setProduct(product);
+        open.setAvailableQuantity(40.0);
+        open.setUnitPrice(10.0);
+        StockSlot empty = new StockSlot();
+        empty.setId(2L);
+        empty.setProduct(product);
+        empty.setAvailableQuantity(0.0);
+        StockSlotRepository stockSlotRepository = mock(StockSlotRepository.class);
+        when(stockSlotRepository.findAll()).thenReturn(List.of(open, empty));
+
+        StockEventJournal journal = new StockEventJournal(directory.toString(), 1024);
+        StockJournalServiceImpl service = new StockJournalServiceImpl(journal, stockSlotRepository, 16);
+        service.start();
+
+        assertTrue(service.isRunning());
+        assertEquals(1, journal.getSequence());
+        assertEquals(40.0, service.getProjectedStock(1L).getCurrentStock());
+    }
+
+    private static StockMovement reception(long slotId) {
+        Product product = new Product();
+        product.setId(1L);
+        StockSlot slot = new StockSlot();
+        slot.setId(slotId);
+        slot.setUnitPrice(10.0);
+
+        StockMovement movement = new StockMovement();
+        movement.setId(slotId);
+        movement.setType(StockMovement.Type.in);
+        movement.setQuantity(2.0);
+        movement.setProduct(product);
+        movement.setStockSlot(slot);
+        return movement;
+    }
+}
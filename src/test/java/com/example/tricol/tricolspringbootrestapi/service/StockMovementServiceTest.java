@@ -0,0 +1,203 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.archive.ArchivedStockMovement;
+import com.example.tricol.tricolspringbootrestapi.archive.StockMovementArchive;
+import com.example.tricol.tricolspringbootrestapi.dto.response.CursorSliceResponse;
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.service.impl.StockMovementServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    Keyset paging over movements that share their date four at a time, so slice ends fall inside runs of equal
+    dates, and both search modes running from the database rows into an archived day.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StockMovementServiceImpl.class, StockMovementArchive.class})
+public class StockMovementServiceTest {
+
+    private static final int MOVEMENTS = 25;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 8, 0);
+    private static final LocalDate ARCHIVED_DAY = LocalDate.of(2023, 3, 1);
+    private static final int ARCHIVED = 10;
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) {
+        registry.add("tricol.archive.directory", archiveDirectory::toString);
+    }
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private StockMovementArchive archive;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() throws IOException {
+        jdbcTemplate.update("INSERT INTO supplier (id, society, email, phone) VALUES (1, 'Supplier', 's@tricol.test', '0600000000')");
+        jdbcTemplate.update("INSERT INTO products (id, reference, name, unit_price, category, measure_unit, reorder_point, current_stock, created_at) "
+                + "VALUES (1, 'REF-1', 'Product 1', 10.0, 'Fabric', 'm', 5.0, 0.0, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO orders (id, supplier_id, order_date, status, total_amount) VALUES (1, 1, ?, 'delivered', 0.0)",
+                Timestamp.valueOf(START));
+        jdbcTemplate.update("INSERT INTO stock_slots (id, lot_number, entry_date, quantity, available_quantity, unit_price, order_id, product_id) "
+                + "VALUES (1, 'LOT-1', ?, 100.0, 100.0, 10.0, 1, 1)", Timestamp.valueOf(START));
+
+        List<Object[]> movements = new ArrayList<>();
+        for (long id = 1; id <= MOVEMENTS; id++) {
+            // ids are shuffled against the dates so that (date, id) and id alone disagree on the order
+            long shuffled = (id * 7) % MOVEMENTS + 1;
+            movements.add(new Object[]{shuffled, "in", Timestamp.valueOf(START.plusMinutes((id - 1) / 4)), 1.0, 1L, 1L, 1L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_movements (id, type, date, quantity, product_id, order_id, stock_slot_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", movements);
+
+        // ids 101..110 are archived; 105 is also left in the table, as after a failed archive delete
+        List<ArchivedStockMovement> archived = new ArrayList<>();
+        for (long id = 101; id < 101 + ARCHIVED; id++) {
+            archived.add(new ArchivedStockMovement(id, "in", ARCHIVED_DAY.atTime(8, 0).plusMinutes((id - 101) / 3), 1.0,
+                    1L, "Product 1", "REF-1", 1L, 1L, "LOT-1"));
+        }
+        archive.writeSegment(ARCHIVED_DAY, archived);
+        jdbcTemplate.update("INSERT INTO stock_movements (id, type, date, quantity, product_id, order_id, stock_slot_id) "
+                + "VALUES (105, 'in', ?, 1.0, 1, 1, 1)", Timestamp.valueOf(ARCHIVED_DAY.atTime(8, 1)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 4, 5, 24, 25, 30})
+    void scrollingVisitsEveryMovementOnceInSearchOrder(int size) {
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM stock_movements WHERE id <= 100 ORDER BY date DESC, id DESC", Long.class);
+
+        List<Long> visited = new ArrayList<>();
+        String cursor = "";
+        int slices = 0;
+        do {
+            CursorSliceResponse<StockMovementResponse> slice = stockMovementService.scrollMovements(
+                    null, null, null, null, null, null, cursor, size, slices == 0, null);
+            if (slices == 0) {
+                assertEquals(MOVEMENTS, slice.getTotalElements());
+            } else {
+                assertNull(slice.getTotalElements());
+            }
+            assertEquals(slice.getContent().size(), slice.getSize());
+            assertEquals(slice.isHasNext(), slice.getNextCursor() != null);
+            assertTrue(slice.isHasNext() ? slice.getSize() == size : slice.getSize() <= size);
+            slice.getContent().forEach(movement -> visited.add(movement.getId()));
+            cursor = slice.getNextCursor();
+            slices++;
+        } while (cursor != null);
+
+        assertEquals(expected, visited);
+        assertEquals(MOVEMENTS, new HashSet<>(visited).size());
+        assertEquals((MOVEMENTS + size - 1) / size, slices);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4})
+    void filtersHoldAcrossSlices(int size) {
+        jdbcTemplate.update("UPDATE stock_movements SET type = 'out' WHERE MOD(id, 3) = 0 AND id <= 100");
+        List<Long> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM stock_movements WHERE type = 'out' ORDER BY date DESC, id DESC", Long.class);
+
+        List<Long> visited = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            CursorSliceResponse<StockMovementResponse> slice = stockMovementService.scrollMovements(
+                    null, null, null, null, StockMovement.Type.out, null, cursor, size, false, null);
+            slice.getContent().forEach(movement -> visited.add(movement.getId()));
+            cursor = slice.getNextCursor();
+        }
+
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void searchWithoutStartDateStaysOnTheDatabaseRows() {
+        Page<StockMovementResponse> page = stockMovementService.searchMovements(
+                null, null, null, null, null, null, PageRequest.of(0, 100), null);
+
+        assertEquals(MOVEMENTS, page.getTotalElements());
+        assertTrue(page.getContent().stream().allMatch(movement -> movement.getId() <= MOVEMENTS));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 7, 35})
+    void pagesRunFromTheDatabaseRowsIntoTheArchive(int size) {
+        List<Long> expected = expectedWithArchive();
+
+        List<Long> visited = new ArrayList<>();
+        for (int number = 0; number * size < expected.size(); number++) {
+            Page<StockMovementResponse> page = stockMovementService.searchMovements(
+                    ARCHIVED_DAY.atStartOfDay(), null, null, null, null, null, PageRequest.of(number, size), null);
+            assertEquals(expected.size(), page.getTotalElements());
+            page.getContent().forEach(movement -> visited.add(movement.getId()));
+        }
+
+        assertEquals(expected, visited);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 5})
+    void slicesRunFromTheDatabaseRowsIntoTheArchive(int size) {
+        List<Long> expected = expectedWithArchive();
+
+        List<Long> visited = new ArrayList<>();
+        String cursor = "";
+        boolean first = true;
+        while (cursor != null) {
+            CursorSliceResponse<StockMovementResponse> slice = stockMovementService.scrollMovements(
+                    ARCHIVED_DAY.atStartOfDay(), null, null, null, null, null, cursor, size, first, null);
+            if (first) {
+                assertEquals(expected.size(), slice.getTotalElements());
+            }
+            slice.getContent().forEach(movement -> visited.add(movement.getId()));
+            cursor = slice.getNextCursor();
+            first = false;
+        }
+
+        assertEquals(expected, visited);
+    }
+
+    // the database rows newest first, then the archived day newest first, with 105 only once
+    private List<Long> expectedWithArchive() {
+        List<Long> expected = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT id FROM stock_movements WHERE id <= 100 ORDER BY date DESC, id DESC", Long.class));
+        for (long id = 100 + ARCHIVED; id > 100; id--) {
+            expected.add(id);
+        }
+        assertEquals(MOVEMENTS + ARCHIVED, expected.size());
+        return expected;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.RollupTotalResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.ReportGranularity;
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
+import com.example.tricol.tricolspringbootrestapi.exception.BadRequestException;
+import com.example.tricol.tricolspringbootrestapi.model.ExitSlip;
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.service.impl.StockReportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(StockReportServiceImpl.class)
+public class StockReportServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 5, 6);
+
+    @Autowired
+    private StockReportServiceImpl stockReportService;
+
+    @BeforeEach
+    void recordMovements() {
+        ExitSlip cutting = exitSlip("Cutting");
+        ExitSlip sewing = exitSlip("Sewing");
+
+        record(movement(1L, StockMovement.Type.in, 100.0, MONDAY), null);
+        record(movement(1L, StockMovement.Type.out, -10.0, MONDAY), cutting);
+        record(movement(1L, StockMovement.Type.out, -5.0, MONDAY), cutting);
+        record(movement(1L, StockMovement.Type.out, -20.0, MONDAY.plusDays(2)), sewing);
+        record(movement(2L, StockMovement.Type.out, -7.0, MONDAY.plusDays(7)), cutting);
+        record(movement(1L, StockMovement.Type.out, -3.0, LocalDate.of(2024, 6, 3)), cutting);
+    }
+
+    @Test
+    void dailyTotalsComeFromTheUpsertedRollups() {
+        List<RollupTotalResponse> totals = stockReportService.getMovementTotals(
+                MONDAY, MONDAY, ReportGranularity.DAY, 1L, null);
+
+        assertEquals(2, totals.size());
+        assertTotal(totals.get(0), MONDAY, "in", 100.0, 1);
+        assertTotal(totals.get(1), MONDAY, "out", -15.0, 2);
+    }
+
+    @Test
+    void weeklyAndMonthlyTotalsAreBucketedFromDailyRows() {
+        List<RollupTotalResponse> weekly = stockReportService.getMovementTotals(
+                MONDAY, LocalDate.of(2024, 6, 30), ReportGranularity.WEEK, null, StockMovement.Type.out);
+        List<RollupTotalResponse> monthly = stockReportService.getMovementTotals(
+                MONDAY, LocalDate.of(2024, 6, 30), ReportGranularity.MONTH, null, StockMovement.Type.out);
+
+        assertEquals(3, weekly.size());
+        assertTotal(weekly.get(0), MONDAY, "out", -35.0, 3);
+        assertTotal(weekly.get(1), MONDAY.plusDays(7), "out", -7.0, 1);
+        assertTotal(weekly.get(2), LocalDate.of(2024, 6, 3), "out", -3.0, 1);
+
+        assertEquals(2, monthly.size());
+        assertTotal(monthly.get(0), LocalDate.of(2024, 5, 1), "out", -42.0, 4);
+        assertTotal(monthly.get(1), LocalDate.of(2024, 6, 1), "out", -3.0, 1);
+    }
+
+    @Test
+    void workshopTotalsFollowTheExitSlipDestination() {
+        List<RollupTotalResponse> totals = stockReportService.getWorkshopTotals(
+                MONDAY, LocalDate.of(2024, 5, 31), ReportGranularity.MONTH, null);
+
+        assertEquals(2, totals.size());
+        assertTotal(totals.get(0), LocalDate.of(2024, 5, 1), "Cutting", -22.0, 3);
+        assertTotal(totals.get(1), LocalDate.of(2024, 5, 1), "Sewing", -20.0, 1);
+    }
+
+    @Test
+    void invertedRangeIsRejected() {
+        assertThrows(BadRequestException.class, () -> stockReportService.getWorkshopTotals(
+                MONDAY, MONDAY.minusDays(1), ReportGranularity.DAY, null));
+    }
+
+    private void record(StockMovement movement, ExitSlip exitSlip) {
+        stockReportService.onStockMovement(new StockMovementEvent(movement, exitSlip));
+    }
+
+    private static StockMovement movement(Long productId, StockMovement.Type type, double quantity, LocalDate day) {
+        Product product = new Product();
+        product.setId(productId);
+
+        StockMovement movement = new StockMovement();
+        movement.setProduct(product);
+        movement.setType(type);
+        movement.setQuantity(quantity);
+        movement.setDate(day.atTime(10, 0));
+        return movement;
+    }
+
+    private static ExitSlip exitSlip(String workshop) {
+        ExitSlip exitSlip = new ExitSlip();
+        exitSlip.setDestinationWorkshop(workshop);
+        exitSlip.setExitDate(LocalDateTime.now());
+        return exitSlip;
+    }
+
+    private static void assertTotal(RollupTotalResponse total, LocalDate periodStart, String key,
+                                    double quantity, long movementCount) {
+        assertEquals(periodStart, total.getPeriodStart());
+        assertEquals(key, total.getKey());
+        assertEquals(quantity, total.getQuantity(), 0.0001);
+        assertEquals(movementCount, total.getMovementCount());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.dto.request.SupplierDTO;
+import com.example.tricol.tricolspringbootrestapi.dto.response.CursorSliceResponse;
+import com.example.tricol.tricolspringbootrestapi.exception.ResourceNotFoundException;
+import com.example.tricol.tricolspringbootrestapi.mapper.SupplierMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.search.SupplierSearchIndex;
+import com.example.tricol.tricolspringbootrestapi.service.impl.SupplierService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({SupplierService.class, SupplierMapperImpl.class, SupplierSearchIndex.class})
+public class SupplierServiceTest {
+
+    private static final Timestamp ORDER_DATE = Timestamp.valueOf(LocalDateTime.of(2024, 5, 6, 10, 0));
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private SupplierSearchIndex supplierSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        jdbcTemplate.update("INSERT INTO products (id, reference, name, unit_price, category, measure_unit, reorder_point, current_stock, created_at) "
+                + "VALUES (1, 'REF-1', 'Fabric', 10.0, 'Fabric', 'm', 5.0, 0.0, ?)", ORDER_DATE);
+        for (long id = 1; id <= 45; id++) {
+            jdbcTemplate.update("INSERT INTO supplier (id, society, email, phone) VALUES (?, ?, ?, '0600000000')",
+                    id, "Supplier " + id, "s" + id + "@tricol.test");
+        }
+        // supplier 2 has one order, supplier 3 a long history
+        orders(2L, 1, 1);
+        orders(3L, 300, 5);
+    }
+
+    @Test
+    void deletionCostsTheSameStatementsWhateverTheOrderHistory() {
+        long withoutOrders = statementsFor(() -> supplierService.deleteSupplier(1L));
+        long oneOrder = statementsFor(() -> supplierService.deleteSupplier(2L));
+        long longHistory = statementsFor(() -> supplierService.deleteSupplier(3L));
+
+        assertEquals(1, withoutOrders);
+        assertEquals(2, oneOrder);
+        assertEquals(oneOrder, longHistory);
+
+        assertEquals(0, count("SELECT COUNT(*) FROM supplier WHERE id = 1"));
+        assertEquals(2, count("SELECT COUNT(*) FROM supplier WHERE id IN (2, 3) AND archived_at IS NOT NULL"));
+        assertEquals(301, count("SELECT COUNT(*) FROM orders"));
+        assertEquals(1501, count("SELECT COUNT(*) FROM order_item"));
+    }
+
+    @Test
+    void archivedSuppliersAreGone() {
+        supplierService.deleteSupplier(3L);
+
+        assertThrows(ResourceNotFoundException.class, () -> supplierService.getSupplierById(3L));
+        assertThrows(ResourceNotFoundException.class, () -> supplierService.deleteSupplier(3L));
+        assertThrows(ResourceNotFoundException.class, () -> supplierService.deleteSupplier(999L));
+        assertEquals(44, supplierService.getSuppliers(PageRequest.of(0, 20)).getTotalElements());
+    }
+
+    @Test
+    void keysetListingWalksActiveSuppliersInIdOrder() {
+        supplierService.deleteSupplier(21L);
+
+        List<String> societies = new ArrayList<>();
+        CursorSliceResponse<SupplierDTO> slice = supplierService.scrollSuppliers("", 20, true);
+        assertEquals(44L, slice.getTotalElements());
+        while (true) {
+            slice.getContent().forEach(supplier -> societies.add(supplier.getSociety()));
+            if (!slice.isHasNext()) {
+                break;
+            }
+            slice = supplierService.scrollSuppliers(slice.getNextCursor(), 20, false);
+            assertNull(slice.getTotalElements());
+        }
+
+        assertEquals(44, societies.size());
+        assertEquals("Supplier 20", societies.get(19));
+        assertEquals("Supplier 22", societies.get(20));
+        assertEquals("Supplier 45", societies.get(43));
+    }
+
+    @Test
+    void searchIndexOnlySeesCommittedDeletions() {
+        supplierService.buildSearchIndex();
+
+        supplierService.deleteSupplier(5L);
+        assertEquals(45, supplierSearchIndex.size());
+
+        TestTransaction.end();
+        assertEquals(45, supplierSearchIndex.size());
+        assertEquals(List.of(5L), supplierSearchIndex.search("supplier 5", PageRequest.of(0, 1)).getContent());
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private void orders(Long supplierId, int orders, int itemsPerOrder) {
+        Long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM orders", Long.class);
+        List<Object[]> orderRows = new ArrayList<>();
+        List<Object[]> itemRows = new ArrayList<>();
+        for (long orderId = firstId; orderId < firstId + orders; orderId++) {
+            orderRows.add(new Object[]{orderId, supplierId, ORDER_DATE, "delivered", 50.0});
+            for (int item = 0; item < itemsPerOrder; item++) {
+                itemRows.add(new Object[]{1.0, 10.0, 10.0, orderId, 1L});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, supplier_id, order_date, status, total_amount) VALUES (?, ?, ?, ?, ?)", orderRows);
+        jdbcTemplate.batchUpdate("INSERT INTO order_item (quantity, unit_price, total, order_id, product_id) VALUES (?, ?, ?, ?, ?)", itemRows);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.tricol.tricolspringbootrestapi.service;
+
+import com.example.tricol.tricolspringbootrestapi.coalescing.CommittedWrites;
+import com.example.tricol.tricolspringbootrestapi.coalescing.ReadCoalescer;
+import com.example.tricol.tricolspringbootrestapi.dto.request.CreateExitSlipRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.CreateOrderItemRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.CreateOrderRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.ExitSlipItemRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.request.WarehouseRequest;
+import com.example.tricol.tricolspringbootrestapi.dto.response.WarehouseStockResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.ExitReason;
+import com.example.tricol.tricolspringbootrestapi.exception.InsufficientStockException;
+import com.example.tricol.tricolspringbootrestapi.mapper.ExitSlipItemMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.ExitSlipMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.OrderItemMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.OrderMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.mapper.WarehouseMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.metrics.InventoryMetrics;
+import com.example.tricol.tricolspringbootrestapi.outbox.Outbox;
+import com.example.tricol.tricolspringbootrestapi.service.impl.ExitSlipServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.OrderServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.StockReportServiceImpl;
+import com.example.tricol.tricolspringbootrestapi.service.impl.WarehouseServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// receptions into two warehouses, then exit slips that may only consume the lots of their own warehouse
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({WarehouseServiceImpl.class, OrderServiceImpl.class, ExitSlipServiceImpl.class, StockReportServiceImpl.class, ReadCoalescer.class, CommittedWrites.class,
+        Outbox.class, WarehouseMapperImpl.class, OrderMapperImpl.class, OrderItemMapperImpl.class, ExitSlipMapperImpl.class,
+        ExitSlipItemMapperImpl.class, InventoryMetrics.class, SimpleMeterRegistry.class})
+public class WarehouseServiceTest {
+
+    private static final long MAIN = 1L;
+    private static final long PRODUCT = 1L;
+
+    @Autowired
+    private WarehouseServiceImpl warehouseService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private ExitSlipServiceImpl exitSlipService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long north;
+
+    @BeforeEach
+    void receiveIntoTwoWarehouses() {
+        jdbcTemplate.update("INSERT INTO supplier (id, society, email, phone) VALUES (1, 'Supplier', 's@tricol.test', '0600000000')");
+        jdbcTemplate.update("INSERT INTO products (id, reference, name, unit_price, category, measure_unit, reorder_point, current_stock, created_at) "
+                + "VALUES (1, 'REF-1', 'Product 1', 10.0, 'Fabric', 'm', 5.0, 0.0, CURRENT_TIMESTAMP)");
+        north = warehouseService.createWarehouse(new WarehouseRequest("NORTH", "North warehouse")).getId();
+
+        orderService.receiveOrder(orderService.createOrder(order(null, 5.0)).getId());
+        orderService.receiveOrder(orderService.createOrder(order(north, 8.0)).getId());
+    }
+
+    @Test
+    void countersFollowReceptionsPerWarehouse() {
+        assertEquals(5.0, stockOf(warehouseService.getWarehouseStock(MAIN)));
+        assertEquals(8.0, stockOf(warehouseService.getWarehouseStock(north)));
+
+        List<WarehouseStockResponse> consolidated = warehouseService.getConsolidatedStock(PRODUCT);
+        assertEquals(1, consolidated.size());
+        assertEquals(13.0, consolidated.get(0).getTotal());
+        assertEquals(List.of("MAIN", "NORTH"), consolidated.get(0).getWarehouses().stream()
+                .map(WarehouseStockResponse.Location::getCode).toList());
+    }
+
+    @Test
+    void validationConsumesOnlyTheLotsOfTheSlipsWarehouse() {
+        exitSlipService.validateExitSlip(exitSlipService.createExitSlip(slip(north, "6.0")).getId());
+
+        assertEquals(5.0, stockOf(warehouseService.getWarehouseStock(MAIN)));
+        assertEquals(2.0, stockOf(warehouseService.getWarehouseStock(north)));
+        assertEquals(7.0, warehouseService.getConsolidatedStock(PRODUCT).get(0).getTotal());
+        assertEquals(5.0, jdbcTemplate.queryForObject(
+                "SELECT SUM(available_quantity) FROM stock_slots WHERE warehouse_id = ?", Double.class, MAIN));
+    }
+
+    @Test
+    void stockInAnotherWarehouseDoesNotCoverASlip() {
+        Long slipId = exitSlipService.createExitSlip(slip(MAIN, "6.0")).getId();
+
+        assertThrows(InsufficientStockException.class, () -> exitSlipService.validateExitSlip(slipId));
+    }
+
+    private static double stockOf(List<WarehouseStockResponse> stock) {
+        return stock.stream()
+                .filter(row -> row.getProductId().equals(PRODUCT))
+                .mapToDouble(WarehouseStockResponse::getTotal)
+                .sum();
+    }
+
+    private static CreateOrderRequest order(Long warehouseId, double quantity) {
+        CreateOrderItemRequest item = new CreateOrderItemRequest();
+        item.setProductId(PRODUCT);
+        item.setQuantity(quantity);
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setSupplierId(1L);
+        request.setWarehouseId(warehouseId);
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    private static CreateExitSlipRequest slip(Long warehouseId, String quantity) {
+        return new CreateExitSlipRequest(LocalDateTime.now(), "Cutting", ExitReason.PRODUCTION, null,
+                List.of(new ExitSlipItemRequest(PRODUCT, new BigDecimal(quantity), null)), warehouseId);
+    }
+}
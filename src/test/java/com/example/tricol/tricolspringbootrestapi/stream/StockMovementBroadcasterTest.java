@@ -0,0 +1,159 @@
+package com.example.tricol.tricolspringbootrestapi.stream;
+
+import com.example.tricol.tricolspringbootrestapi.dto.response.StockMovementResponse;
+import com.example.tricol.tricolspringbootrestapi.enums.StreamOverflowPolicy;
+import com.example.tricol.tricolspringbootrestapi.event.StockMovementEvent;
+import com.example.tricol.tricolspringbootrestapi.mapper.StockMovementMapperImpl;
+import com.example.tricol.tricolspringbootrestapi.model.Product;
+import com.example.tricol.tricolspringbootrestapi.model.StockMovement;
+import com.example.tricol.tricolspringbootrestapi.model.StockSlot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockMovementBroadcasterTest {
+
+    private static final int CAPACITY = 3;
+
+    private final StockMovementBroadcaster broadcaster =
+            new StockMovementBroadcaster(new StockMovementMapperImpl(), CAPACITY, 10, 60_000, 2);
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscribersOnlyReceiveMatchingMovements() throws Exception {
+        CapturingEmitter product1 = subscribe(1L, null, StreamOverflowPolicy.DROP_OLDEST);
+        CapturingEmitter exits = subscribe(null, "out", StreamOverflowPolicy.DROP_OLDEST);
+
+        publish(1, 1L, StockMovement.Type.in);
+        publish(2, 2L, StockMovement.Type.out);
+        publish(3, 1L, StockMovement.Type.out);
+
+        assertEquals(List.of("movement:1", "movement:3"), product1.awaitEvents(2));
+        assertEquals(List.of("movement:2", "movement:3"), exits.awaitEvents(2));
+    }
+
+    @Test
+    void slowSubscriberDropsOldestEventsWithoutBlockingTheWriter() throws Exception {
+        CapturingEmitter slow = subscribe(null, null, StreamOverflowPolicy.DROP_OLDEST);
+        slow.block();
+
+        // the first event parks the sender inside send(); the next ones pile up in the bounded queue
+        publish(1, 1L, StockMovement.Type.in);
+        slow.awaitSendAttempt();
+        long start = System.nanoTime();
+        for (long id = 2; id <= 10; id++) {
+            publish(id, 1L, StockMovement.Type.in);
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000, "publishing blocked on a slow client");
+
+        slow.release();
+        assertEquals(List.of("movement:1", "overflow:6", "movement:8", "movement:9", "movement:10"), slow.awaitEvents(5));
+        assertEquals(1, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void disconnectPolicyClosesTheStreamOfASlowSubscriber() throws Exception {
+        CapturingEmitter slow = subscribe(null, null, StreamOverflowPolicy.DISCONNECT);
+        CapturingEmitter fast = subscribe(null, null, StreamOverflowPolicy.DISCONNECT, 100);
+        slow.block();
+
+        publish(1, 1L, StockMovement.Type.in);
+        slow.awaitSendAttempt();
+        for (long id = 2; id <= 2 + CAPACITY; id++) {
+            publish(id, 1L, StockMovement.Type.in);
+        }
+
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(CAPACITY + 2, fast.awaitEvents(CAPACITY + 2).size());
+        slow.release();
+    }
+
+    private CapturingEmitter subscribe(Long productId, String type, StreamOverflowPolicy policy) {
+        return subscribe(productId, type, policy, CAPACITY);
+    }
+
+    private CapturingEmitter subscribe(Long productId, String type, StreamOverflowPolicy policy, int capacity) {
+        CapturingEmitter emitter = new CapturingEmitter();
+        broadcaster.register(new StockMovementSubscription(emitter, productId, type, null, policy, capacity));
+        return emitter;
+    }
+
+    private void publish(long id, Long productId, StockMovement.Type type) {
+        Product product = new Product();
+        product.setId(productId);
+        StockSlot slot = new StockSlot();
+        slot.setId(id);
+        slot.setLotNumber("LOT-" + id);
+
+        StockMovement movement = new StockMovement();
+        movement.setId(id);
+        movement.setType(type);
+        movement.setDate(LocalDateTime.now());
+        movement.setQuantity(1.0);
+        movement.setProduct(product);
+        movement.setStockSlot(slot);
+        broadcaster.onStockMovement(new StockMovementEvent(movement, null));
+    }
+
+    // records "name:payload" for each event sent; can hold the sender inside send() to play a slow client
+    static class CapturingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sendAttempted = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendAttempted.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String name = null;
+            Object payload = null;
+            for (var part : builder.build()) {
+                if (part.getData() instanceof String text && text.contains("event:")) {
+                    name = text.substring(text.indexOf("event:") + 6, text.indexOf('\n', text.indexOf("event:")));
+                } else if (!(part.getData() instanceof String)) {
+                    payload = part.getData();
+                }
+            }
+            if (name != null) {
+                events.add(name + ":" + (payload instanceof StockMovementResponse movement ? movement.getId() : payload));
+            }
+        }
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void awaitSendAttempt() throws InterruptedException {
+            assertTrue(sendAttempted.await(5, TimeUnit.SECONDS));
+        }
+
+        List<String> awaitEvents(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return List.copyOf(events);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.tricol.tricolspringbootrestapi.web;
+
+import com.example.tricol.tricolspringbootrestapi.controller.ExitSlipController;
+import com.example.tricol.tricolspringbootrestapi.controller.OrderController;
+import com.example.tricol.tricolspringbootrestapi.service.ExitSlipService;
+import com.example.tricol.tricolspringbootrestapi.service.LotTraceService;
+import com.example.tricol.tricolspringbootrestapi.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// one GET /orders in flight fills the orders read compartment; the next read is shed, writes are not
+@WebMvcTest(value = {OrderController.class, ExitSlipController.class}, properties = {
+        "tricol.bulkhead.retry-after-seconds=2",
+        "tricol.bulkhead.groups.orders.reads=1",
+        "tricol.bulkhead.groups.orders.max-wait-ms=50"
+})
+class BulkheadInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BulkheadInterceptor bulkheads;
+
+    @Autowired
+    private BulkheadProperties properties;
+
+    @Autowired
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private ExitSlipService exitSlipService;
+
+    @MockitoBean
+    private LotTraceService lotTraceService;
+
+    @Test
+    void aFullCompartmentShedsWithRetryAfterWhileOthersRun() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        when(orderService.getAllOrders()).thenAnswer(invocation -> {
+            inFlight.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        CompletableFuture<Integer> slowListing = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(get("/orders")).andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+        mockMvc.perform(get("/orders"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status").value(503));
+        mockMvc.perform(post("/exit-slips/1/validate")).andExpect(status().isOk());
+        mockMvc.perform(put("/orders/1").contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"cancelled\"}"))
+                .andExpect(status().isOk());
+
+        Bulkhead ordersReads = bulkheads.bulkhead("orders", true);
+        assertEquals(1, ordersReads.getActive());
+        assertEquals(1, ordersReads.getRejected());
+
+        finish.countDown();
+        assertEquals(200, slowListing.get(5, TimeUnit.SECONDS));
+        assertEquals(0, ordersReads.getActive());
+        assertEquals(0, bulkheads.bulkhead("orders", false).getActive());
+        assertEquals(0, bulkheads.bulkhead("exit-slips", false).getActive());
+    }
+
+    @Test
+    void poolCheckCountsTheCompartmentsOfTheMappedControllers() {
+        Map<String, Integer> compartments = BulkheadPoolCheck.compartments(properties, handlerMapping.getHandlerMethods());
+
+        assertEquals(Map.of("exit-slips.reads", 2, "exit-slips.writes", 6, "orders.reads", 1, "orders.writes", 4), compartments);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.tricol.tricolspringbootrestapi.web;
+
+import com.example.tricol.tricolspringbootrestapi.controller.ProductController;
+import com.example.tricol.tricolspringbootrestapi.dto.request.ProductDTO;
+import com.example.tricol.tricolspringbootrestapi.service.ProductService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductController.class)
+@Import(ContentEncodingConfiguration.class)
+class ContentEncodingConfigurationTest {
+
+    private static final TypeReference<List<ProductDTO>> PRODUCTS = new TypeReference<>() {
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ProductService productService;
+
+    private final List<ProductDTO> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 50; id++) {
+            products.add(new ProductDTO(id, "REF-" + id, "Product " + id, "Cotton fabric, 150 cm", 12.5,
+                    "Fabric", "m", 20.0, 100.0 + id));
+        }
+        when(productService.getProducts()).thenReturn(products);
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/products").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(BlackbirdModule.class.getName()));
+    }
+
+    @Test
+    void smileAndCborCarryTheSameDocumentInFewerBytes() throws Exception {
+        byte[] json = body(MediaType.APPLICATION_JSON_VALUE);
+        byte[] smile = body("application/x-jackson-smile");
+        byte[] cbor = body("application/cbor");
+
+        assertEquals(products, objectMapper.readValue(json, PRODUCTS));
+        assertEquals(products, new SmileMapper().readValue(smile, PRODUCTS));
+        assertEquals(products, new CBORMapper().readValue(cbor, PRODUCTS));
+        assertTrue(smile.length < json.length, "smile " + smile.length + " bytes, json " + json.length);
+        assertTrue(cbor.length < json.length, "cbor " + cbor.length + " bytes, json " + json.length);
+    }
+
+    private byte[] body(String mediaType) throws Exception {
+        MvcResult result = mockMvc.perform(get("/products").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn();
+        return result.getResponse().getContentAsByteArray();
+    }
+}